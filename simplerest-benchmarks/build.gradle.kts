@@ -0,0 +1,25 @@
+plugins {
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    jmh(project(":simplerest-core"))
+    jmh(project(":simplerest-processor"))
+    jmh("com.google.elemental2:elemental2-dom:1.2.3")
+    jmh("javax.ws.rs:jsr311-api:1.1.1")
+}
+
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // e.g. ./gradlew :simplerest-benchmarks:jmh -Pjmh.includes=UriBenchmark
+    project.findProperty("jmh.includes")?.let { includes.set(listOf(it.toString())) }
+}
+
+// benchmarks are run from source, never published
+tasks.withType<AbstractPublishToMaven> {
+    enabled = false
+}
+
+description = "simplerest-benchmarks"
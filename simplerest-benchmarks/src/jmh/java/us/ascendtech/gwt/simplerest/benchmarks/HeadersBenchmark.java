@@ -0,0 +1,59 @@
+package us.ascendtech.gwt.simplerest.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import us.ascendtech.gwt.simplerest.client.RequestTemplate;
+import us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder;
+
+import javax.ws.rs.HttpMethod;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+/**
+ * Header assembly for a POST with a body, with and without header params of its own, and form param assembly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HeadersBenchmark {
+
+	private static final String BASE = "http://localhost:8080/service/todo";
+	private static final RequestTemplate TEMPLATE = RequestTemplate.builder(HttpMethod.POST).path("add").produces(APPLICATION_JSON)
+			.consumes(APPLICATION_JSON).build();
+	private static final Object DATA = new Object();
+
+	@Param({ "0", "4" })
+	public int headerParams;
+
+	private SimpleRequestBuilder withHeaders(SimpleRequestBuilder builder) {
+		for (int i = 0; i < headerParams; i++) {
+			builder.header("X-Header-" + i, i);
+		}
+		return builder;
+	}
+
+	@Benchmark
+	public List<SimpleRequestBuilder.Param> headers() {
+		SimpleRequestBuilder builder = new JvmRequestBuilder(BASE).method(HttpMethod.POST).path("add").produces(APPLICATION_JSON).consumes(APPLICATION_JSON);
+		return withHeaders(builder).data(DATA).headers(false);
+	}
+
+	@Benchmark
+	public List<SimpleRequestBuilder.Param> headersFromTemplate() {
+		return withHeaders(new JvmRequestBuilder(BASE, TEMPLATE)).data(DATA).headers(false);
+	}
+
+	@Benchmark
+	public List<SimpleRequestBuilder.Param> form() {
+		SimpleRequestBuilder builder = new JvmRequestBuilder(BASE).method(HttpMethod.POST).path("login");
+		return withHeaders(builder).form("username", "user").form("password", "secret").form("roles", List.of("admin", "user")).headers(false);
+	}
+}
@@ -0,0 +1,67 @@
+package us.ascendtech.gwt.simplerest.benchmarks;
+
+import us.ascendtech.gwt.simplerest.client.RequestTemplate;
+import us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lets the request building code run on the JVM, elemental2's encodeURIComponent only exists in the browser.
+ */
+public class JvmRequestBuilder extends SimpleRequestBuilder {
+
+	public JvmRequestBuilder(String base) {
+		super(base);
+	}
+
+	public JvmRequestBuilder(String base, RequestTemplate template) {
+		super(base, template);
+	}
+
+	@Override
+	protected String encodeComponent(String str) {
+		return plusForSpaces(encodeURIComponent(str));
+	}
+
+	/**
+	 * Same output as the browser's encodeURIComponent, which leaves ! ' ( ) ~ alone and encodes spaces as %20
+	 */
+	static String encodeURIComponent(String str) {
+		String encoded = URLEncoder.encode(str, StandardCharsets.UTF_8);
+		StringBuilder out = new StringBuilder(encoded.length() + 8);
+		for (int i = 0; i < encoded.length(); i++) {
+			char c = encoded.charAt(i);
+			if (c == '+') {
+				out.append("%20");
+			}
+			else if (c == '%' && i + 2 < encoded.length()) {
+				String hex = encoded.substring(i + 1, i + 3);
+				switch (hex) {
+					case "21":
+						out.append('!');
+						break;
+					case "27":
+						out.append('\'');
+						break;
+					case "28":
+						out.append('(');
+						break;
+					case "29":
+						out.append(')');
+						break;
+					case "7E":
+						out.append('~');
+						break;
+					default:
+						out.append(c).append(hex);
+				}
+				i += 2;
+			}
+			else {
+				out.append(c);
+			}
+		}
+		return out.toString();
+	}
+}
@@ -0,0 +1,134 @@
+package us.ascendtech.gwt.simplerest.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import us.ascendtech.gwt.simplerest.processor.SimpleRestGwtProcessor;
+import us.ascendtech.gwt.simplerest.processor.SimpleRestGwtSyncProcessor;
+
+import javax.annotation.processing.Processor;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Annotation processing of a synthetic service interface with many methods, sources only (-proc:only).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProcessorBenchmark {
+
+	@Param({ "10", "100", "500" })
+	public int methods;
+
+	@Param({ "async", "sync" })
+	public String syntax;
+
+	private JavaCompiler compiler;
+	private StandardJavaFileManager fileManager;
+	private JavaFileObject source;
+	private Path output;
+
+	@Setup
+	public void setup() throws IOException {
+		compiler = ToolProvider.getSystemJavaCompiler();
+		fileManager = compiler.getStandardFileManager(null, null, null);
+		output = Files.createTempDirectory("simplerest-processor-benchmark");
+		fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(output.toFile()));
+		fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(output.toFile()));
+		String code = "sync".equals(syntax) ? syncService(methods) : asyncService(methods);
+		source = new SimpleJavaFileObject(URI.create("string:///bench/LargeService.java"), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return code;
+			}
+		};
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		fileManager.close();
+		try (Stream<Path> files = Files.walk(output)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@Benchmark
+	public boolean process() {
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+				List.of("-proc:only", "-classpath", System.getProperty("java.class.path")), null, List.of(source));
+		Processor processor = "sync".equals(syntax) ? new SimpleRestGwtSyncProcessor() : new SimpleRestGwtProcessor();
+		task.setProcessors(List.of(processor));
+		if (!task.call()) {
+			throw new IllegalStateException("processing failed: " + diagnostics.getDiagnostics());
+		}
+		return true;
+	}
+
+	private static StringBuilder header(String annotation) {
+		return new StringBuilder().append("package bench;\n\n").append("import us.ascendtech.gwt.simplerest.client.*;\n")
+				.append("import javax.ws.rs.*;\n").append("import java.util.List;\n\n").append("@").append(annotation).append("\n")
+				.append("@Path(\"/service/large\")\n").append("public interface LargeService {\n\n")
+				.append("\tclass ItemDTO {\n\t\tpublic String name;\n\t}\n\n");
+	}
+
+	static String asyncService(int methods) {
+		StringBuilder out = header("SimpleRestGwt");
+		for (int i = 0; i < methods; i++) {
+			switch (i % 3) {
+				case 0:
+					out.append("\t@GET @Path(\"/items").append(i).append("/{id}\")\n\tvoid getItem").append(i)
+							.append("(@PathParam(\"id\") Integer id, @QueryParam(\"q\") String q, SingleCallback<ItemDTO> callback, ErrorCallback errorCallback);\n\n");
+					break;
+				case 1:
+					out.append("\t@POST @Path(\"/items").append(i).append("\")\n\tvoid addItem").append(i)
+							.append("(ItemDTO item, SingleCallback<ItemDTO> callback, ErrorCallback errorCallback);\n\n");
+					break;
+				default:
+					out.append("\t@GET @Path(\"/items").append(i).append("\")\n\tvoid listItems").append(i)
+							.append("(@HeaderParam(\"X-Tenant\") String tenant, MultipleCallback<ItemDTO> callback, ErrorCallback errorCallback);\n\n");
+			}
+		}
+		return out.append("}\n").toString();
+	}
+
+	static String syncService(int methods) {
+		StringBuilder out = header("SimpleRestGwtSync");
+		for (int i = 0; i < methods; i++) {
+			switch (i % 3) {
+				case 0:
+					out.append("\t@GET @Path(\"/items").append(i).append("/{id}\")\n\tItemDTO getItem").append(i)
+							.append("(@PathParam(\"id\") Integer id, @QueryParam(\"q\") String q);\n\n");
+					break;
+				case 1:
+					out.append("\t@POST @Path(\"/items").append(i).append("\")\n\tItemDTO addItem").append(i).append("(ItemDTO item);\n\n");
+					break;
+				default:
+					out.append("\t@GET @Path(\"/items").append(i).append("\")\n\tList<ItemDTO> listItems").append(i)
+							.append("(@HeaderParam(\"X-Tenant\") String tenant);\n\n");
+			}
+		}
+		return out.append("}\n").toString();
+	}
+}
@@ -0,0 +1,96 @@
+package us.ascendtech.gwt.simplerest.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import us.ascendtech.gwt.simplerest.client.RequestTemplate;
+import us.ascendtech.gwt.simplerest.client.ResponseType;
+import us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder;
+
+import javax.ws.rs.HttpMethod;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builder construction, uri() and query() for a search style GET with a growing number of query params, single or list valued.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UriBenchmark {
+
+	private static final String BASE = "http://localhost:8080/service/todo";
+	private static final RequestTemplate TEMPLATE = RequestTemplate.builder(HttpMethod.GET).path("search").pathParam().path("items").build();
+
+	@Param({ "0", "4", "16" })
+	public int params;
+
+	@Param({ "false", "true" })
+	public boolean listValued;
+
+	private String[] keys;
+	private Object[] values;
+	private SimpleRequestBuilder built;
+
+	@Setup
+	public void setup() {
+		keys = new String[params];
+		values = new Object[params];
+		for (int i = 0; i < params; i++) {
+			keys[i] = "q" + i;
+			values[i] = listValued ? Arrays.asList("to do " + i, "done & dusted", "caf\u00e9 (" + i + ")") : "search term " + i;
+		}
+		built = chain();
+	}
+
+	private SimpleRequestBuilder chain() {
+		SimpleRequestBuilder builder = new JvmRequestBuilder(BASE).method(HttpMethod.GET).path("search", 42, "items");
+		for (int i = 0; i < keys.length; i++) {
+			builder.param(keys[i], values[i]);
+		}
+		return builder;
+	}
+
+	private SimpleRequestBuilder template() {
+		SimpleRequestBuilder builder = new JvmRequestBuilder(BASE, TEMPLATE).path(42);
+		for (int i = 0; i < keys.length; i++) {
+			builder.param(keys[i], values[i]);
+		}
+		return builder;
+	}
+
+	@Benchmark
+	public SimpleRequestBuilder build() {
+		return chain();
+	}
+
+	@Benchmark
+	public SimpleRequestBuilder buildFromTemplate() {
+		return template();
+	}
+
+	@Benchmark
+	public String uri() {
+		return chain().uri();
+	}
+
+	@Benchmark
+	public String uriFromTemplate() {
+		return template().uri();
+	}
+
+	@Benchmark
+	public String query() {
+		return built.query();
+	}
+
+	@Benchmark
+	public String requestKey() {
+		return built.requestKey(ResponseType.JSON);
+	}
+}
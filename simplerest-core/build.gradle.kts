@@ -5,7 +5,14 @@ plugins {
 dependencies {
     api("javax.ws.rs:jsr311-api:1.1.1")
     api("javax.inject:javax.inject:1")
-    implementation("com.google.elemental2:elemental2-dom:1.2.3")
+    api("com.google.elemental2:elemental2-dom:1.2.3")
+    // only the parts without browser calls are tested on the JVM
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
 }
 
 description = "simplerest-core"
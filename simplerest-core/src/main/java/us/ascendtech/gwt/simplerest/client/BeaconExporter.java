@@ -0,0 +1,61 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.Function;
+import elemental2.core.Global;
+import elemental2.core.JsArray;
+import elemental2.dom.DomGlobal;
+import jsinterop.base.Js;
+import jsinterop.base.JsPropertyMap;
+
+import java.util.List;
+
+/**
+ * Posts stats as a json array with navigator.sendBeacon, which also delivers while the page unloads. Each element holds the endpoint,
+ * counts per status class, byte totals and p50, p90 and p99 of every phase.
+ */
+public class BeaconExporter implements MetricsExporter {
+
+	private final String url;
+
+	public BeaconExporter(String url) {
+		this.url = url;
+	}
+
+	@Override
+	public void export(List<EndpointStats> stats) {
+		JsArray<Object> json = new JsArray<>();
+		for (EndpointStats endpoint : stats) {
+			json.push(toJson(endpoint));
+		}
+		// elemental2's Navigator has no sendBeacon
+		Function sendBeacon = Js.uncheckedCast(Js.asPropertyMap(DomGlobal.navigator).get("sendBeacon"));
+		sendBeacon.call(DomGlobal.navigator, url, Global.JSON.stringify(json));
+	}
+
+	protected JsPropertyMap<Object> toJson(EndpointStats stats) {
+		JsPropertyMap<Object> json = JsPropertyMap.of();
+		json.set("endpoint", stats.endpoint);
+		json.set("count", (double) stats.getCount());
+		json.set("failed", (double) stats.getStatusCount(0));
+		for (int statusClass = 1; statusClass <= 5; statusClass++) {
+			json.set(statusClass + "xx", (double) stats.getStatusCount(statusClass));
+		}
+		json.set("requestBytes", stats.getRequestBytes());
+		json.set("responseBytes", stats.getResponseBytes());
+		json.set("queue", percentiles(stats.queueTime));
+		json.set("firstByte", percentiles(stats.firstByteTime));
+		json.set("read", percentiles(stats.readTime));
+		json.set("parse", percentiles(stats.parseTime));
+		json.set("total", percentiles(stats.totalTime));
+		return json;
+	}
+
+	private static JsPropertyMap<Object> percentiles(LatencyHistogram histogram) {
+		JsPropertyMap<Object> json = JsPropertyMap.of();
+		json.set("p50", histogram.percentile(50));
+		json.set("p90", histogram.percentile(90));
+		json.set("p99", histogram.percentile(99));
+		json.set("max", histogram.getMax());
+		return json;
+	}
+}
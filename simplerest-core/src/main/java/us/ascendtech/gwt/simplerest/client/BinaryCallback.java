@@ -0,0 +1,12 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.ArrayBuffer;
+
+/**
+ * The raw response body, wrap it in a typed array view such as Float64Array to read numeric data without parsing or copying.
+ */
+public interface BinaryCallback extends SimpleRestCallback<ArrayBuffer> {
+
+	void onData(ArrayBuffer data);
+
+}
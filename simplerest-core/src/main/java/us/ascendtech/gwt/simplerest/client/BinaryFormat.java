@@ -0,0 +1,49 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.ArrayBuffer;
+
+import static us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder.APPLICATION_CBOR;
+import static us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder.APPLICATION_MSGPACK;
+
+/**
+ * A binary media type negotiated through {@code @Produces} and {@code @Consumes}. Bodies are decoded to and encoded from the same plain
+ * js values JSON.parse and JSON.stringify work with, so callbacks and {@link JsonCodec}s are the same for json and binary endpoints.
+ */
+public interface BinaryFormat {
+
+	String mediaType();
+
+	Object decode(ArrayBuffer body);
+
+	ArrayBuffer encode(Object value);
+
+	/**
+	 * The format of a Content-Type or Accept value, null when it is not a binary format
+	 */
+	static BinaryFormat of(String mediaType) {
+		if (mediaType == null) {
+			return null;
+		}
+		if (mediaType.startsWith(APPLICATION_CBOR)) {
+			return CborFormat.INSTANCE;
+		}
+		if (mediaType.startsWith(APPLICATION_MSGPACK) || mediaType.startsWith("application/msgpack")) {
+			return MessagePackFormat.INSTANCE;
+		}
+		return null;
+	}
+
+	/**
+	 * The first binary format among media types
+	 */
+	static BinaryFormat of(String[] mediaTypes) {
+		for (String mediaType : mediaTypes) {
+			BinaryFormat format = of(mediaType);
+			if (format != null) {
+				return format;
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,128 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.ArrayBuffer;
+import elemental2.core.DataView;
+import elemental2.dom.TextDecoder;
+
+/**
+ * Cursor over a binary body, shared by the {@link BinaryFormat} decoders
+ */
+class BinaryReader {
+
+	// below this length strings are decoded in place, calling into TextDecoder costs more than it saves
+	private static final int SHORT_STRING = 32;
+	private static TextDecoder textDecoder;
+
+	final ArrayBuffer buffer;
+	final DataView view;
+	int pos = 0;
+
+	BinaryReader(ArrayBuffer buffer) {
+		this.buffer = buffer;
+		this.view = new DataView(buffer);
+	}
+
+	int uint8() {
+		return view.getUint8(pos++);
+	}
+
+	int uint16() {
+		int value = view.getUint16(pos);
+		pos += 2;
+		return value;
+	}
+
+	int int8() {
+		return view.getInt8(pos++);
+	}
+
+	int int16() {
+		int value = view.getInt16(pos);
+		pos += 2;
+		return value;
+	}
+
+	int int32() {
+		int value = view.getInt32(pos);
+		pos += 4;
+		return value;
+	}
+
+	double uint32() {
+		// elemental2 types getUint32 as int, two halves keep values past 2^31 positive
+		double value = view.getUint16(pos) * 65536.0 + view.getUint16(pos + 2);
+		pos += 4;
+		return value;
+	}
+
+	/**
+	 * 64 bit integers as the nearest double, exact up to 2^53
+	 */
+	double uint64() {
+		double high = uint32();
+		return high * 4294967296.0 + uint32();
+	}
+
+	double int64() {
+		double high = int32();
+		return high * 4294967296.0 + uint32();
+	}
+
+	double float32() {
+		double value = view.getFloat32(pos);
+		pos += 4;
+		return value;
+	}
+
+	double float64() {
+		double value = view.getFloat64(pos);
+		pos += 8;
+		return value;
+	}
+
+	ArrayBuffer bytes(int length) {
+		ArrayBuffer bytes = buffer.slice(pos, pos + length);
+		pos += length;
+		return bytes;
+	}
+
+	String string(int length) {
+		int end = pos + length;
+		if (length < SHORT_STRING) {
+			StringBuilder str = new StringBuilder(length);
+			int i = pos;
+			while (i < end) {
+				int b = view.getUint8(i);
+				if (b >= 0x80) {
+					break;
+				}
+				str.append((char) b);
+				i++;
+			}
+			if (i == end) {
+				pos = end;
+				return str.toString();
+			}
+		}
+		if (textDecoder == null) {
+			textDecoder = new TextDecoder();
+		}
+		String str = textDecoder.decode(new DataView(buffer, pos, length));
+		pos = end;
+		return str;
+	}
+
+	/**
+	 * A decoded map key as a js property name
+	 */
+	static String key(Object key) {
+		if (key instanceof Double && (Double) key == Math.floor((Double) key) && !Double.isInfinite((Double) key)) {
+			return String.valueOf(((Double) key).longValue());
+		}
+		return String.valueOf(key);
+	}
+
+	boolean hasMore() {
+		return pos < buffer.byteLength;
+	}
+}
@@ -0,0 +1,141 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.ArrayBuffer;
+import elemental2.core.DataView;
+import elemental2.core.Uint8Array;
+import jsinterop.base.Js;
+import jsinterop.base.JsPropertyMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Growable output of the {@link BinaryFormat} encoders
+ */
+class BinaryWriter {
+
+	private ArrayBuffer buffer;
+	private DataView view;
+	private int capacity;
+	private int pos = 0;
+
+	BinaryWriter(int capacity) {
+		this.capacity = capacity;
+		this.buffer = new ArrayBuffer(capacity);
+		this.view = new DataView(buffer);
+	}
+
+	private void ensure(int length) {
+		if (pos + length <= capacity) {
+			return;
+		}
+		while (pos + length > capacity) {
+			capacity *= 2;
+		}
+		ArrayBuffer grown = new ArrayBuffer(capacity);
+		new Uint8Array(grown).set(new Uint8Array(buffer, 0, pos), 0);
+		buffer = grown;
+		view = new DataView(grown);
+	}
+
+	void uint8(int value) {
+		ensure(1);
+		view.setUint8(pos++, value);
+	}
+
+	void uint16(int value) {
+		ensure(2);
+		view.setUint16(pos, value);
+		pos += 2;
+	}
+
+	void uint32(double value) {
+		ensure(4);
+		view.setUint32(pos, value);
+		pos += 4;
+	}
+
+	void float64(double value) {
+		ensure(8);
+		view.setFloat64(pos, value);
+		pos += 8;
+	}
+
+	void bytes(ArrayBuffer bytes) {
+		int length = (int) bytes.byteLength;
+		ensure(length);
+		new Uint8Array(buffer, pos, length).set(new Uint8Array(bytes), 0);
+		pos += length;
+	}
+
+	/**
+	 * Utf-8 bytes of a string, the caller writes the length header first
+	 */
+	void utf8(String str) {
+		ensure(str.length() * 3);
+		for (int i = 0; i < str.length(); i++) {
+			int c = str.charAt(i);
+			if (c < 0x80) {
+				view.setUint8(pos++, c);
+			}
+			else if (c < 0x800) {
+				view.setUint8(pos++, 0xc0 | (c >> 6));
+				view.setUint8(pos++, 0x80 | (c & 0x3f));
+			}
+			else if (Character.isHighSurrogate((char) c) && i + 1 < str.length() && Character.isLowSurrogate(str.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint((char) c, str.charAt(++i));
+				view.setUint8(pos++, 0xf0 | (codePoint >> 18));
+				view.setUint8(pos++, 0x80 | ((codePoint >> 12) & 0x3f));
+				view.setUint8(pos++, 0x80 | ((codePoint >> 6) & 0x3f));
+				view.setUint8(pos++, 0x80 | (codePoint & 0x3f));
+			}
+			else {
+				view.setUint8(pos++, 0xe0 | (c >> 12));
+				view.setUint8(pos++, 0x80 | ((c >> 6) & 0x3f));
+				view.setUint8(pos++, 0x80 | (c & 0x3f));
+			}
+		}
+	}
+
+	/**
+	 * Number of utf-8 bytes in a string, for the length header
+	 */
+	static int utf8Length(String str) {
+		int length = 0;
+		for (int i = 0; i < str.length(); i++) {
+			int c = str.charAt(i);
+			if (c < 0x80) {
+				length++;
+			}
+			else if (c < 0x800) {
+				length += 2;
+			}
+			else if (Character.isHighSurrogate((char) c) && i + 1 < str.length() && Character.isLowSurrogate(str.charAt(i + 1))) {
+				length += 4;
+				i++;
+			}
+			else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Keys JSON.stringify would write, undefined and function values are left out
+	 */
+	static List<String> keys(JsPropertyMap<Object> map) {
+		List<String> keys = new ArrayList<>();
+		map.forEach(key -> {
+			String type = Js.typeof(map.get(key));
+			if (!"undefined".equals(type) && !"function".equals(type)) {
+				keys.add(key);
+			}
+		});
+		return keys;
+	}
+
+	ArrayBuffer toArrayBuffer() {
+		return buffer.slice(0, pos);
+	}
+}
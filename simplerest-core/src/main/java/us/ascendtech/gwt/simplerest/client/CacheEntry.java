@@ -0,0 +1,41 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import static javax.ws.rs.core.HttpHeaders.ETAG;
+import static javax.ws.rs.core.HttpHeaders.LAST_MODIFIED;
+
+public class CacheEntry {
+	public final SimpleResponse response;
+	public final String etag;
+	public final String lastModified;
+	public final long expires;
+	public final int size;
+
+	public CacheEntry(SimpleResponse response, long expires) {
+		this(response, response.headers.get(ETAG), response.headers.get(LAST_MODIFIED), expires, response.bodySize);
+	}
+
+	public CacheEntry(SimpleResponse response, String etag, String lastModified, long expires, int size) {
+		this.response = response;
+		this.etag = etag;
+		this.lastModified = lastModified;
+		this.expires = expires;
+		this.size = size;
+	}
+
+	public boolean isFresh(long now) {
+		return now < expires;
+	}
+
+	public boolean canRevalidate() {
+		return etag != null || lastModified != null;
+	}
+
+	public CacheEntry withExpires(long expires) {
+		return new CacheEntry(response, etag, lastModified, expires, size);
+	}
+
+	@Override
+	public String toString() {
+		return "CacheEntry{etag='" + etag + "', lastModified='" + lastModified + "', expires=" + expires + ", size=" + size + '}';
+	}
+}
@@ -0,0 +1,18 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keep GET responses in the client's {@link ResponseCache} for maxAge seconds. On a service interface it applies to every GET method,
+ * a method level annotation overrides it.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cached {
+
+	int maxAge();
+
+}
@@ -0,0 +1,237 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.ArrayBuffer;
+import elemental2.core.JsArray;
+import jsinterop.base.Js;
+import jsinterop.base.JsArrayLike;
+import jsinterop.base.JsPropertyMap;
+
+import java.util.List;
+
+/**
+ * RFC 8949 cbor. Tags are skipped and their content decoded, byte strings decode to an {@link ArrayBuffer}.
+ */
+public class CborFormat implements BinaryFormat {
+
+	public static final CborFormat INSTANCE = new CborFormat();
+
+	private static final int BREAK = 0xff;
+
+	protected CborFormat() {
+	}
+
+	@Override
+	public String mediaType() {
+		return SimpleRequestBuilder.APPLICATION_CBOR;
+	}
+
+	@Override
+	public Object decode(ArrayBuffer body) {
+		BinaryReader reader = new BinaryReader(body);
+		return reader.hasMore() ? read(reader) : null;
+	}
+
+	private Object read(BinaryReader reader) {
+		int initial = reader.uint8();
+		int major = initial >> 5;
+		int info = initial & 0x1f;
+
+		if (major == 7) {
+			switch (info) {
+				case 20:
+					return false;
+				case 21:
+					return true;
+				case 22:
+				case 23:
+					return null;
+				case 25:
+					return half(reader.uint16());
+				case 26:
+					return reader.float32();
+				case 27:
+					return reader.float64();
+				default:
+					throw new IllegalArgumentException("unsupported cbor simple value " + info);
+			}
+		}
+
+		double argument = argument(reader, info);
+		switch (major) {
+			case 0:
+				return argument;
+			case 1:
+				return -1 - argument;
+			case 2:
+				if (argument >= 0) {
+					return reader.bytes((int) argument);
+				}
+				BinaryWriter chunks = new BinaryWriter(256);
+				while (peek(reader) != BREAK) {
+					chunks.bytes((ArrayBuffer) read(reader));
+				}
+				reader.pos++;
+				return chunks.toArrayBuffer();
+			case 3:
+				if (argument >= 0) {
+					return reader.string((int) argument);
+				}
+				StringBuilder str = new StringBuilder();
+				while (peek(reader) != BREAK) {
+					str.append((String) read(reader));
+				}
+				reader.pos++;
+				return str.toString();
+			case 4:
+				JsArray<Object> array = new JsArray<>();
+				for (int i = 0; argument < 0 ? peek(reader) != BREAK : i < argument; i++) {
+					array.push(read(reader));
+				}
+				if (argument < 0) {
+					reader.pos++;
+				}
+				return array;
+			case 5:
+				JsPropertyMap<Object> map = JsPropertyMap.of();
+				for (int i = 0; argument < 0 ? peek(reader) != BREAK : i < argument; i++) {
+					String key = BinaryReader.key(read(reader));
+					map.set(key, read(reader));
+				}
+				if (argument < 0) {
+					reader.pos++;
+				}
+				return map;
+			default:
+				// tags only annotate the item that follows
+				return read(reader);
+		}
+	}
+
+	/**
+	 * The length or value following an initial byte, -1 for indefinite lengths
+	 */
+	private static double argument(BinaryReader reader, int info) {
+		if (info < 24) {
+			return info;
+		}
+		switch (info) {
+			case 24:
+				return reader.uint8();
+			case 25:
+				return reader.uint16();
+			case 26:
+				return reader.uint32();
+			case 27:
+				return reader.uint64();
+			case 31:
+				return -1;
+			default:
+				throw new IllegalArgumentException("malformed cbor length " + info);
+		}
+	}
+
+	private static int peek(BinaryReader reader) {
+		return reader.view.getUint8(reader.pos);
+	}
+
+	private static double half(int half) {
+		int exponent = (half >> 10) & 0x1f;
+		int mantissa = half & 0x3ff;
+		double value;
+		if (exponent == 0) {
+			value = mantissa * Math.pow(2, -24);
+		}
+		else if (exponent != 31) {
+			value = (mantissa + 1024) * Math.pow(2, exponent - 25);
+		}
+		else {
+			value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+		}
+		return (half & 0x8000) != 0 ? -value : value;
+	}
+
+	@Override
+	public ArrayBuffer encode(Object value) {
+		BinaryWriter writer = new BinaryWriter(256);
+		write(writer, value);
+		return writer.toArrayBuffer();
+	}
+
+	private void write(BinaryWriter writer, Object value) {
+		if (value == null) {
+			writer.uint8(0xf6);
+			return;
+		}
+		String type = Js.typeof(value);
+		if ("string".equals(type)) {
+			String str = Js.asString(value);
+			header(writer, 3, BinaryWriter.utf8Length(str));
+			writer.utf8(str);
+		}
+		else if ("number".equals(type)) {
+			double number = Js.asDouble(value);
+			if (number == Math.floor(number) && Math.abs(number) <= 9007199254740991.0) {
+				if (number >= 0) {
+					header(writer, 0, number);
+				}
+				else {
+					header(writer, 1, -1 - number);
+				}
+			}
+			else {
+				writer.uint8(0xfb);
+				writer.float64(number);
+			}
+		}
+		else if ("boolean".equals(type)) {
+			writer.uint8(Js.isTruthy(value) ? 0xf5 : 0xf4);
+		}
+		else if (value instanceof ArrayBuffer) {
+			ArrayBuffer bytes = (ArrayBuffer) value;
+			header(writer, 2, bytes.byteLength);
+			writer.bytes(bytes);
+		}
+		else if (JsArray.isArray(value)) {
+			JsArrayLike<Object> array = Js.asArrayLike(value);
+			header(writer, 4, array.getLength());
+			for (int i = 0; i < array.getLength(); i++) {
+				write(writer, array.getAt(i));
+			}
+		}
+		else {
+			JsPropertyMap<Object> map = Js.asPropertyMap(value);
+			List<String> keys = BinaryWriter.keys(map);
+			header(writer, 5, keys.size());
+			for (String key : keys) {
+				header(writer, 3, BinaryWriter.utf8Length(key));
+				writer.utf8(key);
+				write(writer, map.get(key));
+			}
+		}
+	}
+
+	private static void header(BinaryWriter writer, int major, double argument) {
+		int type = major << 5;
+		if (argument < 24) {
+			writer.uint8(type | (int) argument);
+		}
+		else if (argument < 0x100) {
+			writer.uint8(type | 24);
+			writer.uint8((int) argument);
+		}
+		else if (argument < 0x10000) {
+			writer.uint8(type | 25);
+			writer.uint16((int) argument);
+		}
+		else if (argument < 4294967296.0) {
+			writer.uint8(type | 26);
+			writer.uint32(argument);
+		}
+		else {
+			writer.uint8(type | 27);
+			double high = Math.floor(argument / 4294967296.0);
+			writer.uint32(high);
+			writer.uint32(argument - high * 4294967296.0);
+		}
+	}
+}
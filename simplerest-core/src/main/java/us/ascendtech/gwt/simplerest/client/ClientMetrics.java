@@ -0,0 +1,80 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.dom.DomGlobal;
+import elemental2.dom.EventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency histograms, byte counts and status classes per endpoint, kept in memory. Generated clients key them by interface and method.
+ * Share one instance between clients with {@link SimpleRestClient#setRequestObserver(RequestObserver)}.
+ */
+public class ClientMetrics implements RequestObserver {
+
+	private final Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+	private MetricsExporter exporter;
+	private double exportTimer = -1;
+	private EventListener pageHide;
+
+	@Override
+	public void onComplete(RequestTiming timing) {
+		EndpointStats stats = endpoints.get(timing.getEndpoint());
+		if (stats == null) {
+			stats = new EndpointStats(timing.getEndpoint());
+			endpoints.put(timing.getEndpoint(), stats);
+		}
+		stats.record(timing);
+	}
+
+	/**
+	 * A copy of the stats recorded so far, unaffected by later calls
+	 */
+	public List<EndpointStats> snapshot() {
+		List<EndpointStats> snapshot = new ArrayList<>(endpoints.size());
+		for (EndpointStats stats : endpoints.values()) {
+			snapshot.add(stats.copy());
+		}
+		return snapshot;
+	}
+
+	public void reset() {
+		endpoints.clear();
+	}
+
+	/**
+	 * Hand the stats to the exporter every intervalMillis and when the page is hidden, then start over. Each export covers the calls
+	 * since the previous one, nothing is exported when there were none.
+	 */
+	public void startExport(MetricsExporter exporter, int intervalMillis) {
+		stopExport();
+		this.exporter = exporter;
+		this.exportTimer = DomGlobal.setInterval(ignore -> export(), intervalMillis);
+		this.pageHide = event -> export();
+		DomGlobal.window.addEventListener("pagehide", pageHide);
+	}
+
+	public void stopExport() {
+		if (exporter == null) {
+			return;
+		}
+		DomGlobal.clearInterval(exportTimer);
+		DomGlobal.window.removeEventListener("pagehide", pageHide);
+		exporter = null;
+		pageHide = null;
+	}
+
+	/**
+	 * Export now, outside the interval
+	 */
+	public void export() {
+		if (exporter == null || endpoints.isEmpty()) {
+			return;
+		}
+		List<EndpointStats> snapshot = snapshot();
+		reset();
+		exporter.export(snapshot);
+	}
+}
@@ -0,0 +1,24 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Compress request bodies of at least threshold bytes with the browser's CompressionStream and send them with a Content-Encoding
+ * header, browsers without CompressionStream send them as is. On a service interface it applies to every method, a method level
+ * annotation overrides it.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CompressRequest {
+
+	/**
+	 * gzip, deflate or deflate-raw
+	 */
+	String value() default RequestCompressor.GZIP;
+
+	int threshold() default 1024;
+
+}
@@ -0,0 +1,94 @@
+package us.ascendtech.gwt.simplerest.client;
+
+/**
+ * Aggregated {@link RequestTiming}s of one endpoint, see {@link ClientMetrics#snapshot()}.
+ */
+public class EndpointStats {
+
+	public final String endpoint;
+	public final LatencyHistogram queueTime;
+	public final LatencyHistogram firstByteTime;
+	public final LatencyHistogram readTime;
+	public final LatencyHistogram parseTime;
+	public final LatencyHistogram totalTime;
+	// index 0 counts failed fetches, 1 to 5 the status classes
+	private final int[] statusClasses;
+	// doubles rather than longs, which GWT emulates
+	private double requestBytes;
+	private double responseBytes;
+
+	EndpointStats(String endpoint) {
+		this(endpoint, new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram(),
+				new int[6], 0, 0);
+	}
+
+	private EndpointStats(String endpoint, LatencyHistogram queueTime, LatencyHistogram firstByteTime, LatencyHistogram readTime,
+			LatencyHistogram parseTime, LatencyHistogram totalTime, int[] statusClasses, double requestBytes, double responseBytes) {
+		this.endpoint = endpoint;
+		this.queueTime = queueTime;
+		this.firstByteTime = firstByteTime;
+		this.readTime = readTime;
+		this.parseTime = parseTime;
+		this.totalTime = totalTime;
+		this.statusClasses = statusClasses;
+		this.requestBytes = requestBytes;
+		this.responseBytes = responseBytes;
+	}
+
+	void record(RequestTiming timing) {
+		queueTime.record(timing.getQueueTime());
+		totalTime.record(timing.getTotalTime());
+		int status = timing.getStatus();
+		if (status > 0) {
+			firstByteTime.record(timing.getFirstByteTime());
+			readTime.record(timing.getReadTime());
+			parseTime.record(timing.getParseTime());
+		}
+		statusClasses[status >= 100 && status < 600 ? status / 100 : 0]++;
+		requestBytes += timing.getRequestBytes();
+		responseBytes += timing.getResponseBytes();
+	}
+
+	EndpointStats copy() {
+		int[] statusClasses = new int[6];
+		System.arraycopy(this.statusClasses, 0, statusClasses, 0, 6);
+		return new EndpointStats(endpoint, queueTime.copy(), firstByteTime.copy(), readTime.copy(), parseTime.copy(), totalTime.copy(), statusClasses,
+				requestBytes, responseBytes);
+	}
+
+	public int getCount() {
+		return totalTime.getCount();
+	}
+
+	/**
+	 * @param statusClass 1 to 5 for 1xx to 5xx responses, 0 for fetches that failed without a response
+	 */
+	public int getStatusCount(int statusClass) {
+		return statusClasses[statusClass];
+	}
+
+	/**
+	 * Failed fetches and 5xx responses
+	 */
+	public int getErrorCount() {
+		return statusClasses[0] + statusClasses[5];
+	}
+
+	public double getErrorRate() {
+		return getCount() > 0 ? (double) getErrorCount() / getCount() : 0;
+	}
+
+	public double getRequestBytes() {
+		return requestBytes;
+	}
+
+	public double getResponseBytes() {
+		return responseBytes;
+	}
+
+	@Override
+	public String toString() {
+		return "EndpointStats{endpoint='" + endpoint + "', count=" + getCount() + ", errors=" + getErrorCount() + ", p50=" + totalTime.percentile(50)
+				+ ", p99=" + totalTime.percentile(99) + "}";
+	}
+}
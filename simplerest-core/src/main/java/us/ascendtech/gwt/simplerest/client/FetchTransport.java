@@ -0,0 +1,19 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.dom.DomGlobal;
+import elemental2.dom.RequestInit;
+import elemental2.dom.Response;
+import elemental2.promise.Promise;
+
+/**
+ * The browser's fetch, the transport every client starts with
+ */
+public class FetchTransport implements Transport {
+
+	public static final FetchTransport INSTANCE = new FetchTransport();
+
+	@Override
+	public Promise<Response> fetch(String url, RequestInit requestInit) {
+		return DomGlobal.window.fetch(url, requestInit);
+	}
+}
@@ -0,0 +1,21 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.Uint8Array;
+import elemental2.dom.ReadableStream;
+import elemental2.dom.WritableStream;
+import jsinterop.annotations.JsPackage;
+import jsinterop.annotations.JsType;
+
+/**
+ * elemental2 1.2.3 has no CompressionStream, its two sides are the elemental2 stream types
+ */
+@JsType(isNative = true, namespace = JsPackage.GLOBAL, name = "CompressionStream")
+class JsCompressionStream {
+
+	public ReadableStream<Uint8Array> readable;
+	public WritableStream<Object> writable;
+
+	public JsCompressionStream(String format) {
+	}
+
+}
@@ -0,0 +1,32 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate a {@link JsonCodec} for this type at compile time. Its properties are the public fields and the fields with a public getter and
+ * setter, clients encode and decode bodies of the type through the codec instead of JSON.stringify and an unchecked cast. The type needs
+ * a public no-arg constructor to decode into.
+ */
+@Target({ ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Json {
+
+	/**
+	 * Leave null properties out of the encoded object
+	 */
+	boolean omitNulls() default false;
+
+	/**
+	 * Leave primitive properties holding 0 or false out of the encoded object
+	 */
+	boolean omitDefaults() default false;
+
+	/**
+	 * Names of the fields to encode and decode, all of them when empty
+	 */
+	String[] fields() default {};
+
+}
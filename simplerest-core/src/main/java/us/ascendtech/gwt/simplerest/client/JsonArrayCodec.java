@@ -0,0 +1,68 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.JsArray;
+import jsinterop.base.Js;
+import jsinterop.base.JsArrayLike;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Json arrays of a type with its own codec, available on generated codecs as {@code ARRAY}.
+ */
+public class JsonArrayCodec<T> implements JsonCodec<T[]> {
+
+	private final JsonCodec<T> element;
+
+	public JsonArrayCodec(JsonCodec<T> element) {
+		this.element = element;
+	}
+
+	@Override
+	public Object encode(T[] values) {
+		if (values == null) {
+			return null;
+		}
+		JsArray<Object> json = new JsArray<>();
+		for (T value : values) {
+			json.push(element.encode(value));
+		}
+		return json;
+	}
+
+	@Override
+	public T[] decode(Object json) {
+		if (json == null) {
+			return null;
+		}
+		JsArrayLike<Object> array = Js.asArrayLike(json);
+		JsArray<T> values = new JsArray<>();
+		for (int i = 0; i < array.getLength(); i++) {
+			values.push(element.decode(array.getAt(i)));
+		}
+		return Js.uncheckedCast(values);
+	}
+
+	public Object encodeList(List<T> values) {
+		if (values == null) {
+			return null;
+		}
+		JsArray<Object> json = new JsArray<>();
+		for (T value : values) {
+			json.push(element.encode(value));
+		}
+		return json;
+	}
+
+	public List<T> decodeList(Object json) {
+		if (json == null) {
+			return null;
+		}
+		JsArrayLike<Object> array = Js.asArrayLike(json);
+		List<T> values = new ArrayList<>(array.getLength());
+		for (int i = 0; i < array.getLength(); i++) {
+			values.add(element.decode(array.getAt(i)));
+		}
+		return values;
+	}
+}
@@ -0,0 +1,19 @@
+package us.ascendtech.gwt.simplerest.client;
+
+/**
+ * Converts a type to and from its parsed json form. Generated for every {@link Json} annotated type as {@code <Type>JsonCodec}, clients
+ * use it in place of JSON.stringify on the request body and an unchecked cast of the response.
+ */
+public interface JsonCodec<T> {
+
+	/**
+	 * The value as a plain js object or array, ready for JSON.stringify
+	 */
+	Object encode(T value);
+
+	/**
+	 * The value read from the result of JSON.parse
+	 */
+	T decode(Object json);
+
+}
@@ -0,0 +1,17 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The json key of a property of a {@link Json} type, the field name by default.
+ */
+@Target({ ElementType.FIELD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface JsonKey {
+
+	String value();
+
+}
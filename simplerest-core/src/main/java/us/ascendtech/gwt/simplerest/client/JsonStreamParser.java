@@ -0,0 +1,110 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a json body that arrives in pieces into the text of its elements. A body starting with '[' is read as a single top level
+ * array, anything else as newline delimited json. Only the text of the element currently being read is kept.
+ */
+public class JsonStreamParser {
+
+	private enum Mode {
+		UNKNOWN,
+		ARRAY,
+		LINES,
+		DONE
+	}
+
+	private final StringBuilder pending = new StringBuilder();
+	private Mode mode = Mode.UNKNOWN;
+	private int depth = 0;
+	private boolean inString = false;
+	private boolean escaped = false;
+
+	public List<String> feed(String chunk) {
+		List<String> elements = new ArrayList<>();
+		int start = 0;
+		for (int i = 0; i < chunk.length(); i++) {
+			char c = chunk.charAt(i);
+			if (mode == Mode.UNKNOWN) {
+				if (Character.isWhitespace(c)) {
+					start = i + 1;
+					continue;
+				}
+				if (c == '[') {
+					mode = Mode.ARRAY;
+					start = i + 1;
+					continue;
+				}
+				mode = Mode.LINES;
+			}
+
+			if (mode == Mode.DONE) {
+				start = chunk.length();
+				break;
+			}
+			else if (mode == Mode.LINES) {
+				if (c == '\n') {
+					pending.append(chunk, start, i);
+					emit(elements);
+					start = i + 1;
+				}
+			}
+			else if (inString) {
+				if (escaped) {
+					escaped = false;
+				}
+				else if (c == '\\') {
+					escaped = true;
+				}
+				else if (c == '"') {
+					inString = false;
+				}
+			}
+			else if (c == '"') {
+				inString = true;
+			}
+			else if (c == '{' || c == '[') {
+				depth++;
+			}
+			else if (c == '}') {
+				depth--;
+			}
+			else if (c == ']') {
+				if (depth == 0) {
+					pending.append(chunk, start, i);
+					emit(elements);
+					mode = Mode.DONE;
+					start = chunk.length();
+					break;
+				}
+				depth--;
+			}
+			else if (c == ',' && depth == 0) {
+				pending.append(chunk, start, i);
+				emit(elements);
+				start = i + 1;
+			}
+		}
+		pending.append(chunk, start, chunk.length());
+		return elements;
+	}
+
+	public List<String> finish() {
+		if (mode == Mode.ARRAY) {
+			throw new IllegalStateException("unexpected end of json array");
+		}
+		List<String> elements = new ArrayList<>();
+		emit(elements);
+		return elements;
+	}
+
+	private void emit(List<String> elements) {
+		String element = pending.toString().trim();
+		pending.setLength(0);
+		if (!element.isEmpty()) {
+			elements.add(element);
+		}
+	}
+}
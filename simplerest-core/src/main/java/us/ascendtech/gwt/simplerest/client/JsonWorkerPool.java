@@ -0,0 +1,290 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.ArrayBuffer;
+import elemental2.core.Global;
+import elemental2.core.JsArray;
+import elemental2.core.Transferable;
+import elemental2.dom.Blob;
+import elemental2.dom.BlobPropertyBag;
+import elemental2.dom.TextDecoder;
+import elemental2.dom.URL;
+import elemental2.dom.Worker;
+import elemental2.promise.Promise;
+import elemental2.promise.Promise.PromiseExecutorCallbackFn.RejectCallbackFn;
+import elemental2.promise.Promise.PromiseExecutorCallbackFn.ResolveCallbackFn;
+import jsinterop.base.Js;
+import jsinterop.base.JsPropertyMap;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Parses json bodies on web workers, see {@link OffloadParsing}. The body's ArrayBuffer is transferred to the least busy worker, not
+ * copied, and the worker decodes and parses it. Arrays longer than the chunk size come back a chunk per message, so receiving a
+ * multi-megabyte list is spread over many short tasks and the page keeps handling input in between. Workers are started from a blob
+ * url on first use and get no buffer before they report that they run; where the content security policy does not allow them, bodies
+ * are parsed on the UI thread.
+ */
+public class JsonWorkerPool {
+
+	public static final int DEFAULT_THRESHOLD = 262144;
+	public static final int DEFAULT_CHUNK_SIZE = 2000;
+
+	private static final String WORKER_SOURCE = "var decoder = new TextDecoder();\n" //
+			+ "postMessage({ ready: true });\n" //
+			+ "onmessage = function (event) {\n" //
+			+ "  var id = event.data.id, chunk = event.data.chunk, value;\n" //
+			+ "  try {\n" //
+			+ "    value = JSON.parse(decoder.decode(event.data.buffer));\n" //
+			+ "  }\n" //
+			+ "  catch (e) {\n" //
+			+ "    postMessage({ id: id, error: String(e) });\n" //
+			+ "    return;\n" //
+			+ "  }\n" //
+			+ "  if (!Array.isArray(value) || value.length <= chunk) {\n" //
+			+ "    postMessage({ id: id, part: value, done: true });\n" //
+			+ "    return;\n" //
+			+ "  }\n" //
+			+ "  for (var i = 0; i < value.length; i += chunk) {\n" //
+			+ "    postMessage({ id: id, part: value.slice(i, i + chunk), array: true, done: i + chunk >= value.length });\n" //
+			+ "  }\n" //
+			+ "};\n";
+
+	private static class Parse {
+		private final ResolveCallbackFn<Object> resolve;
+		private final RejectCallbackFn reject;
+		private final int worker;
+		// until it is transferred to the worker
+		private ArrayBuffer buffer;
+		private JsArray<Object> elements;
+
+		private Parse(ResolveCallbackFn<Object> resolve, RejectCallbackFn reject, int worker, ArrayBuffer buffer) {
+			this.resolve = resolve;
+			this.reject = reject;
+			this.worker = worker;
+			this.buffer = buffer;
+		}
+	}
+
+	private static JsonWorkerPool shared;
+	private static String workerUrl;
+
+	private final int chunkSize;
+	private final Worker[] workers;
+	// parses in flight per worker
+	private final int[] load;
+	// whether the worker reported that it runs, one that fails before it does could not be started
+	private final boolean[] ready;
+	private final Map<Integer, Parse> parses = new HashMap<>();
+	private int nextId = 0;
+	private boolean unavailable = false;
+
+	public JsonWorkerPool() {
+		this(defaultSize(), DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param size workers started at most, each when it is first needed
+	 * @param chunkSize array elements sent back per message
+	 */
+	public JsonWorkerPool(int size, int chunkSize) {
+		if (size < 1 || chunkSize < 1) {
+			throw new IllegalArgumentException("size and chunk size must be positive");
+		}
+		this.chunkSize = chunkSize;
+		this.workers = new Worker[size];
+		this.load = new int[size];
+		this.ready = new boolean[size];
+	}
+
+	/**
+	 * The pool calls use unless their client sets one
+	 */
+	public static JsonWorkerPool shared() {
+		if (shared == null) {
+			shared = new JsonWorkerPool();
+		}
+		return shared;
+	}
+
+	public static boolean isSupported() {
+		return Js.global().has("Worker") && Js.global().has("Blob") && Js.global().has("TextDecoder") && Js.global().has("URL");
+	}
+
+	/**
+	 * One worker per core beyond the one running the page, at most four
+	 */
+	private static int defaultSize() {
+		JsPropertyMap<Object> navigator = Js.asPropertyMap(Js.global().get("navigator"));
+		int cores = navigator != null && navigator.has("hardwareConcurrency") ? (int) Js.asDouble(navigator.get("hardwareConcurrency")) : 2;
+		return Math.max(1, Math.min(4, cores - 1));
+	}
+
+	/**
+	 * Resolves with the parsed utf-8 json in the buffer, which is transferred and empty afterwards
+	 */
+	public Promise<Object> parse(ArrayBuffer buffer) {
+		int worker = unavailable ? -1 : pick();
+		if (worker < 0) {
+			return new Promise<>((resolve, reject) -> resolve.onInvoke(parseHere(buffer)));
+		}
+		int id = nextId++;
+		return new Promise<>((resolve, reject) -> {
+			Parse parse = new Parse(resolve, reject, worker, buffer);
+			parses.put(id, parse);
+			load[worker]++;
+			// a worker that has not started yet might never, so the buffer waits here where it can still be parsed
+			if (ready[worker]) {
+				post(id, parse);
+			}
+		});
+	}
+
+	/**
+	 * Stops the workers, parses in flight are rejected
+	 */
+	public void terminate() {
+		for (int i = 0; i < workers.length; i++) {
+			if (workers[i] != null) {
+				fail(i, "worker pool terminated");
+			}
+		}
+	}
+
+	/**
+	 * The least busy worker, started if need be, or -1 when workers cannot be started
+	 */
+	private int pick() {
+		int best = 0;
+		for (int i = 1; i < workers.length && load[best] > 0; i++) {
+			if (load[i] < load[best]) {
+				best = i;
+			}
+		}
+		if (workers[best] == null) {
+			try {
+				workers[best] = start(best);
+			}
+			catch (Exception e) {
+				unavailable = true;
+				return -1;
+			}
+		}
+		return best;
+	}
+
+	private Worker start(int index) {
+		if (workerUrl == null) {
+			BlobPropertyBag options = BlobPropertyBag.create();
+			options.setType("text/javascript");
+			Blob.ConstructorBlobPartsArrayUnionType source = Blob.ConstructorBlobPartsArrayUnionType.of(WORKER_SOURCE);
+			workerUrl = URL.createObjectURL(new Blob(new Blob.ConstructorBlobPartsArrayUnionType[] { source }, options));
+		}
+		Worker worker = new Worker(workerUrl);
+		worker.onmessage = event -> receive(index, Js.asPropertyMap(event.data));
+		worker.onerror = event -> {
+			if (ready[index]) {
+				fail(index, event.message != null ? event.message : "json worker failed");
+				return;
+			}
+			// workers cannot be started here, such as under a content security policy without blob urls, the waiting parses still can
+			unavailable = true;
+			workers[index].terminate();
+			workers[index] = null;
+			load[index] = 0;
+			for (Iterator<Parse> it = parses.values().iterator(); it.hasNext(); ) {
+				Parse parse = it.next();
+				if (parse.worker == index) {
+					it.remove();
+					parseHere(parse);
+				}
+			}
+		};
+		return worker;
+	}
+
+	private static Object parseHere(ArrayBuffer buffer) {
+		return Global.JSON.parse(new TextDecoder().decode(buffer));
+	}
+
+	private static void parseHere(Parse parse) {
+		Object value;
+		try {
+			value = parseHere(parse.buffer);
+		}
+		catch (Exception e) {
+			parse.reject.onInvoke(e);
+			return;
+		}
+		parse.resolve.onInvoke(value);
+	}
+
+	private void post(int id, Parse parse) {
+		ArrayBuffer buffer = parse.buffer;
+		parse.buffer = null;
+		workers[parse.worker].postMessage(JsPropertyMap.of("id", (double) id, "chunk", (double) chunkSize, "buffer", buffer),
+				new Transferable[] { buffer });
+	}
+
+	private void receive(int index, JsPropertyMap<Object> message) {
+		if (message.has("ready")) {
+			ready[index] = true;
+			parses.forEach((id, parse) -> {
+				if (parse.worker == index && parse.buffer != null) {
+					post(id, parse);
+				}
+			});
+			return;
+		}
+		int id = (int) Js.asDouble(message.get("id"));
+		Parse parse = parses.get(id);
+		if (parse == null) {
+			return;
+		}
+		if (message.has("error")) {
+			finish(id, parse);
+			parse.reject.onInvoke(Js.asString(message.get("error")));
+			return;
+		}
+
+		Object part = message.get("part");
+		if (Js.isTruthy(message.get("array"))) {
+			JsArray<Object> chunk = Js.uncheckedCast(part);
+			if (parse.elements == null) {
+				parse.elements = chunk;
+			}
+			else {
+				for (int i = 0; i < chunk.length; i++) {
+					parse.elements.push(chunk.getAt(i));
+				}
+			}
+		}
+		if (Js.isTruthy(message.get("done"))) {
+			finish(id, parse);
+			parse.resolve.onInvoke(parse.elements != null ? parse.elements : part);
+		}
+	}
+
+	private void finish(int id, Parse parse) {
+		parses.remove(id);
+		load[parse.worker]--;
+	}
+
+	/**
+	 * Stops a broken worker and rejects its parses, the next parse that picks it starts a new one
+	 */
+	private void fail(int index, String reason) {
+		workers[index].terminate();
+		workers[index] = null;
+		ready[index] = false;
+		load[index] = 0;
+		for (Iterator<Parse> it = parses.values().iterator(); it.hasNext(); ) {
+			Parse parse = it.next();
+			if (parse.worker == index) {
+				it.remove();
+				parse.reject.onInvoke(reason);
+			}
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package us.ascendtech.gwt.simplerest.client;
+
+/**
+ * Fixed size histogram of durations in milliseconds. Buckets grow by a quarter power of two, so from one millisecond up to a few hours
+ * percentiles are within 19% of the recorded values, in 96 counters.
+ */
+public class LatencyHistogram {
+
+	private static final int BUCKETS = 96;
+	private static final double STEPS_PER_DOUBLING = 4;
+
+	private final int[] counts = new int[BUCKETS];
+	private int count = 0;
+	private double sum = 0;
+	private double min = Double.MAX_VALUE;
+	private double max = 0;
+
+	public void record(double millis) {
+		if (millis < 0) {
+			return;
+		}
+		counts[bucket(millis)]++;
+		count++;
+		sum += millis;
+		min = Math.min(min, millis);
+		max = Math.max(max, millis);
+	}
+
+	/**
+	 * @param percentile between 0 and 100
+	 * @return the upper bound of the bucket holding the percentile, 0 when nothing was recorded
+	 */
+	public double percentile(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		int rank = Math.max(1, (int) Math.ceil(count * percentile / 100));
+		int seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(max, upperBound(i));
+			}
+		}
+		return max;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public double getMean() {
+		return count > 0 ? sum / count : 0;
+	}
+
+	public double getMin() {
+		return count > 0 ? min : 0;
+	}
+
+	public double getMax() {
+		return max;
+	}
+
+	public LatencyHistogram copy() {
+		LatencyHistogram copy = new LatencyHistogram();
+		System.arraycopy(counts, 0, copy.counts, 0, BUCKETS);
+		copy.count = count;
+		copy.sum = sum;
+		copy.min = min;
+		copy.max = max;
+		return copy;
+	}
+
+	private static int bucket(double millis) {
+		if (millis < 1) {
+			return 0;
+		}
+		return Math.min(BUCKETS - 1, 1 + (int) (Math.log(millis) / Math.log(2) * STEPS_PER_DOUBLING));
+	}
+
+	private static double upperBound(int bucket) {
+		return bucket == 0 ? 1 : Math.pow(2, bucket / STEPS_PER_DOUBLING);
+	}
+}
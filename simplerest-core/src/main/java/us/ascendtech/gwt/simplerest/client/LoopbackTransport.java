@@ -0,0 +1,245 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.Global;
+import elemental2.dom.AbortSignal;
+import elemental2.dom.DomGlobal;
+import elemental2.dom.Headers;
+import elemental2.dom.RequestInit;
+import elemental2.dom.Response;
+import elemental2.dom.ResponseInit;
+import elemental2.promise.Promise;
+import elemental2.promise.Promise.PromiseExecutorCallbackFn.RejectCallbackFn;
+import elemental2.promise.Promise.PromiseExecutorCallbackFn.ResolveCallbackFn;
+import jsinterop.base.Js;
+import jsinterop.base.JsPropertyMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+
+/**
+ * Answers requests in the page instead of sending them. Each request is routed by method and path to a handler written like the
+ * JAX-RS resource method it stands in for, so generated clients run without a server in tests and, with a latency set, the client
+ * side of a call can be measured in load and latency tests. Unrouted requests get a 404, a handler that throws a 500.
+ * <pre>
+ * LoopbackTransport loopback = new LoopbackTransport()
+ *     .route(GET, "/service/todo/list", request -&gt; LoopbackTransport.json(200, todos))
+ *     .route(DELETE, "/service/todo/delete/{id}", request -&gt; LoopbackTransport.status(remove(request.pathParam("id")) ? 204 : 404));
+ * todoServiceClient.setTransport(loopback);
+ * </pre>
+ */
+public class LoopbackTransport implements Transport {
+
+	public static class Request {
+		public final String method;
+		public final String path;
+		/**
+		 * The query string without the leading ?, empty when there is none
+		 */
+		public final String query;
+		public final Headers headers;
+		/**
+		 * A string, ArrayBuffer or FormData as the client sent it, null without a body
+		 */
+		public final Object body;
+		private final Map<String, String> pathParams;
+
+		private Request(String method, String path, String query, Headers headers, Object body, Map<String, String> pathParams) {
+			this.method = method;
+			this.path = path;
+			this.query = query;
+			this.headers = headers;
+			this.body = body;
+			this.pathParams = pathParams;
+		}
+
+		public String pathParam(String name) {
+			return pathParams.get(name);
+		}
+
+		/**
+		 * The first value of a query param, null when it is absent
+		 */
+		public String queryParam(String name) {
+			for (String pair : query.split("&")) {
+				int eq = pair.indexOf('=');
+				String key = eq < 0 ? pair : pair.substring(0, eq);
+				if (decode(key).equals(name)) {
+					return eq < 0 ? "" : decode(pair.substring(eq + 1));
+				}
+			}
+			return null;
+		}
+
+		public String header(String name) {
+			return headers.get(name);
+		}
+
+		/**
+		 * The body parsed as json, null when there is no text body
+		 */
+		public <T> T json() {
+			return body instanceof String ? Js.uncheckedCast(Global.JSON.parse((String) body)) : null;
+		}
+
+		private static String decode(String encoded) {
+			return Global.decodeURIComponent(encoded.replace('+', ' '));
+		}
+	}
+
+	@FunctionalInterface
+	public interface Handler {
+
+		Response handle(Request request);
+
+	}
+
+	private static class Route {
+		private final String method;
+		private final String[] segments;
+		private final Handler handler;
+
+		private Route(String method, String[] segments, Handler handler) {
+			this.method = method;
+			this.segments = segments;
+			this.handler = handler;
+		}
+
+		/**
+		 * The path params when the path matches, null otherwise
+		 */
+		private Map<String, String> match(String[] path) {
+			if (path.length != segments.length) {
+				return null;
+			}
+			Map<String, String> params = new HashMap<>();
+			for (int i = 0; i < segments.length; i++) {
+				if (segments[i].startsWith("{") && segments[i].endsWith("}")) {
+					params.put(segments[i].substring(1, segments[i].length() - 1), Global.decodeURIComponent(path[i]));
+				}
+				else if (!segments[i].equals(path[i])) {
+					return null;
+				}
+			}
+			return params;
+		}
+	}
+
+	private final List<Route> routes = new ArrayList<>();
+	private int latency = 0;
+
+	/**
+	 * @param path the full path including the service path, {name} matches one segment
+	 */
+	public LoopbackTransport route(String method, String path, Handler handler) {
+		Objects.requireNonNull(method, "method required");
+		Objects.requireNonNull(handler, "handler required");
+		routes.add(new Route(method, segments(path), handler));
+		return this;
+	}
+
+	public int getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Milliseconds each response is held back, 0 answers at once
+	 */
+	public void setLatency(int latency) {
+		this.latency = latency;
+	}
+
+	public static Response json(int status, Object body) {
+		return response(status, Global.JSON.stringify(body), APPLICATION_JSON);
+	}
+
+	public static Response text(int status, String body) {
+		return response(status, body, TEXT_PLAIN);
+	}
+
+	public static Response status(int status) {
+		return response(status, null, null);
+	}
+
+	private static Response response(int status, String body, String contentType) {
+		Headers headers = new Headers();
+		if (contentType != null) {
+			headers.set(CONTENT_TYPE, contentType);
+		}
+		ResponseInit init = ResponseInit.create();
+		init.setStatus(status);
+		init.setHeaders(headers);
+		return new Response(Response.ConstructorBodyUnionType.of(body), init);
+	}
+
+	@Override
+	public Promise<Response> fetch(String url, RequestInit requestInit) {
+		JsPropertyMap<Object> init = Js.asPropertyMap(requestInit);
+		AbortSignal signal = Js.uncheckedCast(init.get("signal"));
+		return new Promise<>((resolve, reject) -> {
+			if (latency <= 0) {
+				answer(url, init, signal, resolve, reject);
+			}
+			else {
+				DomGlobal.setTimeout(ignore -> answer(url, init, signal, resolve, reject), latency);
+			}
+		});
+	}
+
+	private void answer(String url, JsPropertyMap<Object> init, AbortSignal signal, ResolveCallbackFn<Response> resolve, RejectCallbackFn reject) {
+		if (signal != null && signal.aborted) {
+			reject.onInvoke("request aborted");
+			return;
+		}
+		Response response;
+		try {
+			response = handle(url, init);
+		}
+		catch (Exception e) {
+			response = text(500, String.valueOf(e.getMessage()));
+		}
+		resolve.onInvoke(response);
+	}
+
+	private Response handle(String url, JsPropertyMap<Object> init) {
+		// absolute urls are reduced to their path
+		int scheme = url.indexOf("://");
+		int start = scheme < 0 ? 0 : url.indexOf('/', scheme + 3);
+		String pathAndQuery = start < 0 ? "/" : url.substring(start);
+		int question = pathAndQuery.indexOf('?');
+		String path = question < 0 ? pathAndQuery : pathAndQuery.substring(0, question);
+		String query = question < 0 ? "" : pathAndQuery.substring(question + 1);
+
+		String method = init.has("method") ? Js.asString(init.get("method")) : "GET";
+		Headers headers = init.get("headers") != null ? Js.uncheckedCast(init.get("headers")) : new Headers();
+		String[] segments = segments(path);
+		for (Route route : routes) {
+			if (!route.method.equalsIgnoreCase(method)) {
+				continue;
+			}
+			Map<String, String> pathParams = route.match(segments);
+			if (pathParams != null) {
+				return route.handler.handle(new Request(method, path, query, headers, init.get("body"), pathParams));
+			}
+		}
+		return text(404, "no loopback route for " + method + " " + path);
+	}
+
+	private static String[] segments(String path) {
+		int start = 0;
+		int end = path.length();
+		while (start < end && path.charAt(start) == '/') {
+			start++;
+		}
+		while (end > start && path.charAt(end - 1) == '/') {
+			end--;
+		}
+		return start == end ? new String[0] : path.substring(start, end).split("/");
+	}
+}
@@ -0,0 +1,71 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used response cache bounded by entry count and by total body size. Sizes are the length of the response text,
+ * which is close to the byte size for mostly ascii json.
+ */
+public class LruResponseCache implements ResponseCache {
+
+	private final int maxEntries;
+	private final long maxSize;
+	private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long size = 0;
+
+	public LruResponseCache(int maxEntries, long maxSize) {
+		if (maxEntries < 1 || maxSize < 1) {
+			throw new IllegalArgumentException("cache bounds must be positive");
+		}
+		this.maxEntries = maxEntries;
+		this.maxSize = maxSize;
+	}
+
+	@Override
+	public CacheEntry get(String key) {
+		return entries.get(key);
+	}
+
+	@Override
+	public void put(String key, CacheEntry entry) {
+		remove(key);
+		if (entry.size > maxSize) {
+			return;
+		}
+		entries.put(key, entry);
+		size += entry.size;
+		evict();
+	}
+
+	@Override
+	public void remove(String key) {
+		CacheEntry removed = entries.remove(key);
+		if (removed != null) {
+			size -= removed.size;
+		}
+	}
+
+	@Override
+	public void clear() {
+		entries.clear();
+		size = 0;
+	}
+
+	public int getEntryCount() {
+		return entries.size();
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<String, CacheEntry>> eldest = entries.entrySet().iterator();
+		while ((entries.size() > maxEntries || size > maxSize) && eldest.hasNext()) {
+			size -= eldest.next().getValue().size;
+			eldest.remove();
+		}
+	}
+}
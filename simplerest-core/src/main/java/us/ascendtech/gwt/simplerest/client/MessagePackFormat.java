@@ -0,0 +1,297 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.ArrayBuffer;
+import elemental2.core.JsArray;
+import jsinterop.base.Js;
+import jsinterop.base.JsArrayLike;
+import jsinterop.base.JsPropertyMap;
+
+import java.util.List;
+
+/**
+ * MessagePack. Extension types decode to an {@link ArrayBuffer} of their data, as do bin values.
+ */
+public class MessagePackFormat implements BinaryFormat {
+
+	public static final MessagePackFormat INSTANCE = new MessagePackFormat();
+
+	protected MessagePackFormat() {
+	}
+
+	@Override
+	public String mediaType() {
+		return SimpleRequestBuilder.APPLICATION_MSGPACK;
+	}
+
+	@Override
+	public Object decode(ArrayBuffer body) {
+		BinaryReader reader = new BinaryReader(body);
+		return reader.hasMore() ? read(reader) : null;
+	}
+
+	private Object read(BinaryReader reader) {
+		int type = reader.uint8();
+		if (type <= 0x7f) {
+			return (double) type;
+		}
+		if (type >= 0xe0) {
+			return (double) (type - 0x100);
+		}
+		if ((type & 0xf0) == 0x80) {
+			return map(reader, type & 0x0f);
+		}
+		if ((type & 0xf0) == 0x90) {
+			return array(reader, type & 0x0f);
+		}
+		if ((type & 0xe0) == 0xa0) {
+			return reader.string(type & 0x1f);
+		}
+
+		switch (type) {
+			case 0xc0:
+				return null;
+			case 0xc2:
+				return false;
+			case 0xc3:
+				return true;
+			case 0xc4:
+				return reader.bytes(reader.uint8());
+			case 0xc5:
+				return reader.bytes(reader.uint16());
+			case 0xc6:
+				return reader.bytes((int) reader.uint32());
+			case 0xc7:
+				return extension(reader, reader.uint8());
+			case 0xc8:
+				return extension(reader, reader.uint16());
+			case 0xc9:
+				return extension(reader, (int) reader.uint32());
+			case 0xca:
+				return reader.float32();
+			case 0xcb:
+				return reader.float64();
+			case 0xcc:
+				return (double) reader.uint8();
+			case 0xcd:
+				return (double) reader.uint16();
+			case 0xce:
+				return reader.uint32();
+			case 0xcf:
+				return reader.uint64();
+			case 0xd0:
+				return (double) reader.int8();
+			case 0xd1:
+				return (double) reader.int16();
+			case 0xd2:
+				return (double) reader.int32();
+			case 0xd3:
+				return reader.int64();
+			case 0xd4:
+				return extension(reader, 1);
+			case 0xd5:
+				return extension(reader, 2);
+			case 0xd6:
+				return extension(reader, 4);
+			case 0xd7:
+				return extension(reader, 8);
+			case 0xd8:
+				return extension(reader, 16);
+			case 0xd9:
+				return reader.string(reader.uint8());
+			case 0xda:
+				return reader.string(reader.uint16());
+			case 0xdb:
+				return reader.string((int) reader.uint32());
+			case 0xdc:
+				return array(reader, reader.uint16());
+			case 0xdd:
+				return array(reader, (int) reader.uint32());
+			case 0xde:
+				return map(reader, reader.uint16());
+			case 0xdf:
+				return map(reader, (int) reader.uint32());
+			default:
+				throw new IllegalArgumentException("unsupported msgpack type 0x" + Integer.toHexString(type));
+		}
+	}
+
+	private Object array(BinaryReader reader, int length) {
+		JsArray<Object> array = new JsArray<>();
+		for (int i = 0; i < length; i++) {
+			array.push(read(reader));
+		}
+		return array;
+	}
+
+	private Object map(BinaryReader reader, int length) {
+		JsPropertyMap<Object> map = JsPropertyMap.of();
+		for (int i = 0; i < length; i++) {
+			String key = BinaryReader.key(read(reader));
+			map.set(key, read(reader));
+		}
+		return map;
+	}
+
+	private static Object extension(BinaryReader reader, int length) {
+		// the extension type byte
+		reader.pos++;
+		return reader.bytes(length);
+	}
+
+	@Override
+	public ArrayBuffer encode(Object value) {
+		BinaryWriter writer = new BinaryWriter(256);
+		write(writer, value);
+		return writer.toArrayBuffer();
+	}
+
+	private void write(BinaryWriter writer, Object value) {
+		if (value == null) {
+			writer.uint8(0xc0);
+			return;
+		}
+		String type = Js.typeof(value);
+		if ("string".equals(type)) {
+			string(writer, Js.asString(value));
+		}
+		else if ("number".equals(type)) {
+			double number = Js.asDouble(value);
+			if (number == Math.floor(number) && Math.abs(number) <= 9007199254740991.0) {
+				integer(writer, number);
+			}
+			else {
+				writer.uint8(0xcb);
+				writer.float64(number);
+			}
+		}
+		else if ("boolean".equals(type)) {
+			writer.uint8(Js.isTruthy(value) ? 0xc3 : 0xc2);
+		}
+		else if (value instanceof ArrayBuffer) {
+			ArrayBuffer bytes = (ArrayBuffer) value;
+			int length = (int) bytes.byteLength;
+			if (length < 0x100) {
+				writer.uint8(0xc4);
+				writer.uint8(length);
+			}
+			else if (length < 0x10000) {
+				writer.uint8(0xc5);
+				writer.uint16(length);
+			}
+			else {
+				writer.uint8(0xc6);
+				writer.uint32(length);
+			}
+			writer.bytes(bytes);
+		}
+		else if (JsArray.isArray(value)) {
+			JsArrayLike<Object> array = Js.asArrayLike(value);
+			int length = array.getLength();
+			if (length < 16) {
+				writer.uint8(0x90 | length);
+			}
+			else if (length < 0x10000) {
+				writer.uint8(0xdc);
+				writer.uint16(length);
+			}
+			else {
+				writer.uint8(0xdd);
+				writer.uint32(length);
+			}
+			for (int i = 0; i < length; i++) {
+				write(writer, array.getAt(i));
+			}
+		}
+		else {
+			JsPropertyMap<Object> map = Js.asPropertyMap(value);
+			List<String> keys = BinaryWriter.keys(map);
+			if (keys.size() < 16) {
+				writer.uint8(0x80 | keys.size());
+			}
+			else if (keys.size() < 0x10000) {
+				writer.uint8(0xde);
+				writer.uint16(keys.size());
+			}
+			else {
+				writer.uint8(0xdf);
+				writer.uint32(keys.size());
+			}
+			for (String key : keys) {
+				string(writer, key);
+				write(writer, map.get(key));
+			}
+		}
+	}
+
+	private static void string(BinaryWriter writer, String str) {
+		int length = BinaryWriter.utf8Length(str);
+		if (length < 32) {
+			writer.uint8(0xa0 | length);
+		}
+		else if (length < 0x100) {
+			writer.uint8(0xd9);
+			writer.uint8(length);
+		}
+		else if (length < 0x10000) {
+			writer.uint8(0xda);
+			writer.uint16(length);
+		}
+		else {
+			writer.uint8(0xdb);
+			writer.uint32(length);
+		}
+		writer.utf8(str);
+	}
+
+	private static void integer(BinaryWriter writer, double number) {
+		if (number >= 0) {
+			if (number < 0x80) {
+				writer.uint8((int) number);
+			}
+			else if (number < 0x100) {
+				writer.uint8(0xcc);
+				writer.uint8((int) number);
+			}
+			else if (number < 0x10000) {
+				writer.uint8(0xcd);
+				writer.uint16((int) number);
+			}
+			else if (number < 4294967296.0) {
+				writer.uint8(0xce);
+				writer.uint32(number);
+			}
+			else {
+				writer.uint8(0xcf);
+				int64(writer, number);
+			}
+		}
+		else if (number >= -32) {
+			writer.uint8(0x100 + (int) number);
+		}
+		else if (number >= -0x80) {
+			writer.uint8(0xd0);
+			writer.uint8(0x100 + (int) number);
+		}
+		else if (number >= -0x8000) {
+			writer.uint8(0xd1);
+			writer.uint16(0x10000 + (int) number);
+		}
+		else if (number >= -2147483648.0) {
+			writer.uint8(0xd2);
+			writer.uint32(4294967296.0 + number);
+		}
+		else {
+			writer.uint8(0xd3);
+			int64(writer, number);
+		}
+	}
+
+	/**
+	 * Two's complement 64 bit integer, as high and low words
+	 */
+	private static void int64(BinaryWriter writer, double number) {
+		double high = Math.floor(number / 4294967296.0);
+		writer.uint32(high < 0 ? high + 4294967296.0 : high);
+		writer.uint32(number - high * 4294967296.0);
+	}
+}
@@ -0,0 +1,13 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.util.List;
+
+/**
+ * Ships aggregated stats somewhere, see {@link ClientMetrics#startExport(MetricsExporter, int)}.
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+
+	void export(List<EndpointStats> stats);
+
+}
@@ -0,0 +1,19 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Parse json response bodies of at least threshold bytes, going by Content-Length, on a {@link JsonWorkerPool} instead of the UI
+ * thread. Smaller bodies, bodies without a length and browsers without workers are parsed as usual. On a service interface it applies
+ * to every method, a method level annotation overrides it.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OffloadParsing {
+
+	int threshold() default JsonWorkerPool.DEFAULT_THRESHOLD;
+
+}
@@ -0,0 +1,103 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.promise.Promise;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Holds responses fetched ahead of the call that needs them, keyed like {@link RequestCoalescer}. The first identical call made
+ * within the freshness window takes the response, or joins the fetch when it is still in flight, instead of sending its own request.
+ * Share one instance between clients to prefetch for other services.
+ */
+public class PrefetchStore {
+
+	public static final int DEFAULT_FRESHNESS = 30000;
+
+	private static class Prefetched {
+		private final Promise<SimpleResponse> response;
+		private final long expires;
+
+		private Prefetched(Promise<SimpleResponse> response, long expires) {
+			this.response = response;
+			this.expires = expires;
+		}
+	}
+
+	private final int freshness;
+	private final Map<String, Prefetched> prefetched = new HashMap<>();
+
+	public PrefetchStore() {
+		this(DEFAULT_FRESHNESS);
+	}
+
+	/**
+	 * @param freshness milliseconds after the prefetch is started that a call may still use its response
+	 */
+	public PrefetchStore(int freshness) {
+		if (freshness < 1) {
+			throw new IllegalArgumentException("freshness must be positive");
+		}
+		this.freshness = freshness;
+	}
+
+	/**
+	 * Starts the exchange unless a fresh prefetch of the same request is already held
+	 */
+	public Promise<SimpleResponse> prefetch(String key, Supplier<Promise<SimpleResponse>> exchange) {
+		long now = System.currentTimeMillis();
+		evict(now);
+		Prefetched existing = prefetched.get(key);
+		if (existing != null) {
+			return existing.response;
+		}
+
+		Promise<SimpleResponse> pending = exchange.get();
+		Prefetched entry = new Prefetched(pending, now + freshness);
+		prefetched.put(key, entry);
+		// failures are not kept, the call sends its own request
+		pending.then(response -> {
+			if (!response.ok) {
+				prefetched.remove(key, entry);
+			}
+			return null;
+		}, error -> {
+			prefetched.remove(key, entry);
+			return null;
+		});
+		return pending;
+	}
+
+	/**
+	 * Removes and returns the prefetched response for the request, null when there is none or it is no longer fresh
+	 */
+	public Promise<SimpleResponse> take(String key) {
+		Prefetched entry = prefetched.remove(key);
+		if (entry == null || entry.expires < System.currentTimeMillis()) {
+			return null;
+		}
+		return entry.response;
+	}
+
+	public boolean isEmpty() {
+		return prefetched.isEmpty();
+	}
+
+	public int size() {
+		return prefetched.size();
+	}
+
+	public void clear() {
+		prefetched.clear();
+	}
+
+	private void evict(long now) {
+		for (Iterator<Prefetched> it = prefetched.values().iterator(); it.hasNext(); ) {
+			if (it.next().expires < now) {
+				it.remove();
+			}
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.Global;
+import elemental2.core.JsArray;
+import elemental2.dom.Headers;
+import elemental2.dom.RequestInit;
+import elemental2.dom.Response;
+import elemental2.promise.Promise;
+import elemental2.promise.Promise.PromiseExecutorCallbackFn.RejectCallbackFn;
+import elemental2.promise.Promise.PromiseExecutorCallbackFn.ResolveCallbackFn;
+import jsinterop.base.Js;
+import jsinterop.base.JsArrayLike;
+import jsinterop.base.JsPropertyMap;
+import us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder.Param;
+
+import javax.ws.rs.HttpMethod;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static javax.ws.rs.core.HttpHeaders.ACCEPT;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+/**
+ * Packs calls into a single POST to a batch endpoint. Calls made in the same event loop tick are sent together, or use
+ * {@link #beginBatch()} and {@link #flush()} to control the batch explicitly.
+ * <p>
+ * The batch body is a json array of {@code {method, url, headers, body}} parts, the endpoint answers with a json array of
+ * {@code {status, statusText, headers, body}} in the same order. Bodies are strings in both directions.
+ */
+public class RequestBatcher {
+
+	private static class Pending {
+		private final String method;
+		private final String url;
+		private final List<Param> headers;
+		private final String body;
+		private final ResponseType responseType;
+		private final ResolveCallbackFn<SimpleResponse> resolve;
+		private final RejectCallbackFn reject;
+
+		private Pending(String method, String url, List<Param> headers, String body, ResponseType responseType, ResolveCallbackFn<SimpleResponse> resolve,
+				RejectCallbackFn reject) {
+			this.method = method;
+			this.url = url;
+			this.headers = headers;
+			this.body = body;
+			this.responseType = responseType;
+			this.resolve = resolve;
+			this.reject = reject;
+		}
+
+		private JsPropertyMap<Object> toJson() {
+			JsPropertyMap<Object> headerMap = JsPropertyMap.of();
+			for (Param h : headers) {
+				String value = Objects.toString(h.v);
+				headerMap.set(h.k, headerMap.has(h.k) ? headerMap.get(h.k) + ", " + value : value);
+			}
+
+			JsPropertyMap<Object> part = JsPropertyMap.of();
+			part.set("method", method);
+			part.set("url", url);
+			part.set("headers", headerMap);
+			if (body != null) {
+				part.set("body", body);
+			}
+			return part;
+		}
+
+		private SimpleResponse toResponse(JsPropertyMap<Object> part) {
+			int status = Js.asInt(part.get("status"));
+			String statusText = part.get("statusText") != null ? Js.asString(part.get("statusText")) : "";
+			String text = part.get("body") != null ? Js.asString(part.get("body")) : "";
+
+			Headers responseHeaders = new Headers();
+			JsPropertyMap<Object> headerMap = Js.asPropertyMap(part.get("headers"));
+			if (headerMap != null) {
+				headerMap.forEach(key -> responseHeaders.append(key, Js.asString(headerMap.get(key))));
+			}
+
+			boolean ok = status >= 200 && status < 300;
+			Object body = ok && responseType == ResponseType.JSON ? Global.JSON.parse(text) : text;
+			return new SimpleResponse(status, statusText, responseHeaders, body, SimpleRequestBuilder.utf8Length(text));
+		}
+	}
+
+	private final String batchUrl;
+	private final Transport transport;
+	private final List<Pending> queue = new ArrayList<>();
+	private int maxBatchSize = 50;
+	private int depth = 0;
+	private boolean flushScheduled = false;
+
+	public RequestBatcher(String batchUrl) {
+		this(batchUrl, FetchTransport.INSTANCE);
+	}
+
+	public RequestBatcher(String batchUrl, Transport transport) {
+		this.batchUrl = Objects.requireNonNull(batchUrl, "batch url required");
+		this.transport = Objects.requireNonNull(transport, "transport required");
+	}
+
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	public void setMaxBatchSize(int maxBatchSize) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("max batch size must be positive");
+		}
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Hold calls until the matching {@link #flush()}, scopes may be nested
+	 */
+	public void beginBatch() {
+		depth++;
+	}
+
+	/**
+	 * Close the current scope and send everything queued once the outermost scope is closed
+	 */
+	public void flush() {
+		if (depth > 0) {
+			depth--;
+		}
+		if (depth == 0) {
+			send();
+		}
+	}
+
+	public Promise<SimpleResponse> enqueue(String method, String url, List<Param> headers, String body, ResponseType responseType) {
+		return new Promise<>((resolve, reject) -> {
+			queue.add(new Pending(method, url, headers, body, responseType, resolve, reject));
+			if (queue.size() >= maxBatchSize) {
+				send();
+			}
+			else if (depth == 0 && !flushScheduled) {
+				flushScheduled = true;
+				Promise.resolve((Object) null).then(ignore -> {
+					flushScheduled = false;
+					if (depth == 0) {
+						send();
+					}
+					return null;
+				});
+			}
+		});
+	}
+
+	private void send() {
+		if (queue.isEmpty()) {
+			return;
+		}
+		List<Pending> batch = new ArrayList<>(queue);
+		queue.clear();
+
+		JsArray<Object> parts = new JsArray<>();
+		for (Pending pending : batch) {
+			parts.push(pending.toJson());
+		}
+
+		Headers headers = new Headers();
+		headers.append(CONTENT_TYPE, APPLICATION_JSON);
+		headers.append(ACCEPT, APPLICATION_JSON);
+
+		RequestInit requestInit = RequestInit.create();
+		requestInit.setCredentials("same-origin");
+		requestInit.setMethod(HttpMethod.POST);
+		requestInit.setHeaders(headers);
+		requestInit.setBody(Global.JSON.stringify(parts));
+
+		transport.fetch(batchUrl, requestInit).then(response -> response.text().then(text -> {
+			dispatch(batch, response, text);
+			return null;
+		})).catch_(error -> {
+			for (Pending pending : batch) {
+				pending.reject.onInvoke(error);
+			}
+			return null;
+		});
+	}
+
+	private void dispatch(List<Pending> batch, Response response, String text) {
+		if (!response.ok) {
+			int bytes = SimpleRequestBuilder.utf8Length(text);
+			for (Pending pending : batch) {
+				pending.resolve.onInvoke(new SimpleResponse(response.status, response.statusText, response.headers, text, bytes));
+			}
+			return;
+		}
+
+		JsArrayLike<Object> results = Js.asArrayLike(Global.JSON.parse(text));
+		for (int i = 0; i < batch.size(); i++) {
+			Pending pending = batch.get(i);
+			if (i < results.getLength()) {
+				SimpleResponse partResponse;
+				try {
+					partResponse = pending.toResponse(Js.asPropertyMap(results.getAt(i)));
+				}
+				catch (Exception e) {
+					// a part whose body is not json fails on its own, the other parts are still answered
+					pending.reject.onInvoke(e);
+					continue;
+				}
+				pending.resolve.onInvoke(partResponse);
+			}
+			else {
+				pending.reject.onInvoke("batch response is missing part " + i);
+			}
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package us.ascendtech.gwt.simplerest.client;
+
+/**
+ * Creates the builder each call of a client runs on, set with {@link SimpleRestClient#setRequestBuilderFactory(RequestBuilderFactory)}
+ * to run generated clients on something other than the browser's fetch.
+ */
+@FunctionalInterface
+public interface RequestBuilderFactory {
+
+	/**
+	 * @param client the client making the call
+	 * @param template the call's template, null for calls started with {@link SimpleRestClient#method(String)}
+	 */
+	SimpleRequestBuilder create(SimpleRestClient client, String basePath, RequestTemplate template);
+
+}
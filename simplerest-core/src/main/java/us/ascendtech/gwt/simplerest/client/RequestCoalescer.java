@@ -0,0 +1,37 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.promise.Promise;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Shares a single in-flight exchange between identical requests. The first caller for a key issues the request, every caller that
+ * arrives before it settles receives the same {@link SimpleResponse}, including the same parsed body instance.
+ * Share one instance between clients to coalesce across services.
+ */
+public class RequestCoalescer {
+
+	private final Map<String, Promise<SimpleResponse>> inFlight = new HashMap<>();
+
+	public Promise<SimpleResponse> coalesce(String key, Supplier<Promise<SimpleResponse>> exchange) {
+		Promise<SimpleResponse> pending = inFlight.get(key);
+		if (pending == null) {
+			pending = exchange.get();
+			inFlight.put(key, pending);
+			pending.then(response -> {
+				inFlight.remove(key);
+				return null;
+			}, error -> {
+				inFlight.remove(key);
+				return null;
+			});
+		}
+		return pending;
+	}
+
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+}
@@ -0,0 +1,58 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.ArrayBuffer;
+import elemental2.core.Uint8Array;
+import elemental2.dom.ReadableStreamDefaultReader;
+import elemental2.dom.TextEncoder;
+import elemental2.dom.WritableStreamDefaultWriter;
+import elemental2.promise.Promise;
+import jsinterop.base.Js;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compresses request bodies through the browser's CompressionStream, see {@link CompressRequest}
+ */
+class RequestCompressor {
+
+	static final String GZIP = "gzip";
+	static final String DEFLATE = "deflate";
+	static final String DEFLATE_RAW = "deflate-raw";
+
+	private RequestCompressor() {
+	}
+
+	static boolean isSupported() {
+		return Js.global().has("CompressionStream");
+	}
+
+	/**
+	 * @param body a string, sent as utf-8, or an ArrayBuffer
+	 */
+	static Promise<ArrayBuffer> compress(Object body, String encoding) {
+		JsCompressionStream stream = new JsCompressionStream(encoding);
+		// the writes complete as the readable side is drained, so they are not awaited
+		WritableStreamDefaultWriter<Object> writer = stream.writable.getWriter();
+		writer.write(body instanceof String ? new TextEncoder().encode((String) body) : body);
+		writer.close();
+		return collect(stream.readable.getReader().asReadableStreamDefaultReader(), new ArrayList<>(), 0);
+	}
+
+	private static Promise<ArrayBuffer> collect(ReadableStreamDefaultReader<Uint8Array> reader, List<Uint8Array> chunks, int length) {
+		return reader.read().then(result -> {
+			if (!result.isDone()) {
+				Uint8Array chunk = result.getValue();
+				chunks.add(chunk);
+				return collect(reader, chunks, length + chunk.length);
+			}
+			Uint8Array compressed = new Uint8Array(length);
+			int offset = 0;
+			for (Uint8Array chunk : chunks) {
+				compressed.set(chunk, offset);
+				offset += chunk.length;
+			}
+			return Promise.resolve(compressed.buffer);
+		});
+	}
+}
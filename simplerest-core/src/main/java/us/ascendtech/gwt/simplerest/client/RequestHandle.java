@@ -0,0 +1,113 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.dom.AbortController;
+import elemental2.dom.AbortSignal;
+import elemental2.dom.DomGlobal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Returned by every call. Cancelling aborts the fetch and suppresses all callbacks, a timed out call reports to its error callback
+ * with status -1. Calls sharing a fetch through coalescing or batching only stop their own callbacks.
+ */
+public class RequestHandle {
+
+	// created when a fetch asks for the signal, calls that never reach fetch do without
+	private AbortController controller;
+	private final List<Runnable> abortListeners = new ArrayList<>();
+	private boolean cancelled = false;
+	private boolean done = false;
+	private double timer = -1;
+
+	public void cancel() {
+		if (done) {
+			return;
+		}
+		cancelled = true;
+		done = true;
+		clearTimer();
+		abort();
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * @return true until the call completes, times out or is cancelled
+	 */
+	public boolean isActive() {
+		return !done;
+	}
+
+	public AbortSignal getSignal() {
+		if (controller == null) {
+			controller = new AbortController();
+		}
+		return controller.signal;
+	}
+
+	void timeout(int millis, Runnable onTimeout) {
+		timer = DomGlobal.setTimeout(ignore -> {
+			timer = -1;
+			if (!done) {
+				done = true;
+				abort();
+				onTimeout.run();
+			}
+		}, millis);
+	}
+
+	/**
+	 * Runs when the call is cancelled or times out before it completes
+	 */
+	protected void onAbort(Runnable listener) {
+		abortListeners.add(listener);
+	}
+
+	private void abort() {
+		if (controller != null) {
+			controller.abort();
+		}
+		for (Runnable listener : abortListeners) {
+			listener.run();
+		}
+		abortListeners.clear();
+	}
+
+	/**
+	 * Stops the timeout of a call that has delivered a stale body and is still revalidating it, the call stays cancellable
+	 *
+	 * @return false if the call was already cancelled or timed out and its callbacks must not run
+	 */
+	boolean progress() {
+		if (done) {
+			return false;
+		}
+		clearTimer();
+		return true;
+	}
+
+	/**
+	 * Marks the call as completed
+	 *
+	 * @return false if the call was already cancelled or timed out and its callbacks must not run
+	 */
+	protected boolean complete() {
+		if (done) {
+			return false;
+		}
+		done = true;
+		clearTimer();
+		abortListeners.clear();
+		return true;
+	}
+
+	private void clearTimer() {
+		if (timer >= 0) {
+			DomGlobal.clearTimeout(timer);
+			timer = -1;
+		}
+	}
+}
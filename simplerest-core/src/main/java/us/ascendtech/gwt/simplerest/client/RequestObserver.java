@@ -0,0 +1,12 @@
+package us.ascendtech.gwt.simplerest.client;
+
+/**
+ * Told about every fetch a client makes, retries included, see {@link ClientMetrics} for one that aggregates them per endpoint. Cache
+ * hits and callers joining a coalesced call make no fetch of their own, batched and streamed calls are not reported.
+ */
+@FunctionalInterface
+public interface RequestObserver {
+
+	void onComplete(RequestTiming timing);
+
+}
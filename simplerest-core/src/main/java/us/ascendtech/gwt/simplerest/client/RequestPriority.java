@@ -0,0 +1,7 @@
+package us.ascendtech.gwt.simplerest.client;
+
+public enum RequestPriority {
+	HIGH,
+	NORMAL,
+	LOW
+}
@@ -0,0 +1,146 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.promise.Promise;
+import elemental2.promise.Promise.PromiseExecutorCallbackFn.RejectCallbackFn;
+import elemental2.promise.Promise.PromiseExecutorCallbackFn.ResolveCallbackFn;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of fetches in flight. Requests over the limit wait in one queue per {@link RequestPriority} and the highest
+ * priority request is started whenever a fetch completes. Share one scheduler between clients talking to the same origin.
+ */
+public class RequestScheduler {
+
+	private static class Queued<T> {
+		private final Supplier<Promise<T>> request;
+		private final ResolveCallbackFn<T> resolve;
+		private final RejectCallbackFn reject;
+
+		private Queued(Supplier<Promise<T>> request, ResolveCallbackFn<T> resolve, RejectCallbackFn reject) {
+			this.request = request;
+			this.resolve = resolve;
+			this.reject = reject;
+		}
+	}
+
+	private final int maxInFlight;
+	private final List<Deque<Queued<?>>> lanes = new ArrayList<>();
+	private int inFlight = 0;
+
+	public RequestScheduler(int maxInFlight) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("max in flight must be positive");
+		}
+		this.maxInFlight = maxInFlight;
+		for (int i = 0; i < RequestPriority.values().length; i++) {
+			lanes.add(new ArrayDeque<>());
+		}
+	}
+
+	/**
+	 * @param handle  the caller's handle, queued requests are dropped when it is cancelled or times out. Pass null for requests shared
+	 *                by several callers.
+	 * @param request starts the fetch, the slot is held until its promise settles
+	 */
+	public <T> Promise<T> schedule(RequestPriority priority, RequestHandle handle, Supplier<Promise<T>> request) {
+		if (inFlight < maxInFlight && getQueuedCount() == 0) {
+			return start(request);
+		}
+
+		return new Promise<>((resolve, reject) -> {
+			Queued<T> queued = new Queued<>(request, resolve, reject);
+			Deque<Queued<?>> lane = lanes.get(priority.ordinal());
+			lane.add(queued);
+			if (handle != null) {
+				handle.onAbort(() -> {
+					if (lane.remove(queued)) {
+						reject.onInvoke("request cancelled before it was sent");
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Drop every request still waiting in the given lane, they fail without being sent
+	 */
+	public void cancelQueued(RequestPriority priority) {
+		Deque<Queued<?>> lane = lanes.get(priority.ordinal());
+		while (!lane.isEmpty()) {
+			lane.poll().reject.onInvoke("request cancelled before it was sent");
+		}
+	}
+
+	public int getInFlightCount() {
+		return inFlight;
+	}
+
+	public int getQueuedCount() {
+		int queued = 0;
+		for (Deque<Queued<?>> lane : lanes) {
+			queued += lane.size();
+		}
+		return queued;
+	}
+
+	private <T> Promise<T> start(Supplier<Promise<T>> request) {
+		inFlight++;
+		Promise<T> pending;
+		try {
+			pending = request.get();
+		}
+		catch (RuntimeException e) {
+			release();
+			throw e;
+		}
+		pending.then(response -> {
+			release();
+			return null;
+		}, error -> {
+			release();
+			return null;
+		});
+		return pending;
+	}
+
+	private void release() {
+		inFlight--;
+		while (inFlight < maxInFlight) {
+			Queued<?> next = poll();
+			if (next == null) {
+				return;
+			}
+			try {
+				startQueued(next);
+			}
+			catch (RuntimeException e) {
+				// start released the slot again, the loop moves on to the next request
+				next.reject.onInvoke(e);
+			}
+		}
+	}
+
+	private <T> void startQueued(Queued<T> queued) {
+		start(queued.request).then(response -> {
+			queued.resolve.onInvoke(response);
+			return null;
+		}, error -> {
+			queued.reject.onInvoke(error);
+			return null;
+		});
+	}
+
+	private Queued<?> poll() {
+		for (Deque<Queued<?>> lane : lanes) {
+			if (!lane.isEmpty()) {
+				return lane.poll();
+			}
+		}
+		return null;
+	}
+}
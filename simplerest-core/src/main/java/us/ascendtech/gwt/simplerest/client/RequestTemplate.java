@@ -0,0 +1,202 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder.Param;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The parts of a call that are the same every time: method, path, media types and call options. Generated clients keep one per method
+ * in a static field and bind it to the arguments of each call with {@link SimpleRestClient#request(RequestTemplate)}, so only the
+ * dynamic parts are allocated per call.
+ */
+public class RequestTemplate {
+
+	public static class Builder {
+		private final String method;
+		private final List<String> segments = new ArrayList<>();
+		private String[] produces = {};
+		private String[] consumes = {};
+		private int maxAge = 0;
+		private int staleWhileRevalidate = 0;
+		private int timeout = 0;
+		private RetryPolicy retryPolicy = null;
+		private RequestPriority priority = RequestPriority.NORMAL;
+		private String compression = null;
+		private int compressionThreshold = 0;
+		private int offloadThreshold = 0;
+		private String endpoint = null;
+		private String bodyType = null;
+
+		private Builder(String method) {
+			this.method = Objects.requireNonNull(method, "method required");
+		}
+
+		/**
+		 * Static path segments, adjacent segments are joined
+		 */
+		public Builder path(String path) {
+			if (path.isEmpty()) {
+				throw new IllegalArgumentException("non-empty path required");
+			}
+			int last = segments.size() - 1;
+			if (last >= 0 && segments.get(last) != null) {
+				segments.set(last, segments.get(last) + "/" + path);
+			}
+			else {
+				segments.add(path);
+			}
+			return this;
+		}
+
+		/**
+		 * A segment bound per call with {@link SimpleRequestBuilder#path(Object)}, in declaration order
+		 */
+		public Builder pathParam() {
+			segments.add(null);
+			return this;
+		}
+
+		public Builder produces(String... produces) {
+			this.produces = produces;
+			return this;
+		}
+
+		public Builder consumes(String... consumes) {
+			this.consumes = consumes;
+			return this;
+		}
+
+		public Builder maxAge(int maxAge) {
+			this.maxAge = maxAge;
+			return this;
+		}
+
+		/**
+		 * Seconds after maxAge that a cached response is handed out while it is fetched again
+		 */
+		public Builder staleWhileRevalidate(int staleWhileRevalidate) {
+			this.staleWhileRevalidate = staleWhileRevalidate;
+			return this;
+		}
+
+		public Builder timeout(int timeout) {
+			this.timeout = timeout;
+			return this;
+		}
+
+		public Builder retry(RetryPolicy retryPolicy) {
+			this.retryPolicy = retryPolicy;
+			return this;
+		}
+
+		public Builder priority(RequestPriority priority) {
+			this.priority = Objects.requireNonNull(priority, "priority required");
+			return this;
+		}
+
+		/**
+		 * Content-Encoding for request bodies of at least threshold bytes
+		 */
+		public Builder compress(String compression, int threshold) {
+			this.compression = compression;
+			this.compressionThreshold = threshold;
+			return this;
+		}
+
+		/**
+		 * Json bodies of at least threshold bytes are parsed on a worker
+		 */
+		public Builder offload(int threshold) {
+			this.offloadThreshold = threshold;
+			return this;
+		}
+
+		/**
+		 * Name calls are reported under to the client's {@link RequestObserver}
+		 */
+		public Builder endpoint(String endpoint) {
+			this.endpoint = endpoint;
+			return this;
+		}
+
+		/**
+		 * The type json bodies are read into, as a canonical Jackson type name such as {@code java.util.Map<java.lang.String,a.b.Outer$Inner>}
+		 */
+		public Builder bodyType(String bodyType) {
+			this.bodyType = bodyType;
+			return this;
+		}
+
+		public RequestTemplate build() {
+			return new RequestTemplate(this);
+		}
+	}
+
+	public static Builder builder(String method) {
+		return new Builder(method);
+	}
+
+	public final String method;
+	public final int maxAge;
+	public final int staleWhileRevalidate;
+	public final int timeout;
+	public final RetryPolicy retryPolicy;
+	public final RequestPriority priority;
+	public final String compression;
+	public final int compressionThreshold;
+	public final int offloadThreshold;
+	public final String endpoint;
+	/**
+	 * Only read by runtimes that decode with reflection, the browser never reads it and the compiler drops it
+	 */
+	public final String bodyType;
+	final String[] segments;
+	final int pathLength;
+	final String[] produces;
+	final String[] consumes;
+	private final List<Param> jsonHeaders;
+	private final List<Param> textHeaders;
+
+	private RequestTemplate(Builder builder) {
+		this.method = builder.method;
+		this.maxAge = builder.maxAge;
+		this.staleWhileRevalidate = builder.staleWhileRevalidate;
+		this.timeout = builder.timeout;
+		this.retryPolicy = builder.retryPolicy;
+		this.priority = builder.priority;
+		this.compression = builder.compression;
+		this.compressionThreshold = builder.compressionThreshold;
+		this.offloadThreshold = builder.offloadThreshold;
+		this.endpoint = builder.endpoint;
+		this.bodyType = builder.bodyType;
+		this.segments = builder.segments.toArray(new String[0]);
+		int pathLength = 0;
+		for (String segment : segments) {
+			pathLength += segment != null ? segment.length() + 1 : 0;
+		}
+		this.pathLength = pathLength;
+		this.produces = builder.produces;
+		this.consumes = builder.consumes;
+		this.jsonHeaders = Collections.unmodifiableList(SimpleRequestBuilder.mediaHeaders(new ArrayList<>(), produces, consumes, false, true, true));
+		this.textHeaders = Collections.unmodifiableList(SimpleRequestBuilder.mediaHeaders(new ArrayList<>(), produces, consumes, true, true, true));
+	}
+
+	/**
+	 * Content-Type and Accept headers for a call with a body and no header params of its own
+	 */
+	List<Param> headers(boolean textResponse) {
+		return textResponse ? textHeaders : jsonHeaders;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder path = new StringBuilder();
+		for (String segment : segments) {
+			path.append('/').append(segment != null ? segment : "{}");
+		}
+		return method + " " + path;
+	}
+}
@@ -0,0 +1,158 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.dom.DomGlobal;
+
+import java.util.List;
+
+/**
+ * Timing of one fetch, handed to the client's {@link RequestObserver} once its body has been read or it failed. Times are in
+ * milliseconds, phases that did not happen are 0.
+ */
+public class RequestTiming {
+
+	private final String endpoint;
+	private final double scheduled;
+	private double started;
+	private double fetchStart;
+	private double firstByte;
+	private double bodyRead;
+	private double parsed;
+	private double end;
+	private int status = -1;
+	private int requestBytes = 0;
+	private int responseBytes = 0;
+	private String traceparent;
+	private String serverTimingHeader;
+	private List<ServerTiming> serverTimings;
+
+	RequestTiming(String endpoint) {
+		this.endpoint = endpoint;
+		this.scheduled = now();
+		this.started = scheduled;
+		this.fetchStart = scheduled;
+	}
+
+	static double now() {
+		return DomGlobal.performance.now();
+	}
+
+	void started() {
+		this.started = now();
+		this.fetchStart = started;
+	}
+
+	void fetchStart(int requestBytes) {
+		this.fetchStart = now();
+		this.requestBytes = requestBytes;
+	}
+
+	void traceparent(String traceparent) {
+		this.traceparent = traceparent;
+	}
+
+	void firstByte(int status, String serverTiming) {
+		this.firstByte = now();
+		this.status = status;
+		this.serverTimingHeader = serverTiming;
+	}
+
+	void bodyRead(int responseBytes) {
+		this.bodyRead = now();
+		this.parsed = bodyRead;
+		this.responseBytes = responseBytes;
+	}
+
+	void parsed() {
+		this.parsed = now();
+	}
+
+	void end() {
+		this.end = now();
+	}
+
+	/**
+	 * Interface and method of a generated client, or method and base url of a hand built request
+	 */
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * The response status, -1 when the fetch failed
+	 */
+	public int getStatus() {
+		return status;
+	}
+
+	/**
+	 * Time spent waiting for a {@link RequestScheduler}
+	 */
+	public double getQueueTime() {
+		return started - scheduled;
+	}
+
+	/**
+	 * Time spent compressing the request body before the fetch, see {@link CompressRequest}
+	 */
+	public double getCompressTime() {
+		return fetchStart - started;
+	}
+
+	public double getFirstByteTime() {
+		return firstByte > 0 ? firstByte - fetchStart : 0;
+	}
+
+	public double getReadTime() {
+		return bodyRead > 0 ? bodyRead - firstByte : 0;
+	}
+
+	public double getParseTime() {
+		return bodyRead > 0 ? parsed - bodyRead : 0;
+	}
+
+	public double getTotalTime() {
+		return end - scheduled;
+	}
+
+	public int getRequestBytes() {
+		return requestBytes;
+	}
+
+	public int getResponseBytes() {
+		return responseBytes;
+	}
+
+	/**
+	 * The traceparent header sent with the fetch, null when there was none
+	 */
+	public String getTraceparent() {
+		return traceparent;
+	}
+
+	/**
+	 * The metrics of the Server-Timing response header, parsed on first use. Cross origin responses need to expose the header.
+	 */
+	public List<ServerTiming> getServerTimings() {
+		if (serverTimings == null) {
+			serverTimings = ServerTiming.parse(serverTimingHeader);
+		}
+		return serverTimings;
+	}
+
+	/**
+	 * Duration of a Server-Timing metric, -1 when the response has no such metric or it has no duration
+	 */
+	public double getServerTiming(String name) {
+		for (ServerTiming serverTiming : getServerTimings()) {
+			if (serverTiming.name.equals(name)) {
+				return serverTiming.duration;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		return "RequestTiming{endpoint='" + endpoint + "', status=" + status + ", total=" + getTotalTime() + "}";
+	}
+}
@@ -0,0 +1,13 @@
+package us.ascendtech.gwt.simplerest.client;
+
+public interface ResponseCache {
+
+	CacheEntry get(String key);
+
+	void put(String key, CacheEntry entry);
+
+	void remove(String key);
+
+	void clear();
+
+}
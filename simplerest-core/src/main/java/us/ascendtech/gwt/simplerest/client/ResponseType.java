@@ -0,0 +1,10 @@
+package us.ascendtech.gwt.simplerest.client;
+
+public enum ResponseType {
+	TEXT,
+	JSON,
+	/**
+	 * the body as an ArrayBuffer
+	 */
+	BINARY
+}
@@ -0,0 +1,25 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import javax.ws.rs.HttpMethod;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retry failed calls with exponential backoff and full jitter. Delays are in milliseconds, only the listed http methods are retried.
+ * On a service interface it applies to every method, a method level annotation overrides it.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Retry {
+
+	int maxAttempts() default 3;
+
+	int initialDelay() default 100;
+
+	int maxDelay() default 5000;
+
+	String[] methods() default { HttpMethod.GET, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.HEAD, HttpMethod.OPTIONS };
+
+}
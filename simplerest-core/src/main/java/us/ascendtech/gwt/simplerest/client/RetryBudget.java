@@ -0,0 +1,48 @@
+package us.ascendtech.gwt.simplerest.client;
+
+/**
+ * Caps retries to a fraction of the original requests so retries cannot multiply the load on a failing backend. A small number of
+ * retries per second is always allowed so that low traffic clients can still retry.
+ */
+public class RetryBudget {
+
+	private static final RetryBudget global = new RetryBudget(0.2, 10, 5);
+
+	private final double ratio;
+	private final double maxBalance;
+	private final int minRetriesPerSecond;
+	private double balance = 0;
+	private long windowStart = 0;
+	private int windowRetries = 0;
+
+	public RetryBudget(double ratio, double maxBalance, int minRetriesPerSecond) {
+		this.ratio = ratio;
+		this.maxBalance = maxBalance;
+		this.minRetriesPerSecond = minRetriesPerSecond;
+	}
+
+	public static RetryBudget global() {
+		return global;
+	}
+
+	public void onRequest() {
+		balance = Math.min(maxBalance, balance + ratio);
+	}
+
+	public boolean tryRetry() {
+		long now = System.currentTimeMillis();
+		if (now - windowStart >= 1000) {
+			windowStart = now;
+			windowRetries = 0;
+		}
+		if (windowRetries < minRetriesPerSecond) {
+			windowRetries++;
+			return true;
+		}
+		if (balance >= 1) {
+			balance -= 1;
+			return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,95 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.JsDate;
+
+import javax.ws.rs.HttpMethod;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class RetryPolicy {
+
+	public static final String RETRY_AFTER = "Retry-After";
+
+	private final int maxAttempts;
+	private final int initialDelay;
+	private final int maxDelay;
+	private final Set<String> methods;
+	private final RetryBudget budget;
+
+	public RetryPolicy(int maxAttempts, int initialDelay, int maxDelay) {
+		this(maxAttempts, initialDelay, maxDelay, HttpMethod.GET, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.HEAD, HttpMethod.OPTIONS);
+	}
+
+	public RetryPolicy(int maxAttempts, int initialDelay, int maxDelay, String... methods) {
+		this(maxAttempts, initialDelay, maxDelay, new HashSet<>(Arrays.asList(methods)), RetryBudget.global());
+	}
+
+	private RetryPolicy(int maxAttempts, int initialDelay, int maxDelay, Set<String> methods, RetryBudget budget) {
+		this.maxAttempts = maxAttempts;
+		this.initialDelay = initialDelay;
+		this.maxDelay = maxDelay;
+		this.methods = methods;
+		this.budget = budget;
+	}
+
+	public RetryPolicy withBudget(RetryBudget budget) {
+		return new RetryPolicy(maxAttempts, initialDelay, maxDelay, methods, budget);
+	}
+
+	public RetryBudget getBudget() {
+		return budget;
+	}
+
+	public boolean isRetryable(String method) {
+		return maxAttempts > 1 && methods.contains(method);
+	}
+
+	public boolean isRetryableStatus(int status) {
+		return status == -1 || status == 408 || status == 429 || status == 502 || status == 503 || status == 504;
+	}
+
+	/**
+	 * @param attempt    the attempt that just failed, starting at 1
+	 * @param status     the response status or -1 for a network error
+	 * @param retryAfter the Retry-After response header, may be null
+	 * @return milliseconds to wait before the next attempt or -1 to give up
+	 */
+	public int retryDelay(int attempt, int status, String retryAfter) {
+		if (attempt >= maxAttempts || !isRetryableStatus(status)) {
+			return -1;
+		}
+
+		int delay = -1;
+		if (retryAfter != null && (status == 429 || status == 503)) {
+			delay = parseRetryAfter(retryAfter);
+			if (delay > maxDelay) {
+				return -1;
+			}
+		}
+		if (delay < 0) {
+			double cap = Math.min(maxDelay, initialDelay * Math.pow(2, attempt - 1));
+			delay = (int) (Math.random() * cap);
+		}
+		return budget.tryRetry() ? delay : -1;
+	}
+
+	protected int parseRetryAfter(String retryAfter) {
+		String value = retryAfter.trim();
+		if (!value.isEmpty() && Character.isDigit(value.charAt(0))) {
+			try {
+				return Integer.parseInt(value) * 1000;
+			}
+			catch (NumberFormatException e) {
+				return -1;
+			}
+		}
+		double date = JsDate.parse(value);
+		return Double.isNaN(date) ? -1 : (int) Math.max(0, date - System.currentTimeMillis());
+	}
+
+	@Override
+	public String toString() {
+		return "RetryPolicy{maxAttempts=" + maxAttempts + ", initialDelay=" + initialDelay + ", maxDelay=" + maxDelay + ", methods=" + methods + '}';
+	}
+}
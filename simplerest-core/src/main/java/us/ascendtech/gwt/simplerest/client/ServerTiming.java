@@ -0,0 +1,108 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One metric of a Server-Timing response header, such as {@code db;dur=53;desc="orders"}.
+ */
+public class ServerTiming {
+
+	public final String name;
+	/**
+	 * milliseconds, -1 when the metric has no duration
+	 */
+	public final double duration;
+	public final String description;
+
+	public ServerTiming(String name, double duration, String description) {
+		this.name = name;
+		this.duration = duration;
+		this.description = description;
+	}
+
+	/**
+	 * The metrics of a Server-Timing header, malformed parameters are skipped
+	 */
+	public static List<ServerTiming> parse(String header) {
+		List<ServerTiming> timings = new ArrayList<>();
+		if (header == null) {
+			return timings;
+		}
+		for (String metric : split(header, ',')) {
+			List<String> params = split(metric, ';');
+			String name = params.get(0).trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			double duration = -1;
+			String description = null;
+			for (int i = 1; i < params.size(); i++) {
+				String param = params.get(i);
+				int eq = param.indexOf('=');
+				if (eq < 0) {
+					continue;
+				}
+				String key = param.substring(0, eq).trim().toLowerCase();
+				String value = unquote(param.substring(eq + 1).trim());
+				if (key.equals("dur") && duration < 0) {
+					try {
+						duration = Double.parseDouble(value);
+					}
+					catch (NumberFormatException e) {
+						// ignored like any other malformed parameter
+					}
+				}
+				else if (key.equals("desc") && description == null) {
+					description = value;
+				}
+			}
+			timings.add(new ServerTiming(name, duration, description));
+		}
+		return timings;
+	}
+
+	/**
+	 * Splits on a separator outside quoted strings
+	 */
+	private static List<String> split(String str, char separator) {
+		List<String> parts = new ArrayList<>();
+		boolean quoted = false;
+		int start = 0;
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			}
+			else if (c == '\\' && quoted) {
+				i++;
+			}
+			else if (c == separator && !quoted) {
+				parts.add(str.substring(start, i));
+				start = i + 1;
+			}
+		}
+		parts.add(str.substring(start));
+		return parts;
+	}
+
+	private static String unquote(String value) {
+		if (value.length() < 2 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+			return value;
+		}
+		StringBuilder out = new StringBuilder(value.length());
+		for (int i = 1; i < value.length() - 1; i++) {
+			char c = value.charAt(i);
+			if (c == '\\' && i + 1 < value.length() - 1) {
+				c = value.charAt(++i);
+			}
+			out.append(c);
+		}
+		return out.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "ServerTiming{name='" + name + "', duration=" + duration + (description != null ? ", description='" + description + "'" : "") + "}";
+	}
+}
@@ -1,26 +1,47 @@
 package us.ascendtech.gwt.simplerest.client;
 
+import elemental2.core.ArrayBuffer;
 import elemental2.core.Global;
+import elemental2.core.JsArray;
+import elemental2.core.Uint8Array;
 import elemental2.dom.DomGlobal;
 import elemental2.dom.FormData;
 import elemental2.dom.Headers;
+import elemental2.dom.ReadableStream;
+import elemental2.dom.ReadableStreamDefaultReader;
 import elemental2.dom.RequestInit;
 import elemental2.dom.Response;
+import elemental2.dom.TextDecoder;
 import elemental2.promise.Promise;
 import jsinterop.base.Js;
+import jsinterop.base.JsPropertyMap;
 
 import javax.ws.rs.HttpMethod;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import static javax.ws.rs.core.HttpHeaders.ACCEPT;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_ENCODING;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_LENGTH;
 import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+import static javax.ws.rs.core.HttpHeaders.ETAG;
+import static javax.ws.rs.core.HttpHeaders.IF_MODIFIED_SINCE;
+import static javax.ws.rs.core.HttpHeaders.IF_NONE_MATCH;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.MediaType.TEXT_HTML;
 
 public class SimpleRequestBuilder {
 
+	public static final String APPLICATION_NDJSON = "application/x-ndjson";
+	public static final String APPLICATION_CBOR = "application/cbor";
+	public static final String APPLICATION_MSGPACK = "application/x-msgpack";
+	public static final String TRACEPARENT = "traceparent";
+	public static final String TRACESTATE = "tracestate";
+	public static final String SERVER_TIMING = "Server-Timing";
+
 	public static class Param {
 		public final String k;
 		public final Object v;
@@ -37,85 +58,634 @@ public class SimpleRequestBuilder {
 	}
 
 	protected final String base;
-	protected List<String> paths = new ArrayList<>();
-	protected List<Param> queryParams = new ArrayList<>();
-	protected List<Param> headerParams = new ArrayList<>();
-	protected List<Param> formParams = new ArrayList<>();
+	protected final RequestTemplate template;
+	// allocated on first use, most calls have no params of one kind or another
+	protected List<String> paths = Collections.emptyList();
+	protected List<Param> queryParams = Collections.emptyList();
+	protected List<Param> headerParams = Collections.emptyList();
+	protected List<Param> formParams = Collections.emptyList();
 	protected String method = HttpMethod.GET;
 	protected Object data = null;
+	protected JsonCodec<Object> encoder = null;
+	protected JsonCodec<?> decoder = null;
 	private String[] produces = {};
 	private String[] consumes = {};
+	protected RequestCoalescer coalescer = null;
+	protected PrefetchStore prefetchStore = null;
+	protected ResponseCache cache = null;
+	protected int maxAge = 0;
+	protected int staleWhileRevalidate = 0;
+	// background refresh of a stale cached body handed out by this call, resolves with null when the body did not change
+	protected Promise<SimpleResponse> revalidation = null;
+	protected RequestBatcher batcher = null;
+	protected RetryPolicy retryPolicy = null;
+	protected int timeout = 0;
+	protected RequestScheduler scheduler = null;
+	protected RequestPriority priority = RequestPriority.NORMAL;
+	protected String compression = null;
+	protected int compressionThreshold = 0;
+	protected int offloadThreshold = 0;
+	protected JsonWorkerPool workerPool = null;
+	protected RequestObserver observer = null;
+	protected String endpoint = null;
+	protected TracePropagator tracePropagator = null;
+	protected Transport transport = FetchTransport.INSTANCE;
+	protected RequestHandle handle = null;
+	// timing of the fetch being made, when there is an observer
+	protected RequestTiming timing = null;
+	private boolean shared = false;
 
 	public SimpleRequestBuilder(String base) {
 		this.base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+		this.template = null;
+	}
+
+	public SimpleRequestBuilder(String base, RequestTemplate template) {
+		this.base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+		this.template = template;
+		this.method = template.method;
+		this.produces = template.produces;
+		this.consumes = template.consumes;
+		this.maxAge = template.maxAge;
+		this.staleWhileRevalidate = template.staleWhileRevalidate;
+		this.timeout = template.timeout;
+		this.retryPolicy = template.retryPolicy;
+		this.priority = template.priority;
+		this.compression = template.compression;
+		this.compressionThreshold = template.compressionThreshold;
+		this.offloadThreshold = template.offloadThreshold;
+		this.endpoint = template.endpoint;
 	}
 
 	protected String encodeComponent(String str) {
-		return Global.encodeURIComponent(str).replaceAll("%20", "+");
+		return plusForSpaces(Global.encodeURIComponent(str));
+	}
+
+	/**
+	 * Form style encoding of an already percent encoded string, %20 becomes +
+	 */
+	protected static String plusForSpaces(String encoded) {
+		int space = encoded.indexOf("%20");
+		if (space < 0) {
+			return encoded;
+		}
+		StringBuilder out = new StringBuilder(encoded.length());
+		int start = 0;
+		while (space >= 0) {
+			out.append(encoded, start, space).append('+');
+			start = space + 3;
+			space = encoded.indexOf("%20", start);
+		}
+		return out.append(encoded, start, encoded.length()).toString();
 	}
 
 	@SuppressWarnings("unchecked")
-	public <S, T> void execute(SimpleRestCallback<T> callback, ErrorCallback errorCallback) {
+	public <S, T> RequestHandle execute(SimpleRestCallback<T> callback, ErrorCallback errorCallback) {
+
+		RequestHandle handle = new RequestHandle();
+		this.handle = handle;
+		if (timeout > 0) {
+			handle.timeout(timeout, () -> errorCallback.onError(-1, "TimeoutError", "request did not complete within " + timeout + "ms"));
+		}
+
+		if (callback instanceof StreamingCallback) {
+			stream((StreamingCallback<T>) callback, errorCallback);
+			return handle;
+		}
 
 		boolean textResponse = (callback instanceof SingleStringCallback);
+		ResponseType responseType = (callback instanceof SingleCallback || callback instanceof MultipleCallback) ?
+				ResponseType.JSON :
+				callback instanceof BinaryCallback ? ResponseType.BINARY : ResponseType.TEXT;
 
-		request(textResponse).then(response -> {
-			if (response.ok) {
-				if (callback instanceof SingleStringCallback) {
-					response.text().then(text -> {
-						((SingleStringCallback) callback).onData(text);
-						return null;
-					});
+		Promise<SimpleResponse> exchange = exchange(textResponse, responseType);
+		// a stale body is delivered first, the call stays cancellable until its revalidation settles
+		Promise<SimpleResponse> revalidation = this.revalidation;
+		exchange.then(response -> {
+			if (!(revalidation != null ? handle.progress() : handle.complete())) {
+				return null;
+			}
+			respond(callback, errorCallback, response);
+			return null;
+		}).catch_(error -> {
+			if (handle.complete()) {
+				errorCallback.onError(-1, "TypeError", error.toString());
+			}
+			return null;
+		});
+		if (revalidation != null) {
+			revalidation.then(response -> {
+				if (handle.complete() && response != null) {
+					respond(callback, errorCallback, response);
 				}
-				else if (callback instanceof SingleCallback) {
+				return null;
+			}, error -> {
+				// the stale body has been shown, a failed refresh leaves it in place
+				handle.complete();
+				return null;
+			});
+		}
 
-					response.json().then(json -> {
-						((SingleCallback<T>) callback).onData(Js.cast(json));
-						return null;
-					});
+		return handle;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> void respond(SimpleRestCallback<T> callback, ErrorCallback errorCallback, SimpleResponse response) {
+		if (!response.ok) {
+			errorCallback.onError(response.status, response.statusText, Js.cast(response.body));
+		}
+		else if (callback instanceof SingleStringCallback) {
+			((SingleStringCallback) callback).onData(Js.cast(response.body));
+		}
+		else if (callback instanceof SingleCallback) {
+			((SingleCallback<T>) callback).onData(decode(response.body));
+		}
+		else if (callback instanceof MultipleCallback) {
+			((MultipleCallback<T>) callback).onData(decode(response.body));
+		}
+		else if (callback instanceof BinaryCallback) {
+			((BinaryCallback) callback).onData(Js.cast(response.body));
+		}
+		else if (callback instanceof CompletableCallback) {
+			((CompletableCallback) callback).onDone();
+		}
+		else {
+			throw new UnsupportedOperationException(
+					"Second to last parameter must be a callback of type SingleStringCallback, SingleCallback, MultipleCallback, BinaryCallback, or CompletableCallback");
+		}
+	}
+
+	/**
+	 * Promise style alternative to {@link #execute(SimpleRestCallback, ErrorCallback)}. Resolves with the parsed json body, the
+	 * ArrayBuffer for {@link ResponseType#BINARY}, the text body when the response type is {@link ResponseType#TEXT} and textResponse is
+	 * set, or null. Rejects with a {@link SimpleRestException}.
+	 */
+	public <T> Promise<T> promise(boolean textResponse, ResponseType responseType) {
+		if (timeout <= 0) {
+			return pending(textResponse, responseType);
+		}
+
+		RequestHandle handle = new RequestHandle();
+		this.handle = handle;
+		return new Promise<>((resolve, reject) -> {
+			handle.timeout(timeout, () -> reject.onInvoke(new SimpleRestException(-1, "TimeoutError", "request did not complete within " + timeout + "ms")));
+			this.<T>pending(textResponse, responseType).then(value -> {
+				if (handle.complete()) {
+					resolve.onInvoke(value);
 				}
-				else if (callback instanceof MultipleCallback) {
-					response.json().then(json -> {
-						((MultipleCallback<T>) callback).onData(Js.cast(json));
-						return null;
-					});
+				return null;
+			}, error -> {
+				if (handle.complete()) {
+					reject.onInvoke(error);
 				}
-				else if (callback instanceof CompletableCallback) {
-					response.text().then(v -> {
-						((CompletableCallback) callback).onDone();
-						return null;
-					});
+				return null;
+			});
+		});
+	}
+
+	private <T> Promise<T> pending(boolean textResponse, ResponseType responseType) {
+		if (!isDirect()) {
+			return exchange(textResponse, responseType).<SimpleResponse>catch_(SimpleRequestBuilder::networkError).then(response -> {
+				if (!response.ok) {
+					return Promise.reject(new SimpleRestException(response.status, response.statusText, Js.cast(response.body)));
 				}
-				else {
-					throw new UnsupportedOperationException(
-							"Second to last parameter must be a callback of type SingleStringCallback, SingleCallback, MultipleCallback, or CompletableCallback");
+				if (responseType == ResponseType.JSON) {
+					return Promise.resolve(this.<T>decode(response.body));
 				}
+				return Promise.resolve(textResponse || responseType == ResponseType.BINARY ? Js.<T>cast(response.body) : null);
+			});
+		}
+
+		// nothing sits between the caller and fetch, so the body is read straight off the response
+		return request(textResponse).<Response>catch_(SimpleRequestBuilder::networkError).then(response -> {
+			if (!response.ok) {
+				return response.text().then(text -> Promise.reject(new SimpleRestException(response.status, response.statusText, text)));
 			}
-			else {
-				response.text().then(text -> {
-					errorCallback.onError(response.status, response.statusText, Js.cast(text));
-					return null;
-				});
+			if (responseType == ResponseType.BINARY) {
+				return response.arrayBuffer().then(buffer -> Promise.resolve(Js.<T>cast(buffer)));
+			}
+			BinaryFormat format = responseType == ResponseType.JSON ? BinaryFormat.of(response.headers.get(CONTENT_TYPE)) : null;
+			if (format != null) {
+				return response.arrayBuffer().then(buffer -> Promise.resolve(this.<T>decode(format.decode(buffer))));
+			}
+			if (responseType == ResponseType.JSON && offloads(response)) {
+				return response.arrayBuffer().then(buffer -> workerPool().parse(buffer)).then(json -> Promise.resolve(this.<T>decode(json)));
 			}
+			if (responseType == ResponseType.JSON) {
+				return response.json().then(json -> Promise.resolve(this.<T>decode(json)));
+			}
+			if (textResponse) {
+				return response.text().then(text -> Promise.resolve(Js.<T>cast(text)));
+			}
+			return Promise.resolve((T) null);
+		});
+	}
+
+	/**
+	 * Rejects with the error of a call that got no response, such as a network or transport failure, as execute reports it
+	 */
+	private static <V> Promise<V> networkError(Object error) {
+		return Promise.reject(new SimpleRestException(-1, "TypeError", String.valueOf(error)));
+	}
+
+	/**
+	 * True when no cache, coalescer, retry, batcher, scheduler or observer takes part in this call
+	 */
+	protected boolean isDirect() {
+		return (!isIdempotentRead() || (coalescer == null && !isCached() && (prefetchStore == null || prefetchStore.isEmpty())))
+				&& (retryPolicy == null || !retryPolicy.isRetryable(method)) && batcher == null && scheduler == null && observer == null;
+	}
+
+	/**
+	 * Streams go through the scheduler, retry policy and observer like {@link #send}. The scheduler slot is held until the stream
+	 * ends and only opening the stream is retried, elements already delivered are never sent twice.
+	 */
+	protected <T> void stream(StreamingCallback<T> callback, ErrorCallback errorCallback) {
+		if (!hasHeader(ACCEPT)) {
+			header(ACCEPT, APPLICATION_NDJSON + ", " + APPLICATION_JSON);
+		}
+
+		RequestHandle handle = this.handle;
+		boolean retries = retryPolicy != null && retryPolicy.isRetryable(method);
+		if (retries) {
+			retryPolicy.getBudget().onRequest();
+		}
+		Supplier<Promise<Object>> streaming = () -> open(callback, errorCallback, retries, 1);
+		Promise<Object> streamed = scheduler != null ? scheduler.schedule(priority, handle, streaming) : streaming.get();
+		streamed.then(ignore -> {
+			observe(timing, null);
 			return null;
-		}).catch_(error -> {
-			errorCallback.onError(-1, "TypeError", error.toString());
+		}, error -> {
+			observe(timing, null);
+			if (handle.complete()) {
+				errorCallback.onError(-1, "TypeError", error.toString());
+			}
 			return null;
 		});
+	}
+
+	private <T> Promise<Object> open(StreamingCallback<T> callback, ErrorCallback errorCallback, boolean retries, int attempt) {
+		timing = observer != null ? new RequestTiming(endpoint != null ? endpoint : method + " " + base) : null;
+		RequestTiming timing = this.timing;
+		return request(false).then(response -> {
+			if (timing != null) {
+				timing.firstByte(response.status, response.headers.get(SERVER_TIMING));
+			}
+			int delay = retries ? retryPolicy.retryDelay(attempt, response.status, response.headers.get(RetryPolicy.RETRY_AFTER)) : -1;
+			if (delay < 0 || isAbandoned()) {
+				return readStream(timing, response, callback, errorCallback);
+			}
+			// the body of a response that is retried is never read
+			if (response.body != null) {
+				response.body.cancel(null);
+			}
+			observe(timing, null);
+			return sleep(delay).then(ignore -> open(callback, errorCallback, retries, attempt + 1));
+		}, error -> {
+			int delay = retries ? retryPolicy.retryDelay(attempt, -1, null) : -1;
+			if (delay < 0 || isAbandoned()) {
+				return Promise.reject(error);
+			}
+			observe(timing, null);
+			return sleep(delay).then(ignore -> open(callback, errorCallback, retries, attempt + 1));
+		});
+	}
+
+	private <T> Promise<Object> readStream(RequestTiming timing, Response response, StreamingCallback<T> callback, ErrorCallback errorCallback) {
+		RequestHandle handle = this.handle;
+		if (!response.ok) {
+			return response.text().then(text -> {
+				bodyRead(timing, utf8Length(text));
+				if (handle.complete()) {
+					errorCallback.onError(response.status, response.statusText, text);
+				}
+				return null;
+			});
+		}
+
+		JsonStreamParser parser = new JsonStreamParser();
+		ReadableStream<Uint8Array> body = Js.uncheckedCast(response.body);
+		if (body == null) {
+			return response.text().then(text -> {
+				bodyRead(timing, utf8Length(text));
+				if (handle.isActive()) {
+					deliver(callback, parser.feed(text));
+					deliver(callback, parser.finish());
+				}
+				if (handle.complete()) {
+					callback.onComplete();
+				}
+				return null;
+			});
+		}
+		ReadableStreamDefaultReader<Uint8Array> reader = body.getReader().asReadableStreamDefaultReader();
+		return pump(timing, reader, new TextDecoder(), JsPropertyMap.of("stream", true), parser, callback, 0);
+	}
+
+	private <T> Promise<Object> pump(RequestTiming timing, ReadableStreamDefaultReader<Uint8Array> reader, TextDecoder decoder,
+			JsPropertyMap<Object> decodeOptions, JsonStreamParser parser, StreamingCallback<T> callback, int bytes) {
+		RequestHandle handle = this.handle;
+		return reader.read().then(result -> {
+			if (!handle.isActive()) {
+				bodyRead(timing, bytes);
+				reader.cancel(null);
+				return null;
+			}
+			if (result.isDone()) {
+				bodyRead(timing, bytes);
+				deliver(callback, parser.feed(decoder.decode()));
+				deliver(callback, parser.finish());
+				if (handle.complete()) {
+					callback.onComplete();
+				}
+				return null;
+			}
+			deliver(callback, parser.feed(decoder.decode(result.getValue(), decodeOptions)));
+			return pump(timing, reader, decoder, decodeOptions, parser, callback, bytes + result.getValue().byteLength);
+		});
+	}
+
+	private static void bodyRead(RequestTiming timing, int bytes) {
+		if (timing != null) {
+			timing.bodyRead(bytes);
+		}
+	}
+
+	private <T> void deliver(StreamingCallback<T> callback, List<String> elements) {
+		if (elements.isEmpty()) {
+			return;
+		}
+		JsArray<Object> chunk = new JsArray<>();
+		for (String element : elements) {
+			chunk.push(decode(Global.JSON.parse(element)));
+		}
+		callback.onData(Js.cast(chunk));
+	}
+
+	/**
+	 * The parsed json body through the {@link #decoder(JsonCodec)}, or as is when there is none
+	 */
+	protected <T> T decode(Object json) {
+		return decoder != null ? Js.uncheckedCast(decoder.decode(json)) : Js.cast(json);
+	}
+
+	public Promise<SimpleResponse> exchange(boolean textResponse, ResponseType responseType) {
+		if (prefetchStore != null && !prefetchStore.isEmpty() && isIdempotentRead()) {
+			Promise<SimpleResponse> prefetched = prefetchStore.take(requestKey(responseType));
+			if (prefetched != null) {
+				// a prefetch that failed is not handed on, the call makes its own request
+				return prefetched.then(response -> response.ok ? Promise.resolve(response) : load(textResponse, responseType),
+						error -> load(textResponse, responseType));
+			}
+		}
+		return load(textResponse, responseType);
+	}
+
+	/**
+	 * Starts this GET at {@link RequestPriority#LOW} and keeps the response in the {@link #prefetchStore(PrefetchStore)}, so an
+	 * identical call made while it is fresh does not wait for the network. Without a store it only warms the response cache.
+	 */
+	public Promise<SimpleResponse> prefetch(boolean textResponse, ResponseType responseType) {
+		if (!isIdempotentRead()) {
+			throw new IllegalStateException("only GET and HEAD requests without a body can be prefetched, not " + method);
+		}
+		priority = RequestPriority.LOW;
+		// no caller waits on a prefetch, so no caller may abort it either
+		shared = true;
+		if (prefetchStore == null) {
+			return load(textResponse, responseType);
+		}
+		return prefetchStore.prefetch(requestKey(responseType), () -> load(textResponse, responseType));
+	}
+
+	private Promise<SimpleResponse> load(boolean textResponse, ResponseType responseType) {
+		if (!isIdempotentRead() || (coalescer == null && !isCached())) {
+			return send(textResponse, responseType);
+		}
+
+		String key = requestKey(responseType);
+		if (!isCached()) {
+			return coalesce(key, () -> send(textResponse, responseType));
+		}
+
+		CacheEntry entry = cache.get(key);
+		long now = System.currentTimeMillis();
+		if (entry != null && entry.isFresh(now)) {
+			return Promise.resolve(entry.response);
+		}
+		boolean showsBody = responseType == ResponseType.JSON || textResponse;
+		if (entry != null && entry.response.ok && now < entry.expires + staleWhileRevalidate * 1000L && showsBody) {
+			revalidation = revalidate(key, entry, textResponse, responseType);
+			return Promise.resolve(entry.response);
+		}
+		return conditional(key, entry, textResponse, responseType);
+	}
+
+	/**
+	 * Fetches a stale entry again, resolving with the new response only when it differs from the cached one by ETag or content
+	 */
+	private Promise<SimpleResponse> revalidate(String key, CacheEntry stale, boolean textResponse, ResponseType responseType) {
+		return conditional(key, stale, textResponse, responseType).then(response -> Promise.resolve(changed(stale, response) ? response : null));
+	}
+
+	private static boolean changed(CacheEntry previous, SimpleResponse response) {
+		// a 304 hands back the cached response itself
+		if (response == previous.response || !response.ok) {
+			return false;
+		}
+		String etag = response.headers.get(ETAG);
+		if (previous.etag != null && etag != null) {
+			return !previous.etag.equals(etag);
+		}
+		return !Objects.equals(serialized(previous.response.body), serialized(response.body));
+	}
+
+	private static String serialized(Object body) {
+		return body instanceof String ? (String) body : Global.JSON.stringify(body);
+	}
+
+	private Promise<SimpleResponse> conditional(String key, CacheEntry entry, boolean textResponse, ResponseType responseType) {
+		if (entry != null) {
+			if (entry.etag != null) {
+				header(IF_NONE_MATCH, entry.etag);
+			}
+			if (entry.lastModified != null) {
+				header(IF_MODIFIED_SINCE, entry.lastModified);
+			}
+		}
+		return coalesce(key, () -> send(textResponse, responseType).then(response -> Promise.resolve(store(key, entry, response))));
+	}
+
+	protected Promise<SimpleResponse> coalesce(String key, Supplier<Promise<SimpleResponse>> exchange) {
+		if (coalescer == null) {
+			return exchange.get();
+		}
+		// a fetch shared with other callers must not be aborted by this caller's handle
+		shared = true;
+		return coalescer.coalesce(key, exchange);
+	}
+
+	/**
+	 * True when responses to this call are kept in the response cache, for {@link Cached} or {@link StaleWhileRevalidate}
+	 */
+	protected boolean isCached() {
+		return cache != null && (maxAge > 0 || staleWhileRevalidate > 0);
+	}
+
+	protected SimpleResponse store(String key, CacheEntry previous, SimpleResponse response) {
+		long expires = System.currentTimeMillis() + maxAge * 1000L;
+		if (response.status == 304 && previous != null) {
+			cache.put(key, previous.withExpires(expires));
+			return previous.response;
+		}
+		if (response.ok) {
+			cache.put(key, new CacheEntry(response, expires));
+		}
+		return response;
+	}
+
+	protected Promise<SimpleResponse> send(boolean textResponse, ResponseType responseType) {
+		if (retryPolicy != null && retryPolicy.isRetryable(method)) {
+			retryPolicy.getBudget().onRequest();
+			return attempt(textResponse, responseType, 1);
+		}
+		return transmit(textResponse, responseType);
+	}
+
+	private Promise<SimpleResponse> attempt(boolean textResponse, ResponseType responseType, int attempt) {
+		return transmit(textResponse, responseType).then(response -> {
+			int delay = retryPolicy.retryDelay(attempt, response.status, response.headers.get(RetryPolicy.RETRY_AFTER));
+			if (delay < 0 || isAbandoned()) {
+				return Promise.resolve(response);
+			}
+			return sleep(delay).then(ignore -> attempt(textResponse, responseType, attempt + 1));
+		}, error -> {
+			int delay = retryPolicy.retryDelay(attempt, -1, null);
+			if (delay < 0 || isAbandoned()) {
+				return Promise.reject(error);
+			}
+			return sleep(delay).then(ignore -> attempt(textResponse, responseType, attempt + 1));
+		});
+	}
+
+	/**
+	 * True when the caller cancelled a fetch of its own. A fetch shared through the coalescer keeps retrying for the callers that
+	 * joined it, whichever of them started it.
+	 */
+	private boolean isAbandoned() {
+		return !shared && handle != null && !handle.isActive();
+	}
+
+	private static Promise<Object> sleep(int millis) {
+		return new Promise<>((resolve, reject) -> DomGlobal.setTimeout(ignore -> resolve.onInvoke((Object) null), millis));
+	}
+
+	protected Promise<SimpleResponse> transmit(boolean textResponse, ResponseType responseType) {
+		// batch bodies are strings, binary calls go out on their own
+		if (batcher != null && formParams.isEmpty() && responseType != ResponseType.BINARY && BinaryFormat.of(produces) == null
+				&& BinaryFormat.of(consumes) == null) {
+			return batcher.enqueue(method, uri(), headers(textResponse), body(), responseType);
+		}
+		timing = observer != null ? new RequestTiming(endpoint != null ? endpoint : method + " " + base) : null;
+		if (scheduler != null) {
+			return scheduler.schedule(priority, shared ? null : handle, () -> read(request(textResponse), responseType));
+		}
+		return read(request(textResponse), responseType);
+	}
+
+	protected Promise<SimpleResponse> read(Promise<Response> pending, ResponseType responseType) {
+		RequestTiming timing = this.timing;
+		return pending.then(response -> {
+			if (timing != null) {
+				timing.firstByte(response.status, response.headers.get(SERVER_TIMING));
+			}
+			if (response.ok && responseType != ResponseType.TEXT) {
+				// a binary format answering a json call is decoded to the same values JSON.parse would give
+				BinaryFormat format = responseType == ResponseType.JSON ? BinaryFormat.of(response.headers.get(CONTENT_TYPE)) : null;
+				if (responseType == ResponseType.BINARY || format != null) {
+					return response.arrayBuffer().then(buffer -> {
+						if (timing != null) {
+							timing.bodyRead((int) buffer.byteLength);
+						}
+						Object body = format != null ? format.decode(buffer) : buffer;
+						return Promise.resolve(observe(timing, new SimpleResponse(response.status, response.statusText, response.headers, body,
+								(int) buffer.byteLength)));
+					});
+				}
+				if (responseType == ResponseType.JSON && offloads(response)) {
+					return response.arrayBuffer().then(buffer -> {
+						int bytes = (int) buffer.byteLength;
+						if (timing != null) {
+							timing.bodyRead(bytes);
+						}
+						return workerPool().parse(buffer).then(body -> Promise.resolve(observe(timing,
+								new SimpleResponse(response.status, response.statusText, response.headers, body, bytes))), error -> {
+							observe(timing, null);
+							return Promise.reject(error);
+						});
+					});
+				}
+			}
+			return readText(timing, response, responseType);
+		}, error -> {
+			observe(timing, null);
+			return Promise.reject(error);
+		});
+	}
 
+	private Promise<SimpleResponse> readText(RequestTiming timing, Response response, ResponseType responseType) {
+		return response.text().then(text -> {
+			int bytes = utf8Length(text);
+			if (timing != null) {
+				timing.bodyRead(bytes);
+			}
+			Object body = response.ok && responseType == ResponseType.JSON ? Global.JSON.parse(text) : text;
+			return Promise.resolve(observe(timing, new SimpleResponse(response.status, response.statusText, response.headers, body, bytes)));
+		});
+	}
+
+	private SimpleResponse observe(RequestTiming timing, SimpleResponse response) {
+		if (timing != null) {
+			timing.parsed();
+			timing.end();
+			observer.onComplete(timing);
+		}
+		return response;
+	}
+
+	protected boolean isIdempotentRead() {
+		return (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)) && data == null && formParams.isEmpty();
+	}
+
+	public String requestKey(ResponseType responseType) {
+		StringBuilder key = new StringBuilder(method).append(' ').append(uri());
+		for (Param h : headerParams) {
+			key.append('\n').append(h.k).append(": ").append(h.v);
+		}
+		return key.append('\n').append(responseType).toString();
 	}
 
 	public Promise<Response> request(boolean textResponse) {
+		// queueing ends here, compressing the body is a phase of its own
+		if (timing != null) {
+			timing.started();
+		}
 		RequestInit requestInit = RequestInit.create();
 		requestInit.setCredentials("same-origin");
 		requestInit.setMethod(method);
 
-		if (data != null) {
-			requestInit.setBody(Global.JSON.stringify(data));
+		Headers headers = new Headers();
+		for (Param h : headers(textResponse)) {
+			headers.append(h.k, Objects.toString(h.v));
+		}
+		if (tracePropagator != null && !hasHeader(TRACEPARENT)) {
+			trace(headers);
 		}
+		requestInit.setHeaders(headers);
 
-		Headers headers = new Headers();
-		headerParams.forEach(h -> headers.append(h.k, Objects.toString(h.v)));
+		if (handle != null && !shared) {
+			requestInit.setSignal(handle.getSignal());
+		}
 
 		if (!formParams.isEmpty()) {
 			FormData form = new FormData();
@@ -123,38 +693,158 @@ public class SimpleRequestBuilder {
 			requestInit.setBody(form);
 		}
 		else if (data != null) {
-			if (headers.get(CONTENT_TYPE) == null) {
-				if (consumes.length > 0) {
-					for (String consume : consumes) {
-						headers.append(CONTENT_TYPE, consume);
-					}
+			BinaryFormat format = BinaryFormat.of(consumes);
+			Object body = format != null ? format.encode(payload()) : body();
+			if (compresses(body)) {
+				return RequestCompressor.compress(body, compression).then(compressed -> {
+					requestInit.setBody(compressed);
+					headers.set(CONTENT_ENCODING, compression);
+					return fetch(requestInit, (int) compressed.byteLength);
+				});
+			}
+			if (format != null) {
+				requestInit.setBody((ArrayBuffer) body);
+				return fetch(requestInit, (int) ((ArrayBuffer) body).byteLength);
+			}
+			requestInit.setBody((String) body);
+			// only observed calls report the bytes sent
+			return fetch(requestInit, timing != null ? utf8Length((String) body) : 0);
+		}
+
+		return fetch(requestInit, 0);
+	}
+
+	private void trace(Headers headers) {
+		String traceparent = tracePropagator.traceparent();
+		if (traceparent == null) {
+			return;
+		}
+		headers.set(TRACEPARENT, traceparent);
+		String tracestate = tracePropagator.tracestate();
+		if (tracestate != null && !hasHeader(TRACESTATE)) {
+			headers.set(TRACESTATE, tracestate);
+		}
+		if (timing != null) {
+			timing.traceparent(traceparent);
+		}
+	}
+
+	private Promise<Response> fetch(RequestInit requestInit, int requestBytes) {
+		if (timing != null) {
+			timing.fetchStart(requestBytes);
+		}
+		return transport.fetch(uri(), requestInit);
+	}
+
+	/**
+	 * Whether a json body is large enough to parse on a worker, going by its Content-Length, and the browser can
+	 */
+	protected boolean offloads(Response response) {
+		if (offloadThreshold <= 0 || !JsonWorkerPool.isSupported()) {
+			return false;
+		}
+		String length = response.headers.get(CONTENT_LENGTH);
+		return length != null && Double.parseDouble(length) >= offloadThreshold;
+	}
+
+	private JsonWorkerPool workerPool() {
+		return workerPool != null ? workerPool : JsonWorkerPool.shared();
+	}
+
+	/**
+	 * Whether a body is large enough to compress and the browser can
+	 */
+	protected boolean compresses(Object body) {
+		if (compression == null || !RequestCompressor.isSupported()) {
+			return false;
+		}
+		if (!(body instanceof String)) {
+			return ((ArrayBuffer) body).byteLength >= compressionThreshold;
+		}
+		// the threshold is in bytes of the utf-8 body that is sent, which are at least one and at most three per char
+		String text = (String) body;
+		if (text.length() >= compressionThreshold || text.length() * 3 < compressionThreshold) {
+			return text.length() >= compressionThreshold;
+		}
+		return utf8Length(text) >= compressionThreshold;
+	}
+
+	/**
+	 * Bytes of the text encoded as utf-8, as it goes over the wire
+	 */
+	static int utf8Length(String text) {
+		int bytes = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			// a surrogate pair is four bytes, two per char
+			bytes += c < 0x80 ? 1 : c < 0x800 || (c >= 0xD800 && c <= 0xDFFF) ? 2 : 3;
+		}
+		return bytes;
+	}
+
+	public List<Param> headers(boolean textResponse) {
+		if (!formParams.isEmpty() || data == null) {
+			// binary responses are negotiated, so calls without a body ask for them too
+			if (BinaryFormat.of(produces) != null && !hasHeader(ACCEPT)) {
+				return mediaHeaders(new ArrayList<>(headerParams), produces, consumes, textResponse, false, true);
+			}
+			return headerParams;
+		}
+		if (headerParams.isEmpty() && template != null && produces == template.produces && consumes == template.consumes) {
+			return template.headers(textResponse);
+		}
+
+		List<Param> headers = new ArrayList<>(headerParams);
+		return mediaHeaders(headers, produces, consumes, textResponse, !hasHeader(CONTENT_TYPE), !hasHeader(ACCEPT));
+	}
+
+	static List<Param> mediaHeaders(List<Param> headers, String[] produces, String[] consumes, boolean textResponse, boolean contentType, boolean accept) {
+		if (contentType) {
+			if (consumes.length > 0) {
+				for (String consume : consumes) {
+					headers.add(new Param(CONTENT_TYPE, consume));
 				}
-				else {
-					headers.append(CONTENT_TYPE, APPLICATION_JSON);
+			}
+			else {
+				headers.add(new Param(CONTENT_TYPE, APPLICATION_JSON));
+			}
+		}
+		if (accept) {
+			if (produces.length > 0) {
+				for (String produce : produces) {
+					headers.add(new Param(ACCEPT, produce));
 				}
 			}
-			if (headers.get(ACCEPT) == null) {
-				if (produces.length > 0) {
-					for (String produce : produces) {
-						headers.append(ACCEPT, produce);
-					}
+			else {
+				if (!textResponse) {
+					headers.add(new Param(ACCEPT, APPLICATION_JSON));
 				}
 				else {
-					if (!textResponse) {
-						headers.append(ACCEPT, APPLICATION_JSON);
-					}
-					else {
-						headers.append(ACCEPT, TEXT_HTML);
-					}
+					headers.add(new Param(ACCEPT, TEXT_HTML));
 				}
 			}
-			requestInit.setBody(Global.JSON.stringify(data));
 		}
+		return headers;
+	}
 
-		requestInit.setHeaders(headers);
+	protected boolean hasHeader(String key) {
+		for (Param h : headerParams) {
+			if (h.k.equalsIgnoreCase(key)) {
+				return true;
+			}
+		}
+		return false;
+	}
 
-		return DomGlobal.window.fetch(uri(), requestInit);
+	public String body() {
+		return data != null ? Global.JSON.stringify(payload()) : null;
+	}
 
+	/**
+	 * The data as the plain js value that is serialized, through its codec when it has one
+	 */
+	protected Object payload() {
+		return encoder != null ? encoder.encode(data) : data;
 	}
 
 	public SimpleRequestBuilder method(String method) {
@@ -170,11 +860,15 @@ public class SimpleRequestBuilder {
 		return this;
 	}
 
+	public SimpleRequestBuilder path(Object path) {
+		return path(Objects.toString(Objects.requireNonNull(path, "path required")));
+	}
+
 	public SimpleRequestBuilder path(String path) {
 		if (path.isEmpty()) {
 			throw new IllegalArgumentException("non-empty path required");
 		}
-		this.paths.add(path);
+		this.paths = add(paths, path);
 		return this;
 	}
 
@@ -191,57 +885,221 @@ public class SimpleRequestBuilder {
 
 	public SimpleRequestBuilder param(String key, Object value) {
 		Objects.requireNonNull(key, "query param key required");
-		handleLists(key, value, queryParams);
+		queryParams = handleLists(key, value, queryParams);
 		return this;
 	}
 
 	public SimpleRequestBuilder header(String key, Object value) {
 		Objects.requireNonNull(key, "header param key required");
-		handleLists(key, value, headerParams);
+		headerParams = handleLists(key, value, headerParams);
 		return this;
 	}
 
 	public SimpleRequestBuilder form(String key, Object value) {
 		Objects.requireNonNull(key, "form param key required");
-		handleLists(key, value, formParams);
+		formParams = handleLists(key, value, formParams);
 		return this;
 	}
 
-	private void handleLists(String key, Object value, List<Param> params) {
+	private List<Param> handleLists(String key, Object value, List<Param> params) {
 		if (value != null) {
 			if ((value instanceof Iterable<?>)) {
 				for (Object v : ((Iterable<?>) value)) {
-					params.add(new Param(key, v));
+					params = add(params, new Param(key, v));
 				}
 			}
 			else {
-				params.add(new Param(key, value));
+				params = add(params, new Param(key, value));
 			}
 		}
+		return params;
+	}
+
+	private static <T> List<T> add(List<T> list, T value) {
+		if (list == Collections.<T>emptyList()) {
+			list = new ArrayList<>(4);
+		}
+		list.add(value);
+		return list;
+	}
+
+	public SimpleRequestBuilder coalescer(RequestCoalescer coalescer) {
+		this.coalescer = coalescer;
+		return this;
+	}
+
+	public SimpleRequestBuilder prefetchStore(PrefetchStore prefetchStore) {
+		this.prefetchStore = prefetchStore;
+		return this;
+	}
+
+	public SimpleRequestBuilder cache(ResponseCache cache) {
+		this.cache = cache;
+		return this;
+	}
+
+	public SimpleRequestBuilder maxAge(int maxAge) {
+		this.maxAge = maxAge;
+		return this;
+	}
+
+	/**
+	 * Seconds after a cached response expires that it is still handed out at once while it is fetched again in the background
+	 */
+	public SimpleRequestBuilder staleWhileRevalidate(int staleWhileRevalidate) {
+		this.staleWhileRevalidate = staleWhileRevalidate;
+		return this;
+	}
+
+	public SimpleRequestBuilder batcher(RequestBatcher batcher) {
+		this.batcher = batcher;
+		return this;
+	}
+
+	public SimpleRequestBuilder retry(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+		return this;
+	}
+
+	public SimpleRequestBuilder timeout(int timeout) {
+		this.timeout = timeout;
+		return this;
+	}
+
+	public SimpleRequestBuilder scheduler(RequestScheduler scheduler) {
+		this.scheduler = scheduler;
+		return this;
+	}
+
+	public SimpleRequestBuilder priority(RequestPriority priority) {
+		this.priority = Objects.requireNonNull(priority, "priority required");
+		return this;
+	}
+
+	/**
+	 * Told about the timing of each fetch this call makes
+	 */
+	public SimpleRequestBuilder observer(RequestObserver observer) {
+		this.observer = observer;
+		return this;
+	}
+
+	/**
+	 * Sends this call's requests, null for the browser's fetch
+	 */
+	public SimpleRequestBuilder transport(Transport transport) {
+		this.transport = transport != null ? transport : FetchTransport.INSTANCE;
+		return this;
+	}
+
+	/**
+	 * Adds W3C trace context headers to each fetch, unless the call sets a traceparent header itself
+	 */
+	public SimpleRequestBuilder tracePropagator(TracePropagator tracePropagator) {
+		this.tracePropagator = tracePropagator;
+		return this;
+	}
+
+	/**
+	 * Name the call is reported under to the {@link RequestObserver}, method and base url when not set
+	 */
+	public SimpleRequestBuilder endpoint(String endpoint) {
+		this.endpoint = endpoint;
+		return this;
+	}
+
+	/**
+	 * Content-Encoding for request bodies of at least threshold bytes, null sends every body uncompressed
+	 */
+	public SimpleRequestBuilder compress(String compression, int threshold) {
+		this.compression = compression;
+		this.compressionThreshold = threshold;
+		return this;
+	}
+
+	/**
+	 * Parse json bodies of at least threshold bytes on a worker, 0 parses every body on the UI thread
+	 */
+	public SimpleRequestBuilder offload(int threshold) {
+		this.offloadThreshold = threshold;
+		return this;
+	}
+
+	/**
+	 * Workers offloaded bodies are parsed on, the shared pool when not set
+	 */
+	public SimpleRequestBuilder workerPool(JsonWorkerPool workerPool) {
+		this.workerPool = workerPool;
+		return this;
 	}
 
 	public SimpleRequestBuilder data(Object data) {
 		this.data = data;
+		this.encoder = null;
+		return this;
+	}
+
+	/**
+	 * A body encoded through its {@link Json} codec before it is stringified
+	 */
+	@SuppressWarnings("unchecked")
+	public <D> SimpleRequestBuilder data(D data, JsonCodec<D> encoder) {
+		this.data = data;
+		this.encoder = (JsonCodec<Object>) encoder;
+		return this;
+	}
+
+	/**
+	 * Codec the parsed json body is decoded with, for streaming calls the codec of a single element
+	 */
+	public SimpleRequestBuilder decoder(JsonCodec<?> decoder) {
+		this.decoder = decoder;
 		return this;
 	}
 
 	public String uri() {
-		String out = base;
+		int size = base.length() + paths.size() + (template != null ? template.pathLength : 0);
 		for (String pathComponent : paths) {
-			out += "/" + pathComponent;
+			size += pathComponent.length();
 		}
-		return out + query();
+		StringBuilder out = new StringBuilder(size + 16 * queryParams.size());
+		out.append(base);
+		int next = 0;
+		if (template != null) {
+			for (String segment : template.segments) {
+				if (segment == null) {
+					if (next == paths.size()) {
+						throw new IllegalStateException("missing path param in " + template);
+					}
+					segment = paths.get(next++);
+				}
+				out.append('/').append(segment);
+			}
+		}
+		for (; next < paths.size(); next++) {
+			out.append('/').append(paths.get(next));
+		}
+		if (!queryParams.isEmpty()) {
+			encodeParams(queryParams, out.append('?'));
+		}
+		return out.toString();
 	}
 
 	public String query() {
-		String q = encodeParams(queryParams);
-		return q.isEmpty() ? "" : "?" + q;
+		return queryParams.isEmpty() ? "" : encodeParams(queryParams, new StringBuilder("?")).toString();
 	}
 
 	protected String encodeParams(List<Param> params) {
-		String out = "";
+		return encodeParams(params, new StringBuilder()).toString();
+	}
+
+	protected StringBuilder encodeParams(List<Param> params, StringBuilder out) {
+		int start = out.length();
 		for (Param p : params) {
-			out += (out.isEmpty() ? "" : "&") + encodeComponent(p.k) + "=" + encodeComponent(Objects.toString(p.v));
+			if (out.length() > start) {
+				out.append('&');
+			}
+			out.append(encodeComponent(p.k)).append('=').append(encodeComponent(Objects.toString(p.v)));
 		}
 		return out;
 	}
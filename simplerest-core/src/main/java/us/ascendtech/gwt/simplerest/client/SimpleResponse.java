@@ -0,0 +1,30 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.dom.Headers;
+
+/**
+ * A response whose body has already been read, either as text or as parsed json depending on the {@link ResponseType} requested.
+ * Error responses always carry their body as text.
+ */
+public class SimpleResponse {
+	public final int status;
+	public final String statusText;
+	public final boolean ok;
+	public final Headers headers;
+	public final Object body;
+	public final int bodySize;
+
+	public SimpleResponse(int status, String statusText, Headers headers, Object body, int bodySize) {
+		this.status = status;
+		this.statusText = statusText;
+		this.ok = status >= 200 && status < 300;
+		this.headers = headers;
+		this.body = body;
+		this.bodySize = bodySize;
+	}
+
+	@Override
+	public String toString() {
+		return "SimpleResponse{status=" + status + ", statusText='" + statusText + "'}";
+	}
+}
@@ -3,14 +3,225 @@ package us.ascendtech.gwt.simplerest.client;
 public class SimpleRestClient {
 	protected final String baseUrl;
 	private final String servicePath;
+	private final String basePath;
+	private RequestCoalescer requestCoalescer;
+	private ResponseCache responseCache;
+	private RequestBatcher requestBatcher;
+	private RetryPolicy retryPolicy;
+	private int timeout;
+	private RequestScheduler requestScheduler;
+	private String compression;
+	private int compressionThreshold;
+	private RequestObserver requestObserver;
+	private TracePropagator tracePropagator;
+	private PrefetchStore prefetchStore = new PrefetchStore();
+	private Transport transport = FetchTransport.INSTANCE;
+	private JsonWorkerPool jsonWorkerPool;
+	private RequestBuilderFactory requestBuilderFactory;
 
 	public SimpleRestClient(String baseUrl, String servicePath) {
 		this.baseUrl = baseUrl;
 		this.servicePath = servicePath;
+		this.basePath = basePath(baseUrl, servicePath);
+	}
+
+	/**
+	 * Joins the base url and service path once, so each call only appends its own segments
+	 */
+	private static String basePath(String baseUrl, String servicePath) {
+		StringBuilder out = new StringBuilder(baseUrl.length() + servicePath.length() + 1).append(baseUrl);
+		while (out.length() > 0 && out.charAt(out.length() - 1) == '/') {
+			out.setLength(out.length() - 1);
+		}
+		int start = 0;
+		int end = servicePath.length();
+		while (start < end && servicePath.charAt(start) == '/') {
+			start++;
+		}
+		while (end > start && servicePath.charAt(end - 1) == '/') {
+			end--;
+		}
+		if (start < end) {
+			out.append('/').append(servicePath, start, end);
+		}
+		return out.toString();
+	}
+
+	public RequestCoalescer getRequestCoalescer() {
+		return requestCoalescer;
+	}
+
+	/**
+	 * Opt in to sharing identical concurrent GET requests, pass null to turn it off again
+	 */
+	public void setRequestCoalescer(RequestCoalescer requestCoalescer) {
+		this.requestCoalescer = requestCoalescer;
+	}
+
+	public ResponseCache getResponseCache() {
+		return responseCache;
+	}
+
+	/**
+	 * Cache used by methods annotated with {@link Cached}, pass null to turn caching off
+	 */
+	public void setResponseCache(ResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+
+	public RequestBatcher getRequestBatcher() {
+		return requestBatcher;
+	}
+
+	/**
+	 * Send calls through a batch endpoint, pass null to send every call on its own again
+	 */
+	public void setRequestBatcher(RequestBatcher requestBatcher) {
+		this.requestBatcher = requestBatcher;
+	}
+
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	/**
+	 * Retry policy for methods without a {@link Retry} annotation, pass null to turn retries off
+	 */
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+	}
+
+	public int getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Timeout in milliseconds for methods without a {@link Timeout} annotation, 0 waits indefinitely
+	 */
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
+	public RequestScheduler getRequestScheduler() {
+		return requestScheduler;
+	}
+
+	/**
+	 * Queue fetches through a scheduler that limits how many are in flight, pass null to send immediately
+	 */
+	public void setRequestScheduler(RequestScheduler requestScheduler) {
+		this.requestScheduler = requestScheduler;
+	}
+
+	public String getCompression() {
+		return compression;
+	}
+
+	public int getCompressionThreshold() {
+		return compressionThreshold;
+	}
+
+	/**
+	 * Compress request bodies of at least threshold bytes for methods without a {@link CompressRequest} annotation, pass a null
+	 * compression to send them as is
+	 */
+	public void setCompression(String compression, int compressionThreshold) {
+		this.compression = compression;
+		this.compressionThreshold = compressionThreshold;
+	}
+
+	public RequestObserver getRequestObserver() {
+		return requestObserver;
+	}
+
+	/**
+	 * Report the timing of every fetch, such as to {@link ClientMetrics}, pass null to stop
+	 */
+	public void setRequestObserver(RequestObserver requestObserver) {
+		this.requestObserver = requestObserver;
+	}
+
+	public TracePropagator getTracePropagator() {
+		return tracePropagator;
+	}
+
+	/**
+	 * Send W3C traceparent and tracestate headers with every call, pass null to stop
+	 */
+	public void setTracePropagator(TracePropagator tracePropagator) {
+		this.tracePropagator = tracePropagator;
+	}
+
+	public PrefetchStore getPrefetchStore() {
+		return prefetchStore;
+	}
+
+	/**
+	 * Store for the responses of generated prefetch methods, share one between clients or pass null to only warm the response cache
+	 */
+	public void setPrefetchStore(PrefetchStore prefetchStore) {
+		this.prefetchStore = prefetchStore;
+	}
+
+	public Transport getTransport() {
+		return transport;
+	}
+
+	/**
+	 * Send requests through another transport, such as {@link XhrTransport} for upload progress or {@link LoopbackTransport} in tests,
+	 * pass null to go back to fetch
+	 */
+	public void setTransport(Transport transport) {
+		this.transport = transport != null ? transport : FetchTransport.INSTANCE;
+	}
+
+	public JsonWorkerPool getJsonWorkerPool() {
+		return jsonWorkerPool;
+	}
+
+	/**
+	 * Workers the bodies of {@link OffloadParsing} methods are parsed on, pass null for the shared pool
+	 */
+	public void setJsonWorkerPool(JsonWorkerPool jsonWorkerPool) {
+		this.jsonWorkerPool = jsonWorkerPool;
+	}
+
+	public RequestBuilderFactory getRequestBuilderFactory() {
+		return requestBuilderFactory;
+	}
+
+	/**
+	 * Run calls on builders from the factory, such as the JVM runtime in simplerest-jvm, pass null for the browser builder
+	 */
+	public void setRequestBuilderFactory(RequestBuilderFactory requestBuilderFactory) {
+		this.requestBuilderFactory = requestBuilderFactory;
+	}
+
+	private SimpleRequestBuilder newRequestBuilder(RequestTemplate template) {
+		if (requestBuilderFactory != null) {
+			return requestBuilderFactory.create(this, basePath, template);
+		}
+		return template != null ? new SimpleRequestBuilder(basePath, template) : new SimpleRequestBuilder(basePath);
+	}
+
+	/**
+	 * Start a call from a generated template, client wide settings apply where the template leaves them unset
+	 */
+	protected SimpleRequestBuilder request(RequestTemplate template) {
+		SimpleRequestBuilder simpleRequestBuilder = newRequestBuilder(template);
+		simpleRequestBuilder.coalescer(requestCoalescer).prefetchStore(prefetchStore).cache(responseCache).batcher(requestBatcher)
+				.scheduler(requestScheduler).observer(requestObserver).tracePropagator(tracePropagator).transport(transport).workerPool(jsonWorkerPool)
+				.retry(template.retryPolicy != null ? template.retryPolicy : retryPolicy).timeout(template.timeout > 0 ? template.timeout : timeout);
+		if (template.compression == null) {
+			simpleRequestBuilder.compress(compression, compressionThreshold);
+		}
+		return simpleRequestBuilder;
 	}
 
 	protected SimpleRequestBuilder method(String method) {
-		SimpleRequestBuilder simpleRequestBuilder = new SimpleRequestBuilder(baseUrl);
-		return simpleRequestBuilder.method(method).path(servicePath);
+		SimpleRequestBuilder simpleRequestBuilder = newRequestBuilder(null);
+		return simpleRequestBuilder.method(method).coalescer(requestCoalescer).prefetchStore(prefetchStore).cache(responseCache)
+				.batcher(requestBatcher).retry(retryPolicy).timeout(timeout).scheduler(requestScheduler).compress(compression, compressionThreshold)
+				.observer(requestObserver).tracePropagator(tracePropagator).transport(transport).workerPool(jsonWorkerPool);
 	}
 }
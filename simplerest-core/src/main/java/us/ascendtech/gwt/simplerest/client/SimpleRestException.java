@@ -0,0 +1,18 @@
+package us.ascendtech.gwt.simplerest.client;
+
+/**
+ * Rejection value of promise style clients, carries the same values an {@link ErrorCallback} receives. Status is -1 when no response
+ * was received.
+ */
+public class SimpleRestException extends RuntimeException {
+	public final int status;
+	public final String statusText;
+	public final String body;
+
+	public SimpleRestException(int status, String statusText, String body) {
+		super(status + " " + statusText);
+		this.status = status;
+		this.statusText = statusText;
+		this.body = body;
+	}
+}
@@ -0,0 +1,23 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Hand a GET method's last cached response to its callback at once, then fetch it again in the background and call the callback a
+ * second time only when the body changed. Responses are kept in the client's {@link ResponseCache}, with {@link Cached} they are
+ * served without a revalidation while fresh. On a service interface it applies to every GET method, a method level annotation
+ * overrides it.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StaleWhileRevalidate {
+
+	/**
+	 * Seconds after a response expires that it is still shown while it is revalidated, older responses are fetched as usual
+	 */
+	int maxStale() default 86400;
+
+}
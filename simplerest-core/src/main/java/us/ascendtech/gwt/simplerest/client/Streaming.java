@@ -0,0 +1,16 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Deliver the elements of a collection returning method of a {@link SimpleRestGwtSync} interface in chunks through a
+ * {@link StreamingCallback} instead of a {@link MultipleCallback}.
+ */
+@Target({ ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Streaming {
+
+}
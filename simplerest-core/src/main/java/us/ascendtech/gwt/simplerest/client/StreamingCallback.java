@@ -0,0 +1,9 @@
+package us.ascendtech.gwt.simplerest.client;
+
+public interface StreamingCallback<T> extends SimpleRestCallback<T> {
+
+	void onData(T[] chunk);
+
+	void onComplete();
+
+}
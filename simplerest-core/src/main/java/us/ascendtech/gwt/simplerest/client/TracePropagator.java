@@ -0,0 +1,21 @@
+package us.ascendtech.gwt.simplerest.client;
+
+/**
+ * Supplies W3C trace context headers for outgoing calls, see {@link W3CTracePropagator}. Set one per client with
+ * {@link SimpleRestClient#setTracePropagator(TracePropagator)}, calls that already carry a traceparent header keep it.
+ */
+public interface TracePropagator {
+
+	/**
+	 * The traceparent header of a new call, null to send none
+	 */
+	String traceparent();
+
+	/**
+	 * The tracestate header of a new call, null to send none
+	 */
+	default String tracestate() {
+		return null;
+	}
+
+}
@@ -0,0 +1,21 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.dom.RequestInit;
+import elemental2.dom.Response;
+import elemental2.promise.Promise;
+
+/**
+ * Sends the requests of a client, set with {@link SimpleRestClient#setTransport(Transport)}. The request init carries the method,
+ * a {@link elemental2.dom.Headers} object, the body as a string, ArrayBuffer or FormData and the abort signal of the call.
+ * Implementations settle like fetch: they resolve with any response the server sends and reject on network errors and aborts.
+ *
+ * @see FetchTransport
+ * @see XhrTransport
+ * @see LoopbackTransport
+ */
+@FunctionalInterface
+public interface Transport {
+
+	Promise<Response> fetch(String url, RequestInit requestInit);
+
+}
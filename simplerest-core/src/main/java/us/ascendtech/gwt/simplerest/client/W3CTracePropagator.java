@@ -0,0 +1,79 @@
+package us.ascendtech.gwt.simplerest.client;
+
+/**
+ * Starts a span with a random parent id for every call. The trace id is either fixed, tying every call of a page to one trace, or
+ * random per call.
+ */
+public class W3CTracePropagator implements TracePropagator {
+
+	private static final String HEX = "0123456789abcdef";
+
+	private final String traceId;
+	private final String tracestate;
+	private final boolean sampled;
+
+	/**
+	 * A new trace for every call, sampled
+	 */
+	public W3CTracePropagator() {
+		this(null, null, true);
+	}
+
+	/**
+	 * @param traceId 32 lowercase hex digits, null for a new trace per call
+	 * @param tracestate sent as is with every call, may be null
+	 */
+	public W3CTracePropagator(String traceId, String tracestate, boolean sampled) {
+		if (traceId != null && !isValid(traceId, 32)) {
+			throw new IllegalArgumentException("trace id must be 32 lowercase hex digits, not all zero");
+		}
+		this.traceId = traceId;
+		this.tracestate = tracestate;
+		this.sampled = sampled;
+	}
+
+	/**
+	 * A random trace id, for a trace spanning several calls
+	 */
+	public static String newTraceId() {
+		return randomHex(32);
+	}
+
+	@Override
+	public String traceparent() {
+		String trace = traceId != null ? traceId : randomHex(32);
+		return "00-" + trace + "-" + randomHex(16) + (sampled ? "-01" : "-00");
+	}
+
+	@Override
+	public String tracestate() {
+		return tracestate;
+	}
+
+	private static String randomHex(int digits) {
+		StringBuilder hex = new StringBuilder(digits);
+		do {
+			hex.setLength(0);
+			for (int i = 0; i < digits; i++) {
+				hex.append(HEX.charAt((int) (Math.random() * 16)));
+			}
+		}
+		while (!isValid(hex, digits));
+		return hex.toString();
+	}
+
+	private static boolean isValid(CharSequence hex, int digits) {
+		if (hex.length() != digits) {
+			return false;
+		}
+		boolean zero = true;
+		for (int i = 0; i < digits; i++) {
+			char c = hex.charAt(i);
+			if (HEX.indexOf(c) < 0) {
+				return false;
+			}
+			zero &= c == '0';
+		}
+		return !zero;
+	}
+}
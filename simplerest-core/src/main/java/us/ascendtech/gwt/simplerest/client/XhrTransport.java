@@ -0,0 +1,117 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import elemental2.core.JsArray;
+import elemental2.core.JsIIterableResult;
+import elemental2.core.JsIteratorIterable;
+import elemental2.dom.AbortSignal;
+import elemental2.dom.Headers;
+import elemental2.dom.RequestInit;
+import elemental2.dom.Response;
+import elemental2.dom.ResponseInit;
+import elemental2.dom.XMLHttpRequest;
+import elemental2.promise.Promise;
+import jsinterop.base.Js;
+import jsinterop.base.JsPropertyMap;
+
+/**
+ * Sends requests with XMLHttpRequest, which unlike fetch reports upload progress. The response body is read whole into an ArrayBuffer
+ * before the returned promise resolves, so streaming calls get it in a single chunk. An upload listener makes cross origin requests
+ * preflighted.
+ */
+public class XhrTransport implements Transport {
+
+	@FunctionalInterface
+	public interface ProgressListener {
+
+		/**
+		 * @param total bytes expected, -1 when the length is not known
+		 */
+		void onProgress(String url, double loaded, double total);
+
+	}
+
+	private final ProgressListener uploadListener;
+	private final ProgressListener downloadListener;
+
+	public XhrTransport() {
+		this(null, null);
+	}
+
+	/**
+	 * @param uploadListener told about request bodies being sent, or null
+	 * @param downloadListener told about response bodies being received, or null
+	 */
+	public XhrTransport(ProgressListener uploadListener, ProgressListener downloadListener) {
+		this.uploadListener = uploadListener;
+		this.downloadListener = downloadListener;
+	}
+
+	@Override
+	public Promise<Response> fetch(String url, RequestInit requestInit) {
+		JsPropertyMap<Object> init = Js.asPropertyMap(requestInit);
+		return new Promise<>((resolve, reject) -> {
+			AbortSignal signal = Js.uncheckedCast(init.get("signal"));
+			if (signal != null && signal.aborted) {
+				reject.onInvoke("request aborted");
+				return;
+			}
+
+			XMLHttpRequest xhr = new XMLHttpRequest();
+			xhr.open(init.has("method") ? Js.asString(init.get("method")) : "GET", url);
+			xhr.responseType = "arraybuffer";
+			xhr.withCredentials = "include".equals(init.get("credentials"));
+			if (init.get("headers") != null) {
+				JsIteratorIterable<JsArray<String>> entries = Js.<Headers>uncheckedCast(init.get("headers")).entries();
+				for (JsIIterableResult<JsArray<String>> entry = entries.next(); !entry.isDone(); entry = entries.next()) {
+					xhr.setRequestHeader(entry.getValue().getAt(0), entry.getValue().getAt(1));
+				}
+			}
+			if (uploadListener != null) {
+				xhr.upload.onprogress = event -> uploadListener.onProgress(url, event.loaded, event.lengthComputable ? event.total : -1);
+			}
+			if (downloadListener != null) {
+				xhr.onprogress = event -> downloadListener.onProgress(url, event.loaded, event.lengthComputable ? event.total : -1);
+			}
+			xhr.onload = event -> {
+				try {
+					resolve.onInvoke(response(xhr));
+				}
+				catch (Exception e) {
+					reject.onInvoke(e);
+				}
+			};
+			xhr.onerror = event -> {
+				reject.onInvoke("XMLHttpRequest to " + url + " failed");
+				return null;
+			};
+			xhr.ontimeout = xhr.onerror::onInvoke;
+			if (signal != null) {
+				signal.addEventListener("abort", event -> {
+					xhr.abort();
+					reject.onInvoke("request aborted");
+				});
+			}
+			xhr.send(XMLHttpRequest.SendDataUnionType.of(init.get("body")));
+		});
+	}
+
+	private static Response response(XMLHttpRequest xhr) {
+		Headers headers = new Headers();
+		String all = xhr.getAllResponseHeaders();
+		if (all != null) {
+			for (String line : all.split("\r\n")) {
+				int colon = line.indexOf(':');
+				if (colon > 0) {
+					headers.append(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+				}
+			}
+		}
+		// the Response constructor refuses a body for these
+		boolean nullBody = xhr.status == 101 || xhr.status == 204 || xhr.status == 205 || xhr.status == 304;
+		ResponseInit init = ResponseInit.create();
+		init.setStatus(xhr.status);
+		init.setStatusText(xhr.statusText);
+		init.setHeaders(headers);
+		return new Response(nullBody ? null : Response.ConstructorBodyUnionType.of(xhr.response), init);
+	}
+}
@@ -0,0 +1,78 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Bodies are fed split at every position, and one char at a time, so chunk boundaries fall inside strings, escapes and numbers.
+ */
+class JsonStreamParserTest {
+
+	private static final String ARRAY = " [ {\"a\":\"x,y]\\\"}\"} ,-12.5e3,\"\\\\\",[1,[2, {}]],\n{\"b\":\"\\u00e9 [\"},true ]  ";
+	private static final List<String> ARRAY_ELEMENTS = List.of("{\"a\":\"x,y]\\\"}\"}", "-12.5e3", "\"\\\\\"", "[1,[2, {}]]",
+			"{\"b\":\"\\u00e9 [\"}", "true");
+
+	private static final String LINES = "{\"id\":1,\"name\":\"a\\nb\"}\r\n\n  {\"id\":22}\n12345\n\"last\"";
+	private static final List<String> LINE_ELEMENTS = List.of("{\"id\":1,\"name\":\"a\\nb\"}", "{\"id\":22}", "12345", "\"last\"");
+
+	@Test
+	void arrayElementsSurviveEverySplit() {
+		assertEquals(ARRAY_ELEMENTS, parse(ARRAY));
+		for (int i = 0; i <= ARRAY.length(); i++) {
+			assertEquals(ARRAY_ELEMENTS, parse(ARRAY.substring(0, i), ARRAY.substring(i)), "split at " + i);
+		}
+		assertEquals(ARRAY_ELEMENTS, parse(ARRAY.split("")));
+	}
+
+	@Test
+	void newlineDelimitedElementsSurviveEverySplit() {
+		assertEquals(LINE_ELEMENTS, parse(LINES));
+		for (int i = 0; i <= LINES.length(); i++) {
+			assertEquals(LINE_ELEMENTS, parse(LINES.substring(0, i), LINES.substring(i)), "split at " + i);
+		}
+		assertEquals(LINE_ELEMENTS, parse(LINES.split("")));
+	}
+
+	@Test
+	void elementsAreReturnedAsSoonAsTheyEnd() {
+		JsonStreamParser parser = new JsonStreamParser();
+		assertEquals(List.of(), parser.feed("[{\"id\":1"));
+		assertEquals(List.of("{\"id\":1}"), parser.feed("},{\"id\""));
+		assertEquals(List.of("{\"id\":2}"), parser.feed(":2}]"));
+		assertEquals(List.of(), parser.finish());
+	}
+
+	@Test
+	void emptyBodiesHaveNoElements() {
+		assertEquals(List.of(), parse("[ ]"));
+		assertEquals(List.of(), parse(""));
+		assertEquals(List.of(), parse("\n\n"));
+	}
+
+	@Test
+	void textAfterTheArrayIsIgnored() {
+		assertEquals(List.of("1", "2"), parse("[1,2]", ",3]\n"));
+	}
+
+	@Test
+	void unterminatedArrayFailsAtTheEnd() {
+		JsonStreamParser parser = new JsonStreamParser();
+		assertEquals(List.of("1"), parser.feed("[1,\"2"));
+		assertThrows(IllegalStateException.class, parser::finish);
+	}
+
+	private static List<String> parse(String... chunks) {
+		JsonStreamParser parser = new JsonStreamParser();
+		List<String> elements = new ArrayList<>();
+		for (String chunk : chunks) {
+			elements.addAll(parser.feed(chunk));
+		}
+		elements.addAll(parser.finish());
+		return elements;
+	}
+}
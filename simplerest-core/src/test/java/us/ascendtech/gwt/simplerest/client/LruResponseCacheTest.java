@@ -0,0 +1,97 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LruResponseCacheTest {
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntryPastTheEntryLimit() {
+		LruResponseCache cache = new LruResponseCache(3, 1000);
+		cache.put("a", entry(10));
+		cache.put("b", entry(10));
+		cache.put("c", entry(10));
+		// reading a makes b the least recently used
+		assertNotNull(cache.get("a"));
+		cache.put("d", entry(10));
+
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("a"));
+		assertNotNull(cache.get("c"));
+		assertNotNull(cache.get("d"));
+		assertEquals(3, cache.getEntryCount());
+		assertEquals(30, cache.getSize());
+	}
+
+	@Test
+	void evictsUntilTheBodiesFitTheSizeLimit() {
+		LruResponseCache cache = new LruResponseCache(10, 100);
+		cache.put("a", entry(40));
+		cache.put("b", entry(40));
+		cache.put("c", entry(70));
+
+		assertNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+		assertEquals(1, cache.getEntryCount());
+		assertEquals(70, cache.getSize());
+	}
+
+	@Test
+	void entryLargerThanTheCacheIsNotStored() {
+		LruResponseCache cache = new LruResponseCache(10, 100);
+		cache.put("a", entry(50));
+		cache.put("big", entry(101));
+
+		assertNull(cache.get("big"));
+		assertNotNull(cache.get("a"));
+		assertEquals(50, cache.getSize());
+	}
+
+	@Test
+	void replacingAnEntryCountsOnlyTheNewSize() {
+		LruResponseCache cache = new LruResponseCache(10, 100);
+		CacheEntry replacement = entry(30);
+		cache.put("a", entry(60));
+		cache.put("a", replacement);
+
+		assertSame(replacement, cache.get("a"));
+		assertEquals(1, cache.getEntryCount());
+		assertEquals(30, cache.getSize());
+
+		// an oversized replacement drops the old entry as well
+		cache.put("a", entry(200));
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	void removeAndClearReleaseTheirSize() {
+		LruResponseCache cache = new LruResponseCache(10, 100);
+		cache.put("a", entry(20));
+		cache.put("b", entry(30));
+		cache.remove("a");
+		cache.remove("missing");
+		assertEquals(30, cache.getSize());
+
+		cache.clear();
+		assertEquals(0, cache.getEntryCount());
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	void boundsMustBePositive() {
+		assertThrows(IllegalArgumentException.class, () -> new LruResponseCache(0, 100));
+		assertThrows(IllegalArgumentException.class, () -> new LruResponseCache(10, 0));
+	}
+
+	private static CacheEntry entry(int size) {
+		// headers are a browser type, entries built from the parts need none
+		return new CacheEntry(new SimpleResponse(200, "OK", null, "x".repeat(size), size), null, null, Long.MAX_VALUE, size);
+	}
+}
@@ -0,0 +1,84 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import org.junit.jupiter.api.Test;
+import us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder.Param;
+
+import javax.ws.rs.HttpMethod;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestTemplateTest {
+
+	private static final RequestTemplate ITEM = RequestTemplate.builder(HttpMethod.GET).path("todo").path("lists").pathParam().path("items")
+			.pathParam().path("done").build();
+
+	@Test
+	void adjacentStaticSegmentsAreJoined() {
+		assertArrayEquals(new String[] { "todo/lists", null, "items", null, "done" }, ITEM.segments);
+		assertEquals("todo/lists".length() + "items".length() + "done".length() + 3, ITEM.pathLength);
+		assertEquals("GET /todo/lists/{}/items/{}/done", ITEM.toString());
+	}
+
+	@Test
+	void pathArgumentsBindTheParamsInOrder() {
+		assertEquals("http://h/api/todo/lists/7/items/42/done", new UriRequestBuilder("http://h/api/", ITEM).path(7).path(42).uri());
+		assertEquals("http://h/api/todo/lists/7/items/42/done/extra?all=true",
+				new UriRequestBuilder("http://h/api", ITEM).path(7, 42, "extra").param("all", true).uri());
+	}
+
+	@Test
+	void missingPathParamFails() {
+		SimpleRequestBuilder builder = new UriRequestBuilder("http://h", ITEM).path(7);
+
+		IllegalStateException e = assertThrows(IllegalStateException.class, builder::uri);
+		assertEquals("missing path param in GET /todo/lists/{}/items/{}/done", e.getMessage());
+	}
+
+	@Test
+	void mediaHeadersArePrecomputed() {
+		RequestTemplate json = RequestTemplate.builder(HttpMethod.POST).path("items").build();
+		assertEquals(List.of("Content-Type: application/json", "Accept: application/json"), headers(json.headers(false)));
+		assertEquals(List.of("Content-Type: application/json", "Accept: text/html"), headers(json.headers(true)));
+		assertSame(json.headers(false), json.headers(false));
+
+		RequestTemplate text = RequestTemplate.builder(HttpMethod.POST).path("items").consumes("text/plain").produces("text/csv").build();
+		assertEquals(List.of("Content-Type: text/plain", "Accept: text/csv"), headers(text.headers(false)));
+		assertEquals(List.of("Content-Type: text/plain", "Accept: text/csv"), headers(text.headers(true)));
+	}
+
+	@Test
+	void callOptionsAreCopiedToTheBuilder() {
+		RetryPolicy retry = new RetryPolicy(3, 100, 1000);
+		RequestTemplate template = RequestTemplate.builder(HttpMethod.PUT).path("items").maxAge(60).staleWhileRevalidate(30).timeout(5000)
+				.retry(retry).priority(RequestPriority.LOW).endpoint("items.save").build();
+		SimpleRequestBuilder builder = new UriRequestBuilder("http://h", template);
+
+		assertEquals(HttpMethod.PUT, builder.method);
+		assertEquals(60, builder.maxAge);
+		assertEquals(30, builder.staleWhileRevalidate);
+		assertEquals(5000, builder.timeout);
+		assertSame(retry, builder.retryPolicy);
+		assertEquals(RequestPriority.LOW, builder.priority);
+		assertEquals("items.save", builder.endpoint);
+	}
+
+	@Test
+	void invalidTemplatesAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> RequestTemplate.builder(HttpMethod.GET).path(""));
+		assertThrows(NullPointerException.class, () -> RequestTemplate.builder(null));
+		assertThrows(NullPointerException.class, () -> RequestTemplate.builder(HttpMethod.GET).priority(null));
+	}
+
+	private static List<String> headers(List<Param> params) {
+		List<String> headers = new ArrayList<>();
+		for (Param p : params) {
+			headers.add(p.k + ": " + p.v);
+		}
+		return headers;
+	}
+}
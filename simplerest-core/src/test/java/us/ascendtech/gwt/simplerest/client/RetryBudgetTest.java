@@ -0,0 +1,39 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+	@Test
+	void requestsEarnRetries() {
+		RetryBudget budget = new RetryBudget(0.5, 10, 0);
+		assertFalse(budget.tryRetry());
+		budget.onRequest();
+		assertFalse(budget.tryRetry());
+		budget.onRequest();
+		assertTrue(budget.tryRetry());
+		assertFalse(budget.tryRetry());
+	}
+
+	@Test
+	void budgetBalanceIsCapped() {
+		RetryBudget budget = new RetryBudget(1, 2, 0);
+		for (int i = 0; i < 10; i++) {
+			budget.onRequest();
+		}
+		assertTrue(budget.tryRetry());
+		assertTrue(budget.tryRetry());
+		assertFalse(budget.tryRetry());
+	}
+
+	@Test
+	void budgetAllowsAFewRetriesPerSecondWithoutRequests() {
+		RetryBudget budget = new RetryBudget(0.2, 10, 2);
+		assertTrue(budget.tryRetry());
+		assertTrue(budget.tryRetry());
+		assertFalse(budget.tryRetry());
+	}
+}
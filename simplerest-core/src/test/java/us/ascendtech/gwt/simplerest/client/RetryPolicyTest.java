@@ -0,0 +1,82 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import org.junit.jupiter.api.Test;
+
+import javax.ws.rs.HttpMethod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+
+	@Test
+	void onlyIdempotentMethodsAreRetriedByDefault() {
+		RetryPolicy policy = new RetryPolicy(3, 100, 1000);
+		assertTrue(policy.isRetryable(HttpMethod.GET));
+		assertTrue(policy.isRetryable(HttpMethod.PUT));
+		assertTrue(policy.isRetryable(HttpMethod.DELETE));
+		assertFalse(policy.isRetryable(HttpMethod.POST));
+
+		assertTrue(new RetryPolicy(3, 100, 1000, HttpMethod.POST).isRetryable(HttpMethod.POST));
+		assertFalse(new RetryPolicy(1, 100, 1000).isRetryable(HttpMethod.GET), "a single attempt is never retried");
+	}
+
+	@Test
+	void onlyTransientFailuresAreRetried() {
+		RetryPolicy policy = unbudgeted(3, 100, 1000);
+		for (int status : new int[] { -1, 408, 429, 502, 503, 504 }) {
+			assertTrue(policy.retryDelay(1, status, null) >= 0, "status " + status);
+		}
+		for (int status : new int[] { 200, 304, 400, 404, 500 }) {
+			assertEquals(-1, policy.retryDelay(1, status, null), "status " + status);
+		}
+	}
+
+	@Test
+	void givesUpAfterTheLastAttempt() {
+		RetryPolicy policy = unbudgeted(3, 100, 1000);
+		assertTrue(policy.retryDelay(2, 503, null) >= 0);
+		assertEquals(-1, policy.retryDelay(3, 503, null));
+	}
+
+	@Test
+	void backoffIsJitteredBelowAnExponentialCap() {
+		RetryPolicy policy = unbudgeted(20, 100, 1000);
+		int[] caps = { 100, 200, 400, 800, 1000, 1000 };
+		for (int attempt = 1; attempt <= caps.length; attempt++) {
+			for (int i = 0; i < 200; i++) {
+				int delay = policy.retryDelay(attempt, 503, null);
+				assertTrue(delay >= 0 && delay < caps[attempt - 1], "attempt " + attempt + " waited " + delay);
+			}
+		}
+	}
+
+	@Test
+	void retryAfterSecondsAreHonoured() {
+		RetryPolicy policy = unbudgeted(3, 100, 5000);
+		assertEquals(2000, policy.retryDelay(1, 503, "2"));
+		assertEquals(3000, policy.retryDelay(1, 429, " 3 "));
+		assertEquals(-1, policy.retryDelay(1, 503, "60"), "a longer wait than maxDelay gives up");
+		assertTrue(policy.retryDelay(1, 502, "60") < 100, "only 429 and 503 carry Retry-After");
+	}
+
+	@Test
+	void budgetLimitsRetriesToAFractionOfRequests() {
+		RetryBudget budget = new RetryBudget(0.5, 1, 0);
+		RetryPolicy policy = new RetryPolicy(3, 100, 1000).withBudget(budget);
+		assertEquals(-1, policy.retryDelay(1, 503, null));
+
+		budget.onRequest();
+		budget.onRequest();
+		assertTrue(policy.retryDelay(1, 503, null) >= 0);
+		assertEquals(-1, policy.retryDelay(1, 503, null));
+	}
+
+	/**
+	 * The shared global budget would run out over the repeated calls of these tests
+	 */
+	private static RetryPolicy unbudgeted(int maxAttempts, int initialDelay, int maxDelay) {
+		return new RetryPolicy(maxAttempts, initialDelay, maxDelay).withBudget(new RetryBudget(1, 1, Integer.MAX_VALUE));
+	}
+}
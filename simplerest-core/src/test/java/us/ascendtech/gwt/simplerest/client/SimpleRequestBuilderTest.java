@@ -0,0 +1,57 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SimpleRequestBuilderTest {
+
+	@Test
+	void encodedSpacesBecomePlus() {
+		assertEquals("a+b++c", SimpleRequestBuilder.plusForSpaces("a%20b%20%20c"));
+		assertEquals("+x+", SimpleRequestBuilder.plusForSpaces("%20x%20"));
+		String plain = "caf%C3%A9%2B";
+		assertSame(plain, SimpleRequestBuilder.plusForSpaces(plain), "strings without spaces are not copied");
+	}
+
+	@Test
+	void pathsAreAppendedToTheBase() {
+		assertEquals("http://h/api/items/42/done", new UriRequestBuilder("http://h/api/").path("items", 42).path("done").uri());
+		assertEquals("http://h/api", new UriRequestBuilder("http://h/api").uri());
+	}
+
+	@Test
+	void queryParamsAreFormEncoded() {
+		SimpleRequestBuilder builder = new UriRequestBuilder("http://h/api").path("search").param("q", "to do & done").param("lang", "café");
+
+		assertEquals("?q=to+do+%26+done&lang=caf%C3%A9", builder.query());
+		assertEquals("http://h/api/search?q=to+do+%26+done&lang=caf%C3%A9", builder.uri());
+	}
+
+	@Test
+	void listValuesRepeatTheKey() {
+		SimpleRequestBuilder builder = new UriRequestBuilder("http://h").param("tag", List.of("a b", "c=d")).param("page", 2);
+
+		assertEquals("?tag=a+b&tag=c%3Dd&page=2", builder.query());
+	}
+
+	@Test
+	void nullValuesAreLeftOut() {
+		SimpleRequestBuilder builder = new UriRequestBuilder("http://h/api").param("q", null);
+
+		assertEquals("", builder.query());
+		assertEquals("http://h/api", builder.uri());
+	}
+
+	@Test
+	void pathsMustBeNonEmpty() {
+		SimpleRequestBuilder builder = new UriRequestBuilder("http://h");
+		assertThrows(IllegalArgumentException.class, () -> builder.path(""));
+		assertThrows(NullPointerException.class, () -> builder.path("a", null));
+		assertThrows(NullPointerException.class, () -> builder.param(null, "x"));
+	}
+}
@@ -0,0 +1,24 @@
+package us.ascendtech.gwt.simplerest.client;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds urls on the JVM, encodeURIComponent is a browser call. URLEncoder differs from it only on {@code ! ' ( ) * ~}, which the tests
+ * leave out.
+ */
+class UriRequestBuilder extends SimpleRequestBuilder {
+
+	UriRequestBuilder(String base) {
+		super(base);
+	}
+
+	UriRequestBuilder(String base, RequestTemplate template) {
+		super(base, template);
+	}
+
+	@Override
+	protected String encodeComponent(String str) {
+		return plusForSpaces(URLEncoder.encode(str, StandardCharsets.UTF_8).replace("+", "%20"));
+	}
+}
@@ -0,0 +1,28 @@
+plugins {
+    `java-library`
+}
+
+dependencies {
+    api(project(":simplerest-core"))
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.12.1")
+    // the tests run a Blocking client generated from a test interface
+    testAnnotationProcessor(project(":simplerest-processor"))
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+// virtual threads
+java {
+    sourceCompatibility = JavaVersion.VERSION_21
+    targetCompatibility = JavaVersion.VERSION_21
+}
+
+tasks.compileTestJava {
+    options.compilerArgs.add("-AjvmBlocking")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+description = "simplerest-jvm"
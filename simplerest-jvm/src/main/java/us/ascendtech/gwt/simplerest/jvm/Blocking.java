@@ -0,0 +1,108 @@
+package us.ascendtech.gwt.simplerest.jvm;
+
+import us.ascendtech.gwt.simplerest.client.CompletableCallback;
+import us.ascendtech.gwt.simplerest.client.ErrorCallback;
+import us.ascendtech.gwt.simplerest.client.MultipleCallback;
+import us.ascendtech.gwt.simplerest.client.RequestHandle;
+import us.ascendtech.gwt.simplerest.client.SimpleRestException;
+import us.ascendtech.gwt.simplerest.client.SingleCallback;
+import us.ascendtech.gwt.simplerest.client.SingleStringCallback;
+import us.ascendtech.gwt.simplerest.client.StreamingCallback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Turns a callback call into a blocking one: the calling thread waits for the callback and gets the body back, or a
+ * {@link SimpleRestException} with what the error callback received. Meant for virtual threads, which park while they wait, so plain
+ * sequential code can keep as many calls in flight as it has threads. Interrupting a waiting thread cancels its call.
+ * <pre>
+ * List&lt;ToDoDTO&gt; todos = Blocking.list((onDone, onError) -&gt; todoService.getCurrentToDos(onDone, onError));
+ * </pre>
+ * The generated {@code Blocking} implementations of {@code @SimpleRestGwtSync} interfaces are written on these helpers.
+ */
+public final class Blocking {
+
+	/**
+	 * Starts a call with the given callbacks
+	 */
+	@FunctionalInterface
+	public interface Call<C> {
+
+		RequestHandle start(C onDone, ErrorCallback onError);
+
+	}
+
+	private Blocking() {
+	}
+
+	public static <T> T single(Call<SingleCallback<T>> call) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		return await(result, call.start(result::complete, errors(result)));
+	}
+
+	public static <T> List<T> list(Call<MultipleCallback<T>> call) {
+		CompletableFuture<List<T>> result = new CompletableFuture<>();
+		return await(result, call.start(data -> result.complete(data != null ? Arrays.asList(data) : null), errors(result)));
+	}
+
+	/**
+	 * Waits for the end of the stream and returns all its chunks as one list
+	 */
+	public static <T> List<T> stream(Call<StreamingCallback<T>> call) {
+		CompletableFuture<List<T>> result = new CompletableFuture<>();
+		List<T> elements = Collections.synchronizedList(new ArrayList<>());
+		StreamingCallback<T> onDone = new StreamingCallback<T>() {
+			@Override
+			public void onData(T[] chunk) {
+				elements.addAll(Arrays.asList(chunk));
+			}
+
+			@Override
+			public void onComplete() {
+				result.complete(elements);
+			}
+		};
+		return await(result, call.start(onDone, errors(result)));
+	}
+
+	public static String text(Call<SingleStringCallback> call) {
+		CompletableFuture<String> result = new CompletableFuture<>();
+		return await(result, call.start(result::complete, errors(result)));
+	}
+
+	public static void run(Call<CompletableCallback> call) {
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		await(result, call.start(() -> result.complete(null), errors(result)));
+	}
+
+	private static ErrorCallback errors(CompletableFuture<?> result) {
+		return (statusCode, status, errorBody) -> result.completeExceptionally(new SimpleRestException(statusCode, status, errorBody));
+	}
+
+	private static <T> T await(CompletableFuture<T> result, RequestHandle handle) {
+		try {
+			return result.get();
+		}
+		catch (InterruptedException e) {
+			if (handle != null) {
+				handle.cancel();
+			}
+			Thread.currentThread().interrupt();
+			throw new CancellationException("interrupted while waiting for the call");
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof SimpleRestException failure) {
+				// rethrown with the waiting thread's stack, the callback thread's says nothing about the call site
+				throw new SimpleRestException(failure.status, failure.statusText, failure.body);
+			}
+			throw cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+		}
+	}
+}
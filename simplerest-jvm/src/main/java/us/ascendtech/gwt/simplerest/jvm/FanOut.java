@@ -0,0 +1,106 @@
+package us.ascendtech.gwt.simplerest.jvm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking calls side by side, each on a virtual thread of its own, and returns their results in the order of the calls. The
+ * fan-out is structured: it returns only after every call has finished, and the first call that fails cancels the others, by
+ * interrupting them, and is rethrown.
+ * <pre>
+ * List&lt;ToDoDTO&gt; todos = FanOut.map(ids, 64, id -&gt; todoService.getToDo(id));
+ * </pre>
+ */
+public final class FanOut {
+
+	private FanOut() {
+	}
+
+	@SafeVarargs
+	public static <T> List<T> all(Supplier<? extends T>... calls) {
+		return all(Arrays.asList(calls));
+	}
+
+	public static <T> List<T> all(List<? extends Supplier<? extends T>> calls) {
+		return run(calls, 0);
+	}
+
+	/**
+	 * One call per input, all in flight at once
+	 */
+	public static <A, T> List<T> map(Collection<? extends A> inputs, Function<? super A, ? extends T> call) {
+		return map(inputs, 0, call);
+	}
+
+	/**
+	 * One call per input, at most parallelism of them in flight at once, 0 for no limit
+	 */
+	public static <A, T> List<T> map(Collection<? extends A> inputs, int parallelism, Function<? super A, ? extends T> call) {
+		if (parallelism < 0) {
+			throw new IllegalArgumentException("parallelism must not be negative");
+		}
+		List<Supplier<T>> calls = new ArrayList<>(inputs.size());
+		for (A input : inputs) {
+			calls.add(() -> call.apply(input));
+		}
+		return run(calls, parallelism);
+	}
+
+	private static <T> List<T> run(List<? extends Supplier<? extends T>> calls, int parallelism) {
+		Object[] results = new Object[calls.size()];
+		Semaphore permits = parallelism > 0 ? new Semaphore(parallelism) : null;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+			for (int i = 0; i < calls.size(); i++) {
+				int index = i;
+				Supplier<? extends T> call = calls.get(i);
+				completion.submit(() -> {
+					if (permits != null) {
+						permits.acquire();
+					}
+					try {
+						results[index] = call.get();
+					}
+					finally {
+						if (permits != null) {
+							permits.release();
+						}
+					}
+					return null;
+				});
+			}
+			for (int i = 0; i < calls.size(); i++) {
+				try {
+					completion.take().get();
+				}
+				catch (ExecutionException e) {
+					executor.shutdownNow();
+					Throwable cause = e.getCause();
+					if (cause instanceof Error error) {
+						throw error;
+					}
+					throw cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+				}
+				catch (InterruptedException e) {
+					executor.shutdownNow();
+					Thread.currentThread().interrupt();
+					throw new CancellationException("interrupted while waiting for the fan-out");
+				}
+			}
+		}
+		@SuppressWarnings("unchecked")
+		List<T> list = (List<T>) Arrays.asList(results);
+		return list;
+	}
+}
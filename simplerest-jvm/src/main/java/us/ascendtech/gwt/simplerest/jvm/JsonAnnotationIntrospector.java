@@ -0,0 +1,81 @@
+package us.ascendtech.gwt.simplerest.jvm;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import us.ascendtech.gwt.simplerest.client.Json;
+import us.ascendtech.gwt.simplerest.client.JsonKey;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads {@link Json} and {@link JsonKey} with Jackson, so DTOs map to the same json on the JVM as through their generated codecs in
+ * the browser. Jackson's own annotations still apply.
+ */
+public class JsonAnnotationIntrospector extends JacksonAnnotationIntrospector {
+
+	@Override
+	public PropertyName findNameForSerialization(Annotated a) {
+		JsonKey key = _findAnnotation(a, JsonKey.class);
+		return key != null ? PropertyName.construct(key.value()) : super.findNameForSerialization(a);
+	}
+
+	@Override
+	public PropertyName findNameForDeserialization(Annotated a) {
+		JsonKey key = _findAnnotation(a, JsonKey.class);
+		return key != null ? PropertyName.construct(key.value()) : super.findNameForDeserialization(a);
+	}
+
+	/**
+	 * {@link Json#omitNulls()} applies to the class, {@link Json#omitDefaults()} only to its primitive properties like in the codec:
+	 * NON_DEFAULT on the class would also leave out empty strings, empty collections and boxed zeros
+	 */
+	@Override
+	public JsonInclude.Value findPropertyInclusion(Annotated a) {
+		JsonInclude.Value inclusion = super.findPropertyInclusion(a);
+		if (inclusion.getValueInclusion() != JsonInclude.Include.USE_DEFAULTS) {
+			return inclusion;
+		}
+		if (a instanceof AnnotatedClass) {
+			Json json = _findAnnotation(a, Json.class);
+			return json != null && json.omitNulls() ? inclusion.withValueInclusion(JsonInclude.Include.NON_NULL) : inclusion;
+		}
+		if (a instanceof AnnotatedMember && a.getRawType().isPrimitive()) {
+			Json json = ((AnnotatedMember) a).getDeclaringClass().getAnnotation(Json.class);
+			if (json != null && json.omitDefaults()) {
+				return inclusion.withValueInclusion(JsonInclude.Include.NON_DEFAULT);
+			}
+		}
+		return inclusion;
+	}
+
+	/**
+	 * Fields left out of {@link Json#fields()} are ignored in both directions
+	 */
+	@Override
+	public JsonIgnoreProperties.Value findPropertyIgnoralByName(MapperConfig<?> config, Annotated a) {
+		JsonIgnoreProperties.Value ignoral = super.findPropertyIgnoralByName(config, a);
+		Json json = a instanceof AnnotatedClass ? _findAnnotation(a, Json.class) : null;
+		if (json == null || json.fields().length == 0) {
+			return ignoral;
+		}
+		List<String> included = Arrays.asList(json.fields());
+		Set<String> ignored = new HashSet<>();
+		for (Field field : a.getRawType().getDeclaredFields()) {
+			if (!included.contains(field.getName())) {
+				JsonKey key = field.getAnnotation(JsonKey.class);
+				ignored.add(key != null ? key.value() : field.getName());
+			}
+		}
+		return ignoral.withOverrides(JsonIgnoreProperties.Value.forIgnoredProperties(ignored));
+	}
+}
@@ -0,0 +1,313 @@
+package us.ascendtech.gwt.simplerest.jvm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import elemental2.promise.Promise;
+import us.ascendtech.gwt.simplerest.client.BinaryCallback;
+import us.ascendtech.gwt.simplerest.client.CompletableCallback;
+import us.ascendtech.gwt.simplerest.client.ErrorCallback;
+import us.ascendtech.gwt.simplerest.client.MultipleCallback;
+import us.ascendtech.gwt.simplerest.client.RequestHandle;
+import us.ascendtech.gwt.simplerest.client.RequestTemplate;
+import us.ascendtech.gwt.simplerest.client.ResponseType;
+import us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder;
+import us.ascendtech.gwt.simplerest.client.SimpleResponse;
+import us.ascendtech.gwt.simplerest.client.SimpleRestCallback;
+import us.ascendtech.gwt.simplerest.client.SingleCallback;
+import us.ascendtech.gwt.simplerest.client.SingleStringCallback;
+import us.ascendtech.gwt.simplerest.client.StreamingCallback;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+import static javax.ws.rs.core.MediaType.APPLICATION_FORM_URLENCODED;
+
+/**
+ * A {@link SimpleRequestBuilder} that sends its call with {@link java.net.http.HttpClient} and reads json bodies with Jackson, so the
+ * code generated for the browser runs unchanged on the JVM.
+ */
+class JvmRequestBuilder extends SimpleRequestBuilder {
+
+	private final JvmRuntime runtime;
+
+	JvmRequestBuilder(JvmRuntime runtime, String base) {
+		super(base);
+		this.runtime = runtime;
+	}
+
+	JvmRequestBuilder(JvmRuntime runtime, String base, RequestTemplate template) {
+		super(base, template);
+		this.runtime = runtime;
+	}
+
+	@Override
+	protected String encodeComponent(String str) {
+		return plusForSpaces(encodeURIComponent(str));
+	}
+
+	@Override
+	public String body() {
+		try {
+			return data != null ? runtime.getObjectMapper().writeValueAsString(data) : null;
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("cannot write the body of " + this, e);
+		}
+	}
+
+	@Override
+	public <S, T> RequestHandle execute(SimpleRestCallback<T> callback, ErrorCallback errorCallback) {
+		JvmRequestHandle handle = new JvmRequestHandle();
+		this.handle = handle;
+
+		CompletableFuture<HttpResponse<byte[]>> pending;
+		try {
+			HttpRequest request = httpRequest(callback instanceof SingleStringCallback);
+			pending = runtime.getHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+		}
+		catch (RuntimeException e) {
+			pending = CompletableFuture.failedFuture(e);
+		}
+		CompletableFuture<HttpResponse<byte[]>> exchange = pending;
+		handle.onCancel(() -> exchange.cancel(true));
+
+		// callbacks run as tasks of their own, so one that throws reaches the thread's uncaught exception handler
+		exchange.whenComplete((response, error) -> runtime.getCallbackExecutor().execute(() -> {
+			if (!handle.finish()) {
+				return;
+			}
+			if (error != null) {
+				failed(errorCallback, error);
+			}
+			else {
+				respond(callback, errorCallback, response);
+			}
+		}));
+		return handle;
+	}
+
+	/**
+	 * Promise clients resolve with browser values, run callback or sync clients on the JVM
+	 */
+	@Override
+	public <T> Promise<T> promise(boolean textResponse, ResponseType responseType) {
+		throw new UnsupportedOperationException("promise clients need a browser, " + this);
+	}
+
+	@Override
+	public Promise<SimpleResponse> exchange(boolean textResponse, ResponseType responseType) {
+		throw new UnsupportedOperationException("exchanges need a browser, " + this);
+	}
+
+	/**
+	 * Prefetching hands browser responses to later calls, on the JVM it does nothing
+	 */
+	@Override
+	public Promise<SimpleResponse> prefetch(boolean textResponse, ResponseType responseType) {
+		return null;
+	}
+
+	HttpRequest httpRequest(boolean textResponse) {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(encodeUnsafe(uri())));
+		for (Param h : headers(textResponse)) {
+			request.header(h.k, Objects.toString(h.v));
+		}
+		if (tracePropagator != null && !hasHeader(TRACEPARENT)) {
+			String traceparent = tracePropagator.traceparent();
+			if (traceparent != null) {
+				request.header(TRACEPARENT, traceparent);
+				String tracestate = tracePropagator.tracestate();
+				if (tracestate != null && !hasHeader(TRACESTATE)) {
+					request.header(TRACESTATE, tracestate);
+				}
+			}
+		}
+		if (timeout > 0) {
+			request.timeout(Duration.ofMillis(timeout));
+		}
+
+		if (!formParams.isEmpty()) {
+			request.header(CONTENT_TYPE, APPLICATION_FORM_URLENCODED);
+			return request.method(method, HttpRequest.BodyPublishers.ofString(encodeParams(formParams))).build();
+		}
+		if (data != null) {
+			return request.method(method, HttpRequest.BodyPublishers.ofString(body(), StandardCharsets.UTF_8)).build();
+		}
+		return request.method(method, HttpRequest.BodyPublishers.noBody()).build();
+	}
+
+	private <T> void respond(SimpleRestCallback<T> callback, ErrorCallback errorCallback, HttpResponse<byte[]> response) {
+		int status = response.statusCode();
+		byte[] body = response.body();
+		if (status < 200 || status >= 300) {
+			// HTTP/2 has no reason phrase, browsers report an empty status text as well
+			errorCallback.onError(status, "", new String(body, StandardCharsets.UTF_8));
+			return;
+		}
+
+		// a body that cannot be read fails the call, while a callback that throws is left to the uncaught exception handler
+		Runnable delivery;
+		try {
+			delivery = delivery(callback, errorCallback, response, body);
+		}
+		catch (IOException | RuntimeException e) {
+			errorCallback.onError(-1, e.getClass().getSimpleName(), String.valueOf(e.getMessage()));
+			return;
+		}
+		delivery.run();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> Runnable delivery(SimpleRestCallback<T> callback, ErrorCallback errorCallback, HttpResponse<byte[]> response, byte[] body)
+			throws IOException {
+		if (callback instanceof SingleStringCallback) {
+			String text = new String(body, StandardCharsets.UTF_8);
+			return () -> ((SingleStringCallback) callback).onData(text);
+		}
+		if (callback instanceof SingleCallback) {
+			T value = read(body, elementType());
+			return () -> ((SingleCallback<T>) callback).onData(value);
+		}
+		if (callback instanceof MultipleCallback) {
+			T[] values = read(body, arrayType());
+			return () -> ((MultipleCallback<T>) callback).onData(values);
+		}
+		if (callback instanceof StreamingCallback) {
+			StreamingCallback<T> streaming = (StreamingCallback<T>) callback;
+			T[] chunk = readStream(response, body);
+			return () -> {
+				streaming.onData(chunk);
+				streaming.onComplete();
+			};
+		}
+		if (callback instanceof CompletableCallback) {
+			return ((CompletableCallback) callback)::onDone;
+		}
+		if (callback instanceof BinaryCallback) {
+			return () -> errorCallback.onError(-1, "UnsupportedOperationException", "ArrayBuffer bodies need a browser, " + this);
+		}
+		throw new UnsupportedOperationException("Second to last parameter must be a callback of type SingleStringCallback, SingleCallback, "
+				+ "MultipleCallback, StreamingCallback or CompletableCallback");
+	}
+
+	/**
+	 * The whole body as one chunk, from newline delimited json or a json array
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T[] readStream(HttpResponse<byte[]> response, byte[] body) throws IOException {
+		String contentType = response.headers().firstValue(CONTENT_TYPE).orElse("");
+		JavaType elementType = elementType();
+		if (!contentType.startsWith(APPLICATION_NDJSON)) {
+			T[] elements = read(body, runtime.getObjectMapper().getTypeFactory().constructArrayType(elementType));
+			return elements != null ? elements : (T[]) Array.newInstance(elementType.getRawClass(), 0);
+		}
+		List<Object> elements = new ArrayList<>();
+		for (String line : new String(body, StandardCharsets.UTF_8).split("\n")) {
+			if (!line.isBlank()) {
+				elements.add(runtime.getObjectMapper().readValue(line, elementType));
+			}
+		}
+		return elements.toArray((T[]) Array.newInstance(elementType.getRawClass(), elements.size()));
+	}
+
+	/**
+	 * Null for an empty body, where the browser would fail to parse
+	 */
+	private <T> T read(byte[] body, JavaType type) throws IOException {
+		return body.length == 0 ? null : runtime.getObjectMapper().readValue(body, type);
+	}
+
+	private JavaType elementType() {
+		return runtime.bodyType(template);
+	}
+
+	private JavaType arrayType() {
+		return runtime.getObjectMapper().getTypeFactory().constructArrayType(elementType());
+	}
+
+	private void failed(ErrorCallback errorCallback, Throwable error) {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		if (cause instanceof CancellationException) {
+			return;
+		}
+		if (cause instanceof HttpTimeoutException) {
+			errorCallback.onError(-1, "TimeoutError", "request did not complete within " + timeout + "ms");
+			return;
+		}
+		errorCallback.onError(-1, cause.getClass().getSimpleName(), String.valueOf(cause.getMessage()));
+	}
+
+	/**
+	 * Percent encodes what the browser's URL parser encodes before fetching, such as spaces and non-ASCII characters in path params,
+	 * which {@link URI} rejects
+	 */
+	static String encodeUnsafe(String uri) {
+		StringBuilder out = new StringBuilder(uri.length() + 16);
+		uri.codePoints().forEach(c -> {
+			if (c > 32 && c < 127 && "\"<>\\^`{|}".indexOf(c) < 0) {
+				out.append((char) c);
+				return;
+			}
+			for (byte b : new String(Character.toChars(c)).getBytes(StandardCharsets.UTF_8)) {
+				out.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+						.append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+			}
+		});
+		return out.toString();
+	}
+
+	/**
+	 * Same output as the browser's encodeURIComponent, which leaves ! ' ( ) ~ alone and encodes spaces as %20
+	 */
+	static String encodeURIComponent(String str) {
+		String encoded = URLEncoder.encode(str, StandardCharsets.UTF_8);
+		StringBuilder out = new StringBuilder(encoded.length() + 8);
+		for (int i = 0; i < encoded.length(); i++) {
+			char c = encoded.charAt(i);
+			if (c == '+') {
+				out.append("%20");
+			}
+			else if (c == '%' && i + 2 < encoded.length()) {
+				String hex = encoded.substring(i + 1, i + 3);
+				switch (hex) {
+					case "21":
+						out.append('!');
+						break;
+					case "27":
+						out.append('\'');
+						break;
+					case "28":
+						out.append('(');
+						break;
+					case "29":
+						out.append(')');
+						break;
+					case "7E":
+						out.append('~');
+						break;
+					default:
+						out.append(c).append(hex);
+				}
+				i += 2;
+			}
+			else {
+				out.append(c);
+			}
+		}
+		return out.toString();
+	}
+}
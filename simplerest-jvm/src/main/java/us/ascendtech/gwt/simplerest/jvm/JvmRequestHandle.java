@@ -0,0 +1,17 @@
+package us.ascendtech.gwt.simplerest.jvm;
+
+import us.ascendtech.gwt.simplerest.client.RequestHandle;
+
+/**
+ * A handle whose cancel aborts the {@link java.net.http.HttpClient} exchange instead of a fetch
+ */
+class JvmRequestHandle extends RequestHandle {
+
+	boolean finish() {
+		return complete();
+	}
+
+	void onCancel(Runnable listener) {
+		onAbort(listener);
+	}
+}
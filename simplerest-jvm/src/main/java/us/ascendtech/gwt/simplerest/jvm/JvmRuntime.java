@@ -0,0 +1,115 @@
+package us.ascendtech.gwt.simplerest.jvm;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import us.ascendtech.gwt.simplerest.client.RequestTemplate;
+import us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder;
+import us.ascendtech.gwt.simplerest.client.SimpleRestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs generated callback and sync clients on the JVM. Every client attached to a runtime sends its calls through the runtime's
+ * {@link HttpClient}, so they share one connection pool and multiplex over HTTP/2 where the server supports it. Bodies are read as
+ * json with Jackson and callbacks run on virtual threads, so thousands of calls can be in flight without a platform thread each.
+ * <pre>
+ * JvmRuntime runtime = new JvmRuntime();
+ * ToDoServiceClient todoService = runtime.attach(new ToDoServiceClientSimpleRest("https://todo.internal"));
+ * </pre>
+ * Promise clients need a browser. Of the client settings, timeouts and the trace propagator apply, caching, coalescing, batching,
+ * retries, scheduling, compression, transports and observers are browser features and are ignored.
+ */
+public class JvmRuntime implements AutoCloseable {
+
+	private final HttpClient httpClient;
+	private final ObjectMapper objectMapper;
+	private final ExecutorService callbackExecutor;
+	private final boolean owned;
+	private final Map<String, JavaType> bodyTypes = new ConcurrentHashMap<>();
+
+	/**
+	 * A runtime with its own HTTP/2 client and virtual thread executor, closed with the runtime
+	 */
+	public JvmRuntime() {
+		this(Executors.newVirtualThreadPerTaskExecutor());
+	}
+
+	private JvmRuntime(ExecutorService callbackExecutor) {
+		this(HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).followRedirects(HttpClient.Redirect.NORMAL)
+				.connectTimeout(Duration.ofSeconds(10)).executor(callbackExecutor).build(), objectMapper(), callbackExecutor, true);
+	}
+
+	/**
+	 * A runtime on an existing client, mapper and executor, which the caller keeps ownership of
+	 */
+	public JvmRuntime(HttpClient httpClient, ObjectMapper objectMapper, ExecutorService callbackExecutor) {
+		this(httpClient, objectMapper, callbackExecutor, false);
+	}
+
+	private JvmRuntime(HttpClient httpClient, ObjectMapper objectMapper, ExecutorService callbackExecutor, boolean owned) {
+		this.httpClient = Objects.requireNonNull(httpClient, "http client required");
+		this.objectMapper = Objects.requireNonNull(objectMapper, "object mapper required");
+		this.callbackExecutor = Objects.requireNonNull(callbackExecutor, "callback executor required");
+		this.owned = owned;
+	}
+
+	/**
+	 * A mapper that reads DTOs the way the browser does: unknown properties are ignored and {@code @Json}/{@code @JsonKey} are honoured
+	 */
+	public static ObjectMapper objectMapper() {
+		return new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+				.setAnnotationIntrospector(new JsonAnnotationIntrospector());
+	}
+
+	/**
+	 * Makes every call of the client go through this runtime
+	 */
+	public <T extends SimpleRestClient> T attach(T client) {
+		client.setRequestBuilderFactory(this::builder);
+		return client;
+	}
+
+	SimpleRequestBuilder builder(SimpleRestClient client, String basePath, RequestTemplate template) {
+		return template != null ? new JvmRequestBuilder(this, basePath, template) : new JvmRequestBuilder(this, basePath);
+	}
+
+	public HttpClient getHttpClient() {
+		return httpClient;
+	}
+
+	public ObjectMapper getObjectMapper() {
+		return objectMapper;
+	}
+
+	public ExecutorService getCallbackExecutor() {
+		return callbackExecutor;
+	}
+
+	/**
+	 * What json bodies of the template's calls are read into, the type the generator named for the method or plain maps and lists
+	 */
+	JavaType bodyType(RequestTemplate template) {
+		if (template == null || template.bodyType == null) {
+			return objectMapper.constructType(Object.class);
+		}
+		return bodyTypes.computeIfAbsent(template.bodyType, objectMapper.getTypeFactory()::constructFromCanonical);
+	}
+
+	/**
+	 * Closes the http client and executor when the runtime created them, waiting for callbacks that are running
+	 */
+	@Override
+	public void close() {
+		if (owned) {
+			httpClient.close();
+			callbackExecutor.close();
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package us.ascendtech.gwt.simplerest.jvm;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import us.ascendtech.gwt.simplerest.client.RequestHandle;
+import us.ascendtech.gwt.simplerest.client.SimpleRestException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the generated ItemServiceBlocking against a stub server. Requests to /items/slow are held until the test releases them, so
+ * a call that returns early can only have been cancelled.
+ */
+class BlockingTest {
+
+	private static ExecutorService serverExecutor;
+	private static HttpServer server;
+	private static JvmRuntime runtime;
+	private static ItemServiceBlocking items;
+
+	private static volatile CountDownLatch slowStarted;
+	private static volatile CountDownLatch slowReleased;
+
+	@BeforeAll
+	static void start() throws IOException {
+		serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.setExecutor(serverExecutor);
+		server.createContext("/items", BlockingTest::handle);
+		server.start();
+		runtime = new JvmRuntime();
+		items = new ItemServiceBlocking(runtime, "http://localhost:" + server.getAddress().getPort());
+	}
+
+	@AfterAll
+	static void stop() {
+		runtime.close();
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	@BeforeEach
+	void holdSlowRequests() {
+		slowStarted = new CountDownLatch(1);
+		slowReleased = new CountDownLatch(1);
+	}
+
+	@AfterEach
+	void releaseSlowRequests() {
+		slowReleased.countDown();
+	}
+
+	@Test
+	void returnsDecodedBodies() {
+		List<Item> list = items.getItems();
+		assertEquals(2, list.size());
+		assertEquals(2, list.get(1).getId());
+		assertEquals("two", list.get(1).getName());
+
+		Item item = items.getItem(7);
+		assertEquals(7, item.getId());
+		assertEquals("item 7", item.getName());
+	}
+
+	@Test
+	void errorStatusThrowsSimpleRestException() {
+		SimpleRestException e = assertThrows(SimpleRestException.class, () -> items.getItem(404));
+		assertEquals(404, e.status);
+		assertEquals("no item 404", e.body);
+	}
+
+	@Test
+	void interruptCancelsTheCall() throws InterruptedException {
+		AtomicReference<Throwable> thrown = new AtomicReference<>();
+		AtomicBoolean interrupted = new AtomicBoolean();
+		Thread caller = Thread.ofVirtual().start(() -> {
+			try {
+				items.getSlowItem(1);
+			}
+			catch (Throwable t) {
+				thrown.set(t);
+				interrupted.set(Thread.currentThread().isInterrupted());
+			}
+		});
+		assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+
+		caller.interrupt();
+		caller.join(5000);
+		assertFalse(caller.isAlive());
+		assertInstanceOf(CancellationException.class, thrown.get());
+		assertTrue(interrupted.get(), "the caller's interrupt status is kept");
+	}
+
+	@Test
+	void cancelledCallDoesNotCallBack() throws InterruptedException {
+		AtomicInteger callbacks = new AtomicInteger();
+		RequestHandle handle = items.getClient().getSlowItem(1, item -> callbacks.incrementAndGet(),
+				(statusCode, status, errorBody) -> callbacks.incrementAndGet());
+		assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+
+		handle.cancel();
+		slowReleased.countDown();
+		// a later call on the same runtime completes after the cancelled one would have
+		assertEquals(7, items.getItem(7).getId());
+		assertTrue(handle.isCancelled());
+		assertEquals(0, callbacks.get());
+	}
+
+	@Test
+	void fanOutFailureCancelsTheOtherCalls() {
+		slowStarted = new CountDownLatch(2);
+		SimpleRestException e = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(SimpleRestException.class,
+				() -> FanOut.all(() -> items.getSlowItem(1), () -> items.getSlowItem(2), () -> {
+					awaitSlowRequests();
+					return items.getItem(404);
+				})));
+		assertEquals(404, e.status);
+	}
+
+	private static void awaitSlowRequests() {
+		try {
+			assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		int status = 200;
+		String body;
+		if (path.equals("/items/list")) {
+			body = "[{\"id\":1,\"name\":\"one\"},{\"id\":2,\"name\":\"two\"}]";
+		}
+		else {
+			int id = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+			if (path.startsWith("/items/slow/")) {
+				slowStarted.countDown();
+				try {
+					slowReleased.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (id == 404) {
+				status = 404;
+				body = "no item 404";
+			}
+			else {
+				body = "{\"id\":" + id + ",\"name\":\"item " + id + "\"}";
+			}
+		}
+
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", status == 200 ? "application/json" : "text/plain");
+		try (OutputStream out = exchange.getResponseBody()) {
+			exchange.sendResponseHeaders(status, bytes.length);
+			out.write(bytes);
+		}
+		catch (IOException e) {
+			// the client cancelled the call
+		}
+	}
+}
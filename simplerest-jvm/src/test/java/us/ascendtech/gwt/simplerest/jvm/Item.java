@@ -0,0 +1,23 @@
+package us.ascendtech.gwt.simplerest.jvm;
+
+public class Item {
+
+	private Integer id;
+	private String name;
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+}
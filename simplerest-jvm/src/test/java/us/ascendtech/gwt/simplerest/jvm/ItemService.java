@@ -0,0 +1,32 @@
+package us.ascendtech.gwt.simplerest.jvm;
+
+import us.ascendtech.gwt.simplerest.client.SimpleRestGwtSync;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import java.util.List;
+
+/**
+ * Compiled with the jvmBlocking processor option, so the tests run the generated ItemServiceBlocking
+ */
+@SimpleRestGwtSync
+@Path("/items")
+public interface ItemService {
+
+	@GET
+	@Path("/list")
+	List<Item> getItems();
+
+	@GET
+	@Path("/get/{id}")
+	Item getItem(@PathParam("id") Integer id);
+
+	/**
+	 * Answered once the test releases it
+	 */
+	@GET
+	@Path("/slow/{id}")
+	Item getSlowItem(@PathParam("id") Integer id);
+
+}
@@ -0,0 +1,79 @@
+package us.ascendtech.gwt.simplerest.jvm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import us.ascendtech.gwt.simplerest.client.Json;
+import us.ascendtech.gwt.simplerest.client.JsonKey;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that Jackson writes {@link Json} types the way their generated codecs do
+ */
+class JsonAnnotationIntrospectorTest {
+
+	private final ObjectMapper mapper = JvmRuntime.objectMapper();
+
+	@Json(omitDefaults = true)
+	public static class Defaults {
+		public int count;
+		public boolean done;
+		public double weight;
+		public Integer boxed = 0;
+		public String name = "";
+		public List<String> tags = new ArrayList<>();
+		public String missing;
+	}
+
+	@Json(omitDefaults = true, omitNulls = true)
+	public static class DefaultsAndNulls {
+		public int count;
+		public String name = "";
+		public String missing;
+	}
+
+	@Json(fields = { "id", "title" })
+	public static class Renamed {
+		@JsonKey("_id")
+		public int id = 1;
+		public String title = "a";
+		public String secret = "b";
+	}
+
+	@Test
+	void omitDefaultsOnlyLeavesOutPrimitiveDefaults() throws JsonProcessingException {
+		assertJson("{\"boxed\":0,\"name\":\"\",\"tags\":[],\"missing\":null}", new Defaults());
+
+		Defaults set = new Defaults();
+		set.count = 2;
+		set.done = true;
+		set.weight = 0.5;
+		assertJson("{\"count\":2,\"done\":true,\"weight\":0.5,\"boxed\":0,\"name\":\"\",\"tags\":[],\"missing\":null}", set);
+	}
+
+	@Test
+	void omitNullsLeavesOutNullsOnly() throws JsonProcessingException {
+		assertJson("{\"name\":\"\"}", new DefaultsAndNulls());
+	}
+
+	@Test
+	void keysAndFieldsApplyBothWays() throws JsonProcessingException {
+		assertJson("{\"_id\":1,\"title\":\"a\"}", new Renamed());
+
+		Renamed read = mapper.readValue("{\"_id\":7,\"title\":\"x\",\"secret\":\"y\"}", Renamed.class);
+		assertEquals(7, read.id);
+		assertEquals("x", read.title);
+		assertEquals("b", read.secret);
+	}
+
+	/**
+	 * Compares as trees, Jackson does not keep the declaration order of renamed properties
+	 */
+	private void assertJson(String expected, Object value) throws JsonProcessingException {
+		assertEquals(mapper.readTree(expected), mapper.readTree(mapper.writeValueAsString(value)));
+	}
+}
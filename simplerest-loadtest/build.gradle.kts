@@ -0,0 +1,30 @@
+plugins {
+    application
+}
+
+dependencies {
+    implementation(project(":simplerest-jvm"))
+    // the sample scenario drives the ToDo clients generated there
+    implementation(project(":simplerest-processor-test"))
+    implementation("javax.ws.rs:jsr311-api:1.1.1")
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.12.1")
+    implementation("org.hdrhistogram:HdrHistogram:2.1.12")
+}
+
+// virtual threads
+java {
+    sourceCompatibility = JavaVersion.VERSION_21
+    targetCompatibility = JavaVersion.VERSION_21
+}
+
+application {
+    // e.g. ./gradlew :simplerest-loadtest:run --args="--concurrency=128 --seconds=30"
+    mainClass.set("us.ascendtech.gwt.simplerest.loadtest.LoadTestMain")
+}
+
+// load tests are run from source, never published
+tasks.withType<AbstractPublishToMaven> {
+    enabled = false
+}
+
+description = "simplerest-loadtest"
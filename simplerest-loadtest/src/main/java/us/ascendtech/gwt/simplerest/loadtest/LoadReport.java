@@ -0,0 +1,78 @@
+package us.ascendtech.gwt.simplerest.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of a {@link LoadTest} run: the latency histogram of the successful calls in microseconds, errors by status and throughput
+ * over the recorded duration.
+ */
+public class LoadReport {
+
+	public final String name;
+	public final Histogram histogram;
+	public final Duration duration;
+	private final Map<Integer, Long> errors;
+
+	LoadReport(String name, Histogram histogram, Map<Integer, LongAdder> errors, Duration duration) {
+		this.name = name;
+		this.histogram = histogram;
+		this.duration = duration;
+		Map<Integer, Long> counts = new TreeMap<>();
+		errors.forEach((status, count) -> counts.put(status, count.sum()));
+		this.errors = Collections.unmodifiableMap(counts);
+	}
+
+	/**
+	 * Successful calls
+	 */
+	public long getCalls() {
+		return histogram.getTotalCount();
+	}
+
+	/**
+	 * Failed calls by status, -1 for calls that failed without a response
+	 */
+	public Map<Integer, Long> getErrors() {
+		return errors;
+	}
+
+	public long getErrorCount() {
+		return errors.values().stream().mapToLong(Long::longValue).sum();
+	}
+
+	/**
+	 * Successful calls per second
+	 */
+	public double getThroughput() {
+		return getCalls() / (duration.toNanos() / 1e9);
+	}
+
+	/**
+	 * Latency in milliseconds at the percentile, such as 99.9
+	 */
+	public double getLatency(double percentile) {
+		return histogram.getValueAtPercentile(percentile) / 1000.0;
+	}
+
+	/**
+	 * Prints the summary line followed by the percentile distribution in milliseconds, in HdrHistogram's format
+	 */
+	public void print(PrintStream out) {
+		out.println(this);
+		histogram.outputPercentileDistribution(out, 1000.0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d calls, %.1f/s, %d errors %s, p50 %.2fms p95 %.2fms p99 %.2fms p999 %.2fms max %.2fms", name, getCalls(),
+				getThroughput(), getErrorCount(), errors, getLatency(50), getLatency(95), getLatency(99), getLatency(99.9),
+				histogram.getMaxValue() / 1000.0);
+	}
+}
@@ -0,0 +1,148 @@
+package us.ascendtech.gwt.simplerest.loadtest;
+
+import org.HdrHistogram.Recorder;
+import us.ascendtech.gwt.simplerest.client.SimpleRestException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a blocking call, such as a method of a generated {@code Blocking} client, and records its latency in microseconds. Two
+ * concurrency models are supported:
+ * <ul>
+ * <li>closed: a fixed number of virtual threads each issue the next call as soon as the last one returns, like users of a page</li>
+ * <li>open: calls arrive at a fixed rate no matter how long earlier ones take, each on a virtual thread of its own. Latency is measured
+ * from the time the call was due, so a stalled client shows up in the percentiles instead of lowering the rate.</li>
+ * </ul>
+ * <pre>
+ * LoadReport report = LoadTest.closed(64).warmup(Duration.ofSeconds(5)).duration(Duration.ofSeconds(30))
+ *     .run("list", i -&gt; todoService.getCurrentToDos());
+ * </pre>
+ * Calls that throw are counted as errors by status, -1 for anything but a {@link SimpleRestException}, and left out of the latency.
+ */
+public class LoadTest {
+
+	/**
+	 * One call, iteration counts from 0 across all threads
+	 */
+	@FunctionalInterface
+	public interface Call {
+
+		void call(long iteration) throws Exception;
+
+	}
+
+	private final int concurrency;
+	private final double rate;
+	private Duration warmup = Duration.ZERO;
+	private Duration duration = Duration.ofSeconds(10);
+
+	private LoadTest(int concurrency, double rate) {
+		this.concurrency = concurrency;
+		this.rate = rate;
+	}
+
+	/**
+	 * Closed model with this many calls in flight at all times
+	 */
+	public static LoadTest closed(int concurrency) {
+		if (concurrency < 1) {
+			throw new IllegalArgumentException("concurrency must be positive");
+		}
+		return new LoadTest(concurrency, 0);
+	}
+
+	/**
+	 * Open model with this many calls started per second
+	 */
+	public static LoadTest open(double callsPerSecond) {
+		if (callsPerSecond <= 0) {
+			throw new IllegalArgumentException("rate must be positive");
+		}
+		return new LoadTest(0, callsPerSecond);
+	}
+
+	/**
+	 * Time spent calling before anything is recorded, lets connections and caches warm up
+	 */
+	public LoadTest warmup(Duration warmup) {
+		this.warmup = warmup;
+		return this;
+	}
+
+	public LoadTest duration(Duration duration) {
+		this.duration = duration;
+		return this;
+	}
+
+	public LoadReport run(String name, Call call) throws InterruptedException {
+		Recorder recorder = new Recorder(3);
+		Map<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+		AtomicLong iterations = new AtomicLong();
+		long start = System.nanoTime();
+		long recordFrom = start + warmup.toNanos();
+		long end = recordFrom + duration.toNanos();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			if (rate > 0) {
+				long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+				for (long due = start; due < end; due += interval) {
+					long wait = due - System.nanoTime();
+					if (wait > 0) {
+						LockSupport.parkNanos(wait);
+					}
+					long scheduled = due;
+					executor.execute(() -> measure(call, iterations.getAndIncrement(), scheduled, recordFrom, recorder, errors));
+				}
+			}
+			else {
+				for (int i = 0; i < concurrency; i++) {
+					executor.execute(() -> {
+						while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+							measure(call, iterations.getAndIncrement(), System.nanoTime(), recordFrom, recorder, errors);
+						}
+					});
+				}
+			}
+			// the executor waits for calls that are still in flight, they count if they started in time
+			executor.shutdown();
+			if (!executor.awaitTermination(duration.toMillis() + warmup.toMillis() + 60000, TimeUnit.MILLISECONDS)) {
+				executor.shutdownNow();
+			}
+		}
+		return new LoadReport(name, recorder.getIntervalHistogram(), errors, duration);
+	}
+
+	private static void measure(Call call, long iteration, long scheduled, long recordFrom, Recorder recorder, Map<Integer, LongAdder> errors) {
+		int status = 0;
+		try {
+			call.call(iteration);
+		}
+		catch (SimpleRestException e) {
+			status = e.status;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		catch (Exception e) {
+			status = -1;
+		}
+		if (scheduled < recordFrom) {
+			return;
+		}
+		if (status != 0) {
+			errors.computeIfAbsent(status, key -> new LongAdder()).increment();
+		}
+		else {
+			recorder.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled)));
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package us.ascendtech.gwt.simplerest.loadtest;
+
+import us.ascendtech.gwt.simplerest.jvm.Blocking;
+import us.ascendtech.gwt.simplerest.jvm.JvmRuntime;
+import us.ascendtech.gwt.simplerest.processor.ToDoDTO;
+import us.ascendtech.gwt.simplerest.processor.ToDoServiceClientSync;
+import us.ascendtech.gwt.simplerest.processor.ToDoServiceClientSyncSimpleRest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load tests the generated ToDo sync client against a {@link StubServer}. Options, all optional:
+ * <pre>
+ * --concurrency=64 --rate=500 --seconds=20 --warmup=5 --latency=20 --jitter=5 --errors=0.0 --payload=4096
+ * --serve --port=8080   only runs the stub server, for pointing a browser client at it
+ * </pre>
+ * The request counts printed at the end are what reached the server, compared with the calls made they show what client side
+ * caching, coalescing and retries saved or added.
+ */
+public class LoadTestMain {
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--")) {
+				throw new IllegalArgumentException("unknown argument " + arg);
+			}
+			int eq = arg.indexOf('=');
+			options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "" : arg.substring(eq + 1));
+		}
+		int latency = Integer.parseInt(options.getOrDefault("latency", "20"));
+		StubServer server = new StubServer().service(ToDoServiceClientSync.class)
+				.latency(latency, Integer.parseInt(options.getOrDefault("jitter", String.valueOf(latency / 4))))
+				.errorRate(Double.parseDouble(options.getOrDefault("errors", "0")))
+				.payloadBytes(Integer.parseInt(options.getOrDefault("payload", "4096")))
+				.start(Integer.parseInt(options.getOrDefault("port", options.containsKey("serve") ? "8080" : "0")));
+
+		if (options.containsKey("serve")) {
+			System.out.println("stub server listening on " + server.getBaseUrl() + ", stop with ctrl-c");
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				server.close();
+				System.out.println("requests: " + server.getRequests());
+			}));
+			Thread.currentThread().join();
+			return;
+		}
+
+		int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+		double rate = Double.parseDouble(options.getOrDefault("rate", "500"));
+		Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "20")));
+		Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5")));
+
+		try (server; JvmRuntime runtime = new JvmRuntime()) {
+			ToDoServiceClientSyncSimpleRest todoService = runtime.attach(new ToDoServiceClientSyncSimpleRest(server.getBaseUrl()));
+
+			LoadReport list = LoadTest.closed(concurrency).warmup(warmup).duration(duration).run("getCurrentToDos closed x" + concurrency,
+					i -> Blocking.<ToDoDTO>list(todoService::getCurrentToDos));
+			print(list, server, "ToDoServiceClientSync.getCurrentToDos");
+
+			LoadReport search = LoadTest.open(rate).warmup(warmup).duration(duration).run("searchToDos open " + rate + "/s",
+					i -> Blocking.<ToDoDTO>list((onDone, onError) -> todoService.searchToDos("query " + i % 100, onDone, onError)));
+			print(search, server, "ToDoServiceClientSync.searchToDos");
+
+			LoadReport add = LoadTest.closed(concurrency).warmup(warmup).duration(duration).run("addToDo closed x" + concurrency, i -> {
+				ToDoDTO toDo = new ToDoDTO();
+				toDo.setTodo("load test " + i);
+				Blocking.<ToDoDTO>single((onDone, onError) -> todoService.addToDo(toDo, onDone, onError));
+			});
+			print(add, server, "ToDoServiceClientSync.addToDo");
+		}
+	}
+
+	private static void print(LoadReport report, StubServer server, String endpoint) {
+		report.print(System.out);
+		// warmup calls reach the server too, so the counts include them
+		System.out.println(endpoint + ": " + server.getRequests(endpoint) + " requests served for " + report.getCalls() + " recorded calls, "
+				+ report.getErrorCount() + " failed");
+		System.out.println();
+		server.resetRequests();
+	}
+}
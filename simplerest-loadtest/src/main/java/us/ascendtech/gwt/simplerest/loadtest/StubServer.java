@@ -0,0 +1,414 @@
+package us.ascendtech.gwt.simplerest.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import elemental2.promise.Promise;
+import us.ascendtech.gwt.simplerest.client.CompletableCallback;
+import us.ascendtech.gwt.simplerest.client.MultipleCallback;
+import us.ascendtech.gwt.simplerest.client.RequestHandle;
+import us.ascendtech.gwt.simplerest.client.SingleCallback;
+import us.ascendtech.gwt.simplerest.client.SingleStringCallback;
+import us.ascendtech.gwt.simplerest.client.StreamingCallback;
+import us.ascendtech.gwt.simplerest.jvm.JvmRuntime;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+
+/**
+ * An embedded HTTP server that stands in for the services behind JAX-RS interfaces. Every method of a registered interface is
+ * answered with a sample of the type its callback, return value or promise declares, built from the type's no-arg constructor and
+ * repeated for lists and arrays until the payload size is reached. Responses can be held back and fail at a given rate, and requests
+ * are counted per endpoint, so a load test can compare the calls it made with the requests that reached the server.
+ * <pre>
+ * StubServer server = new StubServer().service(ToDoServiceClient.class).latency(20, 5).errorRate(0.01).payloadBytes(8192).start(0);
+ * </pre>
+ * Responses allow any origin, so browser clients can be pointed at the server as well.
+ */
+public class StubServer implements AutoCloseable {
+
+	static {
+		// without it small responses wait for the client's delayed ack, adding about 40ms to every call
+		if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		}
+	}
+
+	private static class Route {
+		private final String endpoint;
+		private final String method;
+		private final String[] segments;
+		private final Type bodyType;
+		private byte[] body;
+		private String contentType;
+
+		private Route(String endpoint, String method, String[] segments, Type bodyType) {
+			this.endpoint = endpoint;
+			this.method = method;
+			this.segments = segments;
+			this.bodyType = bodyType;
+		}
+
+		private boolean matches(String method, String[] path) {
+			if (!this.method.equals(method) || path.length != segments.length) {
+				return false;
+			}
+			for (int i = 0; i < segments.length; i++) {
+				if (!segments[i].startsWith("{") && !segments[i].equals(path[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private final List<Route> routes = new ArrayList<>();
+	private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+	private final Map<String, Object> bodies = new LinkedHashMap<>();
+	private final ObjectMapper objectMapper = JvmRuntime.objectMapper();
+	private int latency = 0;
+	private int jitter = 0;
+	private double errorRate = 0;
+	private int errorStatus = 503;
+	private int payloadBytes = 1024;
+	private HttpServer server;
+	private ExecutorService executor;
+
+	/**
+	 * Answers every method of the JAX-RS interface, generated clients and the interface they implement share the paths
+	 */
+	public StubServer service(Class<?> serviceInterface) {
+		Path servicePath = serviceInterface.getAnnotation(Path.class);
+		if (servicePath == null) {
+			throw new IllegalArgumentException(serviceInterface.getName() + " has no @Path");
+		}
+		for (Method method : serviceInterface.getMethods()) {
+			String httpMethod = httpMethod(method);
+			if (httpMethod == null || Modifier.isStatic(method.getModifiers())) {
+				continue;
+			}
+			Path path = method.getAnnotation(Path.class);
+			String fullPath = servicePath.value() + (path != null ? "/" + path.value() : "");
+			routes.add(new Route(serviceInterface.getSimpleName() + "." + method.getName(), httpMethod, segments(fullPath), bodyType(method)));
+		}
+		return this;
+	}
+
+	/**
+	 * Milliseconds each response is held back, give or take up to jitter
+	 */
+	public StubServer latency(int latency, int jitter) {
+		if (latency < 0 || jitter < 0 || jitter > latency) {
+			throw new IllegalArgumentException("latency and jitter must not be negative and jitter must not exceed latency");
+		}
+		this.latency = latency;
+		this.jitter = jitter;
+		return this;
+	}
+
+	/**
+	 * Share of requests, between 0 and 1, answered with a 503
+	 */
+	public StubServer errorRate(double errorRate) {
+		return errorRate(errorRate, 503);
+	}
+
+	public StubServer errorRate(double errorRate, int errorStatus) {
+		if (errorRate < 0 || errorRate > 1) {
+			throw new IllegalArgumentException("error rate must be between 0 and 1");
+		}
+		this.errorRate = errorRate;
+		this.errorStatus = errorStatus;
+		return this;
+	}
+
+	/**
+	 * Approximate size of list and array bodies, single objects are sent as sampled
+	 */
+	public StubServer payloadBytes(int payloadBytes) {
+		if (payloadBytes < 1) {
+			throw new IllegalArgumentException("payload size must be positive");
+		}
+		this.payloadBytes = payloadBytes;
+		return this;
+	}
+
+	/**
+	 * Answers the endpoint, such as ToDoServiceClient.getCurrentToDos, with this body instead of a sample, a String is sent as text
+	 */
+	public StubServer body(String endpoint, Object body) {
+		bodies.put(endpoint, body);
+		return this;
+	}
+
+	/**
+	 * @param port 0 picks a free port
+	 */
+	public StubServer start(int port) throws IOException {
+		if (server != null) {
+			throw new IllegalStateException("already started");
+		}
+		for (Route route : routes) {
+			render(route);
+		}
+		executor = Executors.newVirtualThreadPerTaskExecutor();
+		server = HttpServer.create(new InetSocketAddress(port), 4096);
+		server.setExecutor(executor);
+		server.createContext("/", this::handle);
+		server.start();
+		return this;
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	public String getBaseUrl() {
+		return "http://localhost:" + getPort();
+	}
+
+	/**
+	 * Requests that reached the endpoint, errors included
+	 */
+	public long getRequests(String endpoint) {
+		LongAdder count = requests.get(endpoint);
+		return count != null ? count.sum() : 0;
+	}
+
+	public Map<String, Long> getRequests() {
+		Map<String, Long> counts = new LinkedHashMap<>();
+		for (Route route : routes) {
+			counts.put(route.endpoint, getRequests(route.endpoint));
+		}
+		return Collections.unmodifiableMap(counts);
+	}
+
+	public void resetRequests() {
+		requests.clear();
+	}
+
+	@Override
+	public void close() {
+		if (server != null) {
+			server.stop(0);
+			executor.close();
+			server = null;
+		}
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (InputStream in = exchange.getRequestBody()) {
+			in.readAllBytes();
+		}
+		exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+		String method = exchange.getRequestMethod();
+		if (method.equals("OPTIONS")) {
+			String requestHeaders = exchange.getRequestHeaders().getFirst("Access-Control-Request-Headers");
+			exchange.getResponseHeaders().set("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, HEAD, OPTIONS");
+			exchange.getResponseHeaders().set("Access-Control-Allow-Headers", requestHeaders != null ? requestHeaders : "*");
+			send(exchange, 204, null, null);
+			return;
+		}
+
+		String[] path = segments(exchange.getRequestURI().getRawPath());
+		Route route = null;
+		for (Route candidate : routes) {
+			if (candidate.matches(method, path)) {
+				route = candidate;
+				break;
+			}
+		}
+		if (route == null) {
+			send(exchange, 404, "no stub for " + method + " " + exchange.getRequestURI().getRawPath(), TEXT_PLAIN);
+			return;
+		}
+		requests.computeIfAbsent(route.endpoint, key -> new LongAdder()).increment();
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int delay = jitter > 0 ? latency - jitter + random.nextInt(2 * jitter + 1) : latency;
+		if (delay > 0) {
+			try {
+				Thread.sleep(delay);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				exchange.close();
+				return;
+			}
+		}
+		if (errorRate > 0 && random.nextDouble() < errorRate) {
+			send(exchange, errorStatus, "stubbed failure", TEXT_PLAIN);
+			return;
+		}
+		send(exchange, route.body != null ? 200 : 204, route.body, route.contentType);
+	}
+
+	private static void send(HttpExchange exchange, int status, Object body, String contentType) throws IOException {
+		byte[] bytes = body instanceof String ? ((String) body).getBytes(StandardCharsets.UTF_8) : (byte[]) body;
+		if (contentType != null) {
+			exchange.getResponseHeaders().set(CONTENT_TYPE, contentType);
+		}
+		exchange.sendResponseHeaders(status, bytes != null ? bytes.length : -1);
+		if (bytes != null) {
+			exchange.getResponseBody().write(bytes);
+		}
+		exchange.close();
+	}
+
+	/**
+	 * Serializes the route's body once, responses only copy the bytes
+	 */
+	private void render(Route route) throws JsonProcessingException {
+		Object body = bodies.containsKey(route.endpoint) ? bodies.get(route.endpoint) : sample(route.bodyType);
+		if (body == null) {
+			return;
+		}
+		if (body instanceof String) {
+			route.body = ((String) body).getBytes(StandardCharsets.UTF_8);
+			route.contentType = TEXT_PLAIN;
+			return;
+		}
+		route.body = objectMapper.writeValueAsBytes(body);
+		route.contentType = APPLICATION_JSON;
+	}
+
+	private Object sample(Type type) throws JsonProcessingException {
+		if (type == null) {
+			return null;
+		}
+		Type elementType = elementType(type);
+		if (elementType == null) {
+			return instance(type);
+		}
+		Object element = instance(elementType);
+		int count = Math.max(1, payloadBytes / Math.max(1, objectMapper.writeValueAsBytes(element).length + 1));
+		return Collections.nCopies(count, element);
+	}
+
+	/**
+	 * The element type of lists and arrays, null for other types
+	 */
+	private static Type elementType(Type type) {
+		if (type instanceof Class<?> && ((Class<?>) type).isArray()) {
+			return ((Class<?>) type).getComponentType();
+		}
+		if (type instanceof GenericArrayType) {
+			return ((GenericArrayType) type).getGenericComponentType();
+		}
+		if (type instanceof ParameterizedType && Collection.class.isAssignableFrom(raw(type))) {
+			return ((ParameterizedType) type).getActualTypeArguments()[0];
+		}
+		return null;
+	}
+
+	private static Object instance(Type type) {
+		Class<?> raw = raw(type);
+		if (raw == String.class) {
+			return "stub";
+		}
+		if (raw == Boolean.class || raw == boolean.class) {
+			return Boolean.TRUE;
+		}
+		if (Number.class.isAssignableFrom(raw) || raw.isPrimitive()) {
+			return 1;
+		}
+		if (raw.isArray()) {
+			return Array.newInstance(raw.getComponentType(), 0);
+		}
+		try {
+			return raw.getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			// interfaces, abstract types and types without a no-arg constructor are sent as an empty object
+			return Collections.emptyMap();
+		}
+	}
+
+	/**
+	 * The body type of a callback, sync or promise method, null for methods without a body
+	 */
+	private static Type bodyType(Method method) {
+		for (Type parameter : method.getGenericParameterTypes()) {
+			Class<?> raw = raw(parameter);
+			if (raw == CompletableCallback.class) {
+				return null;
+			}
+			if (raw == SingleStringCallback.class) {
+				return String.class;
+			}
+			if (raw == SingleCallback.class && parameter instanceof ParameterizedType) {
+				return ((ParameterizedType) parameter).getActualTypeArguments()[0];
+			}
+			if ((raw == MultipleCallback.class || raw == StreamingCallback.class) && parameter instanceof ParameterizedType) {
+				Type element = ((ParameterizedType) parameter).getActualTypeArguments()[0];
+				return element instanceof Class<?> ? Array.newInstance((Class<?>) element, 0).getClass() : Object[].class;
+			}
+		}
+		Type returnType = method.getGenericReturnType();
+		if (returnType == void.class || returnType == RequestHandle.class) {
+			return null;
+		}
+		if (raw(returnType) == Promise.class && returnType instanceof ParameterizedType) {
+			Type resolved = ((ParameterizedType) returnType).getActualTypeArguments()[0];
+			return resolved == Void.class ? null : resolved;
+		}
+		return returnType;
+	}
+
+	private static Class<?> raw(Type type) {
+		if (type instanceof Class<?>) {
+			return (Class<?>) type;
+		}
+		if (type instanceof ParameterizedType) {
+			return (Class<?>) ((ParameterizedType) type).getRawType();
+		}
+		return Object.class;
+	}
+
+	private static String httpMethod(Method method) {
+		for (Annotation annotation : method.getAnnotations()) {
+			HttpMethod httpMethod = annotation.annotationType().getAnnotation(HttpMethod.class);
+			if (httpMethod != null) {
+				return httpMethod.value();
+			}
+		}
+		return null;
+	}
+
+	private static String[] segments(String path) {
+		List<String> segments = new ArrayList<>();
+		for (String segment : path.split("/")) {
+			if (!segment.isEmpty()) {
+				segments.add(segment);
+			}
+		}
+		return segments.toArray(new String[0]);
+	}
+}
@@ -2,9 +2,11 @@ package us.ascendtech.gwt.simplerest.processor;
 
 import jsinterop.annotations.JsOverlay;
 import jsinterop.annotations.JsType;
+import us.ascendtech.gwt.simplerest.client.Json;
 
 import static jsinterop.annotations.JsPackage.GLOBAL;
 
+@Json(omitNulls = true)
 @JsType(namespace = GLOBAL, name = "Object", isNative = true)
 public class ToDoDTO {
 
@@ -1,10 +1,18 @@
 package us.ascendtech.gwt.simplerest.processor;
 
+import us.ascendtech.gwt.simplerest.client.Cached;
 import us.ascendtech.gwt.simplerest.client.CompletableCallback;
 import us.ascendtech.gwt.simplerest.client.ErrorCallback;
 import us.ascendtech.gwt.simplerest.client.MultipleCallback;
+import us.ascendtech.gwt.simplerest.client.Priority;
+import us.ascendtech.gwt.simplerest.client.RequestHandle;
+import us.ascendtech.gwt.simplerest.client.RequestPriority;
+import us.ascendtech.gwt.simplerest.client.Retry;
 import us.ascendtech.gwt.simplerest.client.SimpleRestGwt;
 import us.ascendtech.gwt.simplerest.client.SingleCallback;
+import us.ascendtech.gwt.simplerest.client.StaleWhileRevalidate;
+import us.ascendtech.gwt.simplerest.client.StreamingCallback;
+import us.ascendtech.gwt.simplerest.client.Timeout;
 
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -15,14 +23,23 @@ import javax.ws.rs.PathParam;
 
 @SimpleRestGwt
 @Path("/service/todo")
+@Timeout(10000)
 public interface ToDoServiceClient {
 
 	@GET
 	@Path("/list")
+	@Cached(maxAge = 30)
+	@StaleWhileRevalidate
+	@Retry
 	void getCurrentToDos(MultipleCallback<ToDoDTO> callback, ErrorCallback errorCallback);
 
+	@GET
+	@Path("/get/{id}")
+	void getToDo(@PathParam("id") Integer id, SingleCallback<ToDoDTO> callback, ErrorCallback errorCallback);
+
 	@PUT
 	@Path("/add")
+	@Priority(RequestPriority.HIGH)
 	void addToDo(ToDoDTO toDo, SingleCallback<ToDoDTO> callback, ErrorCallback errorCallback);
 
 	@DELETE
@@ -31,7 +48,12 @@ public interface ToDoServiceClient {
 
 	@POST
 	@Path("/search/{query}")
-	void searchToDos(@PathParam("query") String query, MultipleCallback<ToDoDTO> callback, ErrorCallback errorCallback);
+	RequestHandle searchToDos(@PathParam("query") String query, MultipleCallback<ToDoDTO> callback, ErrorCallback errorCallback);
+
+	@GET
+	@Path("/export")
+	@Priority(RequestPriority.LOW)
+	void exportToDos(StreamingCallback<ToDoDTO> callback, ErrorCallback errorCallback);
 
 }
 
@@ -0,0 +1,50 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import elemental2.core.ArrayBuffer;
+import elemental2.promise.Promise;
+import us.ascendtech.gwt.simplerest.client.Cached;
+import us.ascendtech.gwt.simplerest.client.OffloadParsing;
+import us.ascendtech.gwt.simplerest.client.SimpleRestGwtPromise;
+
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+
+import static us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder.APPLICATION_CBOR;
+
+@SimpleRestGwtPromise
+@Path("/service/todo")
+public interface ToDoServiceClientPromise {
+	@GET
+	@Path("/list")
+	@Cached(maxAge = 30)
+	Promise<ToDoDTO[]> getCurrentToDos();
+
+	@PUT
+	@Path("/add")
+	Promise<ToDoDTO> addToDo(ToDoDTO toDo);
+
+	@DELETE
+	@Path("/delete/{id}")
+	Promise<Void> deleteToDo(@PathParam("id") Integer id);
+
+	@POST
+	@Path("/search/{query}")
+	@OffloadParsing(threshold = 1048576)
+	Promise<ToDoDTO[]> searchToDos(@PathParam("query") String query);
+
+	@GET
+	@Path("/list")
+	@Produces(APPLICATION_CBOR)
+	Promise<ToDoDTO[]> getCurrentToDosCbor();
+
+	@GET
+	@Path("/stats")
+	@Produces("application/octet-stream")
+	Promise<ArrayBuffer> getStats();
+
+}
@@ -1,6 +1,10 @@
 package us.ascendtech.gwt.simplerest.processor;
 
+import us.ascendtech.gwt.simplerest.client.Cached;
+import us.ascendtech.gwt.simplerest.client.CompressRequest;
+import us.ascendtech.gwt.simplerest.client.Retry;
 import us.ascendtech.gwt.simplerest.client.SimpleRestGwtSync;
+import us.ascendtech.gwt.simplerest.client.Streaming;
 
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -13,15 +17,22 @@ import java.util.List;
 
 @SimpleRestGwtSync
 @Path("/service/todo")
+@Retry(maxAttempts = 4, maxDelay = 2000)
 public interface ToDoServiceClientSync {
 	@GET
 	@Path("/list")
+	@Cached(maxAge = 30)
 	List<ToDoDTO> getCurrentToDos();
 
 	@PUT
 	@Path("/add")
 	ToDoDTO addToDo(ToDoDTO toDo);
 
+	@POST
+	@Path("/import")
+	@CompressRequest
+	void importToDos(ToDoDTO[] toDos);
+
 	@DELETE
 	@Path("/delete/{id}")
 	void deleteToDo(@PathParam("id") Integer id);
@@ -30,4 +41,9 @@ public interface ToDoServiceClientSync {
 	@Path("/search/{query}")
 	Collection<ToDoDTO> searchToDos(@PathParam("query") String query);
 
+	@GET
+	@Path("/export")
+	@Streaming
+	List<ToDoDTO> exportToDos();
+
 }
@@ -0,0 +1,114 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import us.ascendtech.gwt.simplerest.client.BinaryCallback;
+import us.ascendtech.gwt.simplerest.client.MultipleCallback;
+import us.ascendtech.gwt.simplerest.client.RequestHandle;
+import us.ascendtech.gwt.simplerest.client.ResponseType;
+import us.ascendtech.gwt.simplerest.client.SimpleRestGwt;
+import us.ascendtech.gwt.simplerest.client.SingleCallback;
+import us.ascendtech.gwt.simplerest.client.SingleStringCallback;
+import us.ascendtech.gwt.simplerest.client.StreamingCallback;
+
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.lang.annotation.Annotation;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@link SimpleRestGwt} clients implement the interface, whose methods take the data and error callbacks as their last parameters.
+ * GET methods also get a prefetch variant without the callbacks.
+ */
+class AsyncClientEmitter implements ClientEmitter {
+
+	@Override
+	public Class<? extends Annotation> annotation() {
+		return SimpleRestGwt.class;
+	}
+
+	@Override
+	public TypeSpec emit(RestServiceModel service) {
+		TypeSpec.Builder client = service.clientType().addSuperinterface(TypeName.get(service.element.asType()));
+		Set<String> signatures = service.methods.stream().map(method -> method.signature(method.name, 0)).collect(Collectors.toSet());
+
+		for (RestMethodModel method : service.methods) {
+			if (method.incompatible != null) {
+				client.addMethod(method.unsupported());
+				continue;
+			}
+
+			int numParams = method.params.size();
+
+			if (numParams < 2) {
+				throw new RuntimeException("Must be a data and error callback parameter at minimum in method <" + method.name + ">");
+			}
+
+			RestParam secondToLastParam = method.params.get(numParams - 2);
+			RestParam lastParam = method.params.get(numParams - 1);
+
+			CodeBlock.Builder builder = CodeBlock.builder().add("$[");
+			// a RequestHandle return type gives the caller the handle, void methods drop it
+			if (TypeName.get(method.element.getReturnType()).equals(ClassName.get(RequestHandle.class))) {
+				builder.add("return ");
+			}
+			builder.add(method.request(2));
+			builder.add(decoder(secondToLastParam.element.asType()));
+			builder.add(".execute($L,$L);\n$]", secondToLastParam.name, lastParam.name);
+
+			client.addMethod(MethodSpec.overriding(method.element).addCode(builder.build()).build());
+
+			ResponseType responseType = responseType(secondToLastParam.element.asType());
+			if (responseType != null && method.isPrefetchable(2)) {
+				if (!signatures.add(method.signature(method.prefetchName(), 2))) {
+					throw new RuntimeException("Generated <" + method.prefetchName() + "> clashes with a method of the same signature, rename method <"
+							+ method.name + ">");
+				}
+				client.addMethod(method.prefetch(2, responseType == ResponseType.TEXT, responseType));
+			}
+		}
+		return client.build();
+	}
+
+	/**
+	 * The response type execute reads for a data callback, null for callbacks without a body to keep
+	 */
+	private static ResponseType responseType(TypeMirror callbackType) {
+		TypeName type = TypeName.get(callbackType);
+		TypeName rawType = type instanceof ParameterizedTypeName ? ((ParameterizedTypeName) type).rawType : type;
+		if (rawType.equals(ClassName.get(SingleCallback.class)) || rawType.equals(ClassName.get(MultipleCallback.class))) {
+			return ResponseType.JSON;
+		}
+		else if (rawType.equals(ClassName.get(SingleStringCallback.class))) {
+			return ResponseType.TEXT;
+		}
+		else if (rawType.equals(ClassName.get(BinaryCallback.class))) {
+			return ResponseType.BINARY;
+		}
+		return null;
+	}
+
+	/**
+	 * The decoder for the element type of a SingleCallback, MultipleCallback or StreamingCallback parameter
+	 */
+	private static CodeBlock decoder(TypeMirror callbackType) {
+		if (callbackType.getKind() != TypeKind.DECLARED || ((DeclaredType) callbackType).getTypeArguments().size() != 1) {
+			return CodeBlock.of("");
+		}
+		TypeName rawType = ((ParameterizedTypeName) TypeName.get(callbackType)).rawType;
+		TypeMirror bodyType = ((DeclaredType) callbackType).getTypeArguments().get(0);
+		if (rawType.equals(ClassName.get(MultipleCallback.class))) {
+			return RestMethodModel.decoder(bodyType, true);
+		}
+		else if (rawType.equals(ClassName.get(SingleCallback.class)) || rawType.equals(ClassName.get(StreamingCallback.class))) {
+			return RestMethodModel.decoder(bodyType, false);
+		}
+		return CodeBlock.of("");
+	}
+}
@@ -0,0 +1,95 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import us.ascendtech.gwt.simplerest.client.SimpleRestGwtSync;
+import us.ascendtech.gwt.simplerest.client.Streaming;
+
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.List;
+
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+
+/**
+ * Implements a {@link SimpleRestGwtSync} interface for the JVM, each method blocks on the generated callback client until the body
+ * arrives. Only emitted with the jvmBlocking processor option, the class needs simplerest-jvm. Methods returning ArrayBuffer are
+ * compile errors, there is no ArrayBuffer on the JVM to return.
+ */
+class BlockingClientEmitter implements ClientEmitter {
+	private static final String JVM_PACKAGE = "us.ascendtech.gwt.simplerest.jvm";
+	private static final ClassName BLOCKING = ClassName.get(JVM_PACKAGE, "Blocking");
+	private static final ClassName JVM_RUNTIME = ClassName.get(JVM_PACKAGE, "JvmRuntime");
+	private static final ClassName ARRAY_BUFFER = ClassName.get("elemental2.core", "ArrayBuffer");
+
+	@Override
+	public Class<? extends Annotation> annotation() {
+		return SimpleRestGwtSync.class;
+	}
+
+	@Override
+	public TypeSpec emit(RestServiceModel service) {
+		ClassName clientName = service.clientName();
+		TypeSpec.Builder blocking = TypeSpec.classBuilder(service.name.simpleName() + "Blocking").addOriginatingElement(service.element)
+				.addModifiers(PUBLIC).addSuperinterface(service.name);
+		blocking.addField(FieldSpec.builder(clientName, "client", PRIVATE, FINAL).build());
+
+		blocking.addMethod(MethodSpec.constructorBuilder().addModifiers(PUBLIC).addParameter(JVM_RUNTIME, "runtime", FINAL)
+				.addParameter(String.class, "baseUrl", FINAL).addStatement("this(runtime.attach(new $T(baseUrl)))", clientName).build());
+		blocking.addMethod(MethodSpec.constructorBuilder().addModifiers(PUBLIC).addParameter(clientName, "client", FINAL)
+				.addStatement("this.client = client").build());
+		blocking.addMethod(MethodSpec.methodBuilder("getClient").addModifiers(PUBLIC).returns(clientName).addStatement("return client").build());
+
+		for (RestMethodModel method : service.methods) {
+			MethodSpec.Builder methodBuilder = MethodSpec.overriding(method.element);
+			TypeMirror returnType = method.element.getReturnType();
+			if (ARRAY_BUFFER.equals(TypeName.get(returnType))) {
+				throw new ProcessingException("blocking clients cannot return ArrayBuffer, keep " + method.name
+						+ " on an interface the jvmBlocking build does not compile", method.element);
+			}
+			if (method.incompatible != null) {
+				blocking.addMethod(methodBuilder.addStatement("throw new $T(\"$L\")", UnsupportedOperationException.class, method.name).build());
+				continue;
+			}
+
+			CodeBlock.Builder args = CodeBlock.builder();
+			for (VariableElement parameter : method.element.getParameters()) {
+				args.add("$L, ", parameter.getSimpleName());
+			}
+			CodeBlock call = CodeBlock.of("(onDone, onError) -> this.client.$L($LonDone, onError)", method.name, args.build());
+			blocking.addMethod(methodBuilder.addCode(blockingCall(method, returnType, call)).build());
+		}
+		return blocking.build();
+	}
+
+	/**
+	 * Picks the helper matching the callback the sync client declares for the return type
+	 */
+	private static CodeBlock blockingCall(RestMethodModel method, TypeMirror returnType, CodeBlock call) {
+		if (returnType.getKind() == TypeKind.VOID) {
+			return CodeBlock.of("$T.run($L);\n", BLOCKING, call);
+		}
+		TypeName returnTypeName = TypeName.get(returnType);
+		TypeName rawTypeName = returnTypeName instanceof ParameterizedTypeName ? ((ParameterizedTypeName) returnTypeName).rawType : returnTypeName;
+		if (TypeName.get(String.class).equals(returnTypeName)) {
+			return CodeBlock.of("return $T.text($L);\n", BLOCKING, call);
+		}
+		if (TypeName.get(Collection.class).equals(rawTypeName) || TypeName.get(List.class).equals(rawTypeName)) {
+			TypeName elementType = TypeName.get(((DeclaredType) returnType).getTypeArguments().get(0));
+			String helper = method.element.getAnnotation(Streaming.class) != null ? "stream" : "list";
+			return CodeBlock.of("return $T.<$T>$L($L);\n", BLOCKING, elementType, helper, call);
+		}
+		return CodeBlock.of("return $T.<$T>single($L);\n", BLOCKING, returnTypeName, call);
+	}
+}
@@ -0,0 +1,19 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import com.squareup.javapoet.TypeSpec;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Generates one flavour of client from the shared {@link RestServiceModel}.
+ */
+interface ClientEmitter {
+
+	/**
+	 * The annotation that asks for this flavour on a service interface
+	 */
+	Class<? extends Annotation> annotation();
+
+	TypeSpec emit(RestServiceModel service);
+
+}
@@ -0,0 +1,313 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import us.ascendtech.gwt.simplerest.client.Json;
+import us.ascendtech.gwt.simplerest.client.JsonArrayCodec;
+import us.ascendtech.gwt.simplerest.client.JsonCodec;
+import us.ascendtech.gwt.simplerest.client.JsonKey;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * Generates the {@link JsonCodec} of a {@link Json} type. Properties are read and written through public fields or getter and setter
+ * pairs, so native JsType overlays and plain classes are handled alike.
+ */
+class JsonCodecEmitter {
+	private static final ClassName JS = ClassName.get("jsinterop.base", "Js");
+	private static final ClassName JS_PROPERTY_MAP = ClassName.get("jsinterop.base", "JsPropertyMap");
+
+	/**
+	 * A field of the type and how the codec reaches it
+	 */
+	private static class Property {
+		final String key;
+		final TypeMirror type;
+		/**
+		 * read expression on the value, null when the property is write only
+		 */
+		final String read;
+		/**
+		 * field or setter name, null when the property is read only
+		 */
+		final String write;
+		final boolean field;
+
+		Property(String key, TypeMirror type, String read, String write, boolean field) {
+			this.key = key;
+			this.type = type;
+			this.read = read;
+			this.write = write;
+			this.field = field;
+		}
+	}
+
+	static ClassName codecName(TypeElement type) {
+		ClassName name = ClassName.get(type);
+		return ClassName.get(name.packageName(), String.join("_", name.simpleNames()) + "JsonCodec");
+	}
+
+	/**
+	 * The generated codec for values of the given type, or of arrays of it, null when the type has none
+	 */
+	static CodeBlock codec(TypeMirror type, boolean array) {
+		if (type.getKind() == TypeKind.ARRAY) {
+			return array ? null : codec(((ArrayType) type).getComponentType(), true);
+		}
+		if (type.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+		if (element.getAnnotation(Json.class) == null) {
+			return null;
+		}
+		return CodeBlock.of("$T.$L", codecName(element), array ? "ARRAY" : "INSTANCE");
+	}
+
+	/**
+	 * @param type a class with a public no-arg constructor
+	 */
+	static JavaFile emit(TypeElement type, boolean skipJavaLangImports) {
+		Json options = type.getAnnotation(Json.class);
+		ClassName codec = codecName(type);
+		TypeName typeName = TypeName.get(type.asType());
+		List<Property> properties = properties(type, Arrays.asList(options.fields()));
+
+		TypeSpec.Builder builder = TypeSpec.classBuilder(codec.simpleName()).addOriginatingElement(type).addModifiers(PUBLIC, FINAL)
+				.addSuperinterface(ParameterizedTypeName.get(ClassName.get(JsonCodec.class), typeName));
+		builder.addField(FieldSpec.builder(codec, "INSTANCE", PUBLIC, STATIC, FINAL).initializer("new $T()", codec).build());
+		builder.addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(JsonArrayCodec.class), typeName), "ARRAY", PUBLIC, STATIC, FINAL)
+				.initializer("new $T<>(INSTANCE)", JsonArrayCodec.class).build());
+		builder.addMethod(MethodSpec.constructorBuilder().addModifiers(PRIVATE).build());
+
+		MethodSpec.Builder encode = MethodSpec.methodBuilder("encode").addAnnotation(Override.class).addModifiers(PUBLIC).returns(Object.class)
+				.addParameter(typeName, "value");
+		encode.beginControlFlow("if (value == null)").addStatement("return null").endControlFlow();
+		encode.addStatement("$T<$T> json = $T.of()", JS_PROPERTY_MAP, Object.class, JS_PROPERTY_MAP);
+		for (Property property : properties) {
+			if (property.read != null) {
+				encode.addCode(encode(property, options.omitNulls(), options.omitDefaults()));
+			}
+		}
+		builder.addMethod(encode.addStatement("return json").build());
+
+		MethodSpec.Builder decode = MethodSpec.methodBuilder("decode").addAnnotation(Override.class).addModifiers(PUBLIC).returns(typeName)
+				.addParameter(Object.class, "json");
+		decode.beginControlFlow("if (json == null)").addStatement("return null").endControlFlow();
+		decode.addStatement("$T<$T> map = $T.asPropertyMap(json)", JS_PROPERTY_MAP, Object.class, JS);
+		decode.addStatement("$T value = new $T()", typeName, typeName);
+		for (Property property : properties) {
+			if (property.write != null) {
+				decode.addCode(decode(property));
+			}
+		}
+		decode.addStatement("return value");
+		builder.addMethod(decode.build());
+
+		return JavaFile.builder(codec.packageName(), builder.build()).skipJavaLangImports(skipJavaLangImports).build();
+	}
+
+	private static List<Property> properties(TypeElement type, List<String> allowed) {
+		List<Property> properties = new ArrayList<>();
+		// superclass properties first, the json keys follow the declaration order
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() == TypeKind.DECLARED && !TypeName.get(superclass).equals(TypeName.OBJECT)) {
+			properties.addAll(properties((TypeElement) ((DeclaredType) superclass).asElement(), allowed));
+		}
+
+		List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			String name = field.getSimpleName().toString();
+			if (field.getModifiers().contains(STATIC) || field.getModifiers().contains(Modifier.TRANSIENT) || (!allowed.isEmpty() && !allowed.contains(
+					name))) {
+				continue;
+			}
+			String key = field.getAnnotation(JsonKey.class) != null ? field.getAnnotation(JsonKey.class).value() : name;
+			TypeMirror fieldType = field.asType();
+			if (field.getModifiers().contains(PUBLIC)) {
+				properties.add(new Property(key, fieldType, "value." + name, field.getModifiers().contains(FINAL) ? null : name, true));
+				continue;
+			}
+
+			String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+			String getter = null;
+			String setter = null;
+			for (ExecutableElement method : methods) {
+				if (!method.getModifiers().contains(PUBLIC) || method.getModifiers().contains(STATIC)) {
+					continue;
+				}
+				String methodName = method.getSimpleName().toString();
+				if (method.getParameters().isEmpty() && (methodName.equals("get" + capitalized) || methodName.equals("is" + capitalized))
+						&& TypeName.get(method.getReturnType()).equals(TypeName.get(fieldType))) {
+					getter = methodName;
+				}
+				else if (method.getParameters().size() == 1 && methodName.equals("set" + capitalized) && TypeName.get(
+						method.getParameters().get(0).asType()).equals(TypeName.get(fieldType))) {
+					setter = methodName;
+				}
+			}
+			if (getter != null || setter != null) {
+				properties.add(new Property(key, fieldType, getter != null ? "value." + getter + "()" : null, setter, false));
+			}
+		}
+		return properties;
+	}
+
+	static boolean hasNoArgConstructor(TypeElement type) {
+		if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+			return false;
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(PUBLIC)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static CodeBlock encode(Property property, boolean omitNulls, boolean omitDefaults) {
+		TypeMirror type = property.type;
+		String read = property.read;
+		CodeBlock.Builder code = CodeBlock.builder();
+
+		if (type.getKind().isPrimitive()) {
+			CodeBlock value;
+			String nonDefault;
+			if (type.getKind() == TypeKind.BOOLEAN) {
+				value = CodeBlock.of("$L", read);
+				nonDefault = read;
+			}
+			else if (type.getKind() == TypeKind.CHAR) {
+				value = CodeBlock.of("$T.valueOf($L)", String.class, read);
+				nonDefault = read + " != 0";
+			}
+			else {
+				// numbers are handed to js as doubles, boxed ints and longs are not js numbers
+				value = CodeBlock.of("(double) $L", read);
+				nonDefault = read + " != 0";
+			}
+			if (omitDefaults) {
+				return code.beginControlFlow("if ($L)", nonDefault).addStatement("json.set($S, $L)", property.key, value).endControlFlow().build();
+			}
+			return code.addStatement("json.set($S, $L)", property.key, value).build();
+		}
+
+		CodeBlock value;
+		// whether the conversion needs a non-null value
+		boolean guarded = true;
+		TypeName typeName = TypeName.get(type);
+		CodeBlock codec = codec(type, false);
+		if (codec != null) {
+			value = CodeBlock.of("$L.encode($L)", codec, read);
+			guarded = false;
+		}
+		else if (isList(type) && codec(((DeclaredType) type).getTypeArguments().get(0), true) != null) {
+			value = CodeBlock.of("$L.encodeList($L)", codec(((DeclaredType) type).getTypeArguments().get(0), true), read);
+			guarded = false;
+		}
+		else if (typeName.isBoxedPrimitive() && typeName.unbox().equals(TypeName.CHAR)) {
+			value = CodeBlock.of("$T.valueOf($L)", String.class, read);
+		}
+		else if (typeName.isBoxedPrimitive() && !typeName.unbox().equals(TypeName.BOOLEAN) && !typeName.unbox().equals(TypeName.DOUBLE)) {
+			value = CodeBlock.of("$L.doubleValue()", read);
+		}
+		else if (type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM) {
+			value = CodeBlock.of("$L.name()", read);
+		}
+		else {
+			// strings, Double, Boolean and js types are json as they are
+			value = CodeBlock.of("$L", read);
+			guarded = false;
+		}
+
+		if (omitNulls) {
+			return code.beginControlFlow("if ($L != null)", read).addStatement("json.set($S, $L)", property.key, value).endControlFlow().build();
+		}
+		if (guarded) {
+			return code.addStatement("json.set($S, $L != null ? $L : null)", property.key, read, value).build();
+		}
+		return code.addStatement("json.set($S, $L)", property.key, value).build();
+	}
+
+	private static CodeBlock decode(Property property) {
+		TypeMirror type = property.type;
+		CodeBlock json = CodeBlock.of("map.get($S)", property.key);
+		CodeBlock value;
+		// whether the conversion needs a non-null value
+		boolean guarded = true;
+		TypeName typeName = TypeName.get(type);
+		CodeBlock codec = codec(type, false);
+
+		if (type.getKind() == TypeKind.BOOLEAN || typeName.equals(TypeName.BOOLEAN.box())) {
+			value = CodeBlock.of("$T.asBoolean($L)", JS, json);
+		}
+		else if (type.getKind() == TypeKind.CHAR || typeName.equals(TypeName.CHAR.box())) {
+			value = CodeBlock.of("$T.asString($L).charAt(0)", JS, json);
+		}
+		else if (type.getKind() == TypeKind.DOUBLE || typeName.equals(TypeName.DOUBLE.box())) {
+			value = CodeBlock.of("$T.asDouble($L)", JS, json);
+		}
+		else if (type.getKind().isPrimitive()) {
+			value = CodeBlock.of("($T) $T.asDouble($L)", typeName, JS, json);
+		}
+		else if (typeName.isBoxedPrimitive()) {
+			value = CodeBlock.of("$T.valueOf(($T) $T.asDouble($L))", typeName, typeName.unbox(), JS, json);
+		}
+		else if (typeName.equals(TypeName.get(String.class))) {
+			value = CodeBlock.of("$T.asString($L)", JS, json);
+		}
+		else if (codec != null) {
+			value = CodeBlock.of("$L.decode($L)", codec, json);
+			guarded = false;
+		}
+		else if (isList(type) && codec(((DeclaredType) type).getTypeArguments().get(0), true) != null) {
+			value = CodeBlock.of("$L.decodeList($L)", codec(((DeclaredType) type).getTypeArguments().get(0), true), json);
+			guarded = false;
+		}
+		else if (type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM) {
+			value = CodeBlock.of("$T.valueOf($T.asString($L))", typeName, JS, json);
+		}
+		else {
+			value = CodeBlock.of("$T.uncheckedCast($L)", JS, json);
+			guarded = false;
+		}
+
+		CodeBlock assign = property.field ? CodeBlock.of("value.$L = $L", property.write, value) : CodeBlock.of("value.$L($L)", property.write, value);
+		CodeBlock.Builder code = CodeBlock.builder();
+		if (guarded) {
+			// absent keys and json nulls leave the property as constructed
+			return code.beginControlFlow("if ($L != null)", json).addStatement(assign).endControlFlow().build();
+		}
+		return code.addStatement(assign).build();
+	}
+
+	private static boolean isList(TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED || ((DeclaredType) type).getTypeArguments().size() != 1) {
+			return false;
+		}
+		return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(List.class.getName());
+	}
+}
@@ -0,0 +1,16 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import javax.lang.model.element.Element;
+
+/**
+ * A problem with the annotated source rather than the processor, reported as an error on the element without a stack trace
+ */
+class ProcessingException extends RuntimeException {
+
+	final Element element;
+
+	ProcessingException(String message, Element element) {
+		super(message);
+		this.element = element;
+	}
+}
@@ -0,0 +1,63 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import us.ascendtech.gwt.simplerest.client.ResponseType;
+import us.ascendtech.gwt.simplerest.client.SimpleRestGwtPromise;
+
+import javax.lang.model.type.DeclaredType;
+import java.lang.annotation.Annotation;
+
+/**
+ * {@link SimpleRestGwtPromise} clients implement the interface, whose methods return an elemental2 Promise of the body. Lists are
+ * declared as arrays since the json array is handed over as is, a Promise of an ArrayBuffer resolves with the raw body.
+ */
+class PromiseClientEmitter implements ClientEmitter {
+	private static final ClassName PROMISE = ClassName.get("elemental2.promise", "Promise");
+	private static final ClassName ARRAY_BUFFER = ClassName.get("elemental2.core", "ArrayBuffer");
+
+	@Override
+	public Class<? extends Annotation> annotation() {
+		return SimpleRestGwtPromise.class;
+	}
+
+	@Override
+	public TypeSpec emit(RestServiceModel service) {
+		TypeSpec.Builder client = service.clientType().addSuperinterface(TypeName.get(service.element.asType()));
+
+		for (RestMethodModel method : service.methods) {
+			if (method.incompatible != null) {
+				client.addMethod(method.unsupported());
+				continue;
+			}
+
+			TypeName returnType = TypeName.get(method.element.getReturnType());
+			if (!(returnType instanceof ParameterizedTypeName) || !((ParameterizedTypeName) returnType).rawType.equals(PROMISE)) {
+				throw new RuntimeException("Must return an elemental2 Promise in method <" + method.name + ">");
+			}
+			TypeName bodyType = ((ParameterizedTypeName) returnType).typeArguments.get(0);
+			if (bodyType instanceof ParameterizedTypeName) {
+				throw new RuntimeException("Generic body types are not converted from json, declare lists as arrays in method <" + method.name + ">");
+			}
+
+			boolean textResponse = bodyType.equals(ClassName.get(String.class));
+			boolean binary = bodyType.equals(ARRAY_BUFFER);
+			boolean json = !textResponse && !binary && !bodyType.equals(ClassName.get(Void.class));
+
+			CodeBlock.Builder builder = CodeBlock.builder().add("$[return ");
+			builder.add(method.request(0));
+			if (json) {
+				builder.add(RestMethodModel.decoder(((DeclaredType) method.element.getReturnType()).getTypeArguments().get(0), false));
+			}
+			ResponseType responseType = json ? ResponseType.JSON : binary ? ResponseType.BINARY : ResponseType.TEXT;
+			builder.add(".promise($L, $T.$L);\n$]", textResponse, ResponseType.class, responseType);
+
+			client.addMethod(MethodSpec.overriding(method.element).addCode(builder.build()).build());
+		}
+		return client.build();
+	}
+}
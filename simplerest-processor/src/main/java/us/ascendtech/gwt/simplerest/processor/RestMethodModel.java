@@ -0,0 +1,389 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import us.ascendtech.gwt.simplerest.client.Cached;
+import us.ascendtech.gwt.simplerest.client.CompressRequest;
+import us.ascendtech.gwt.simplerest.client.ErrorCallback;
+import us.ascendtech.gwt.simplerest.client.OffloadParsing;
+import us.ascendtech.gwt.simplerest.client.Priority;
+import us.ascendtech.gwt.simplerest.client.RequestPriority;
+import us.ascendtech.gwt.simplerest.client.RequestTemplate;
+import us.ascendtech.gwt.simplerest.client.ResponseType;
+import us.ascendtech.gwt.simplerest.client.Retry;
+import us.ascendtech.gwt.simplerest.client.RetryPolicy;
+import us.ascendtech.gwt.simplerest.client.SimpleRequestBuilder;
+import us.ascendtech.gwt.simplerest.client.StaleWhileRevalidate;
+import us.ascendtech.gwt.simplerest.client.Timeout;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.google.auto.common.MoreTypes.asElement;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toSet;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.ws.rs.HttpMethod.DELETE;
+import static javax.ws.rs.HttpMethod.GET;
+import static javax.ws.rs.HttpMethod.HEAD;
+import static javax.ws.rs.HttpMethod.OPTIONS;
+import static javax.ws.rs.HttpMethod.POST;
+import static javax.ws.rs.HttpMethod.PUT;
+
+/**
+ * One method of a service interface: its parameters, the request template shared by every client flavour and the arguments bound
+ * per call.
+ */
+class RestMethodModel {
+	private static final Set<String> HTTP_METHODS = Stream.of(GET, POST, PUT, DELETE, HEAD, OPTIONS).collect(toSet());
+	// the formats CompressionStream writes
+	private static final List<String> COMPRESSIONS = Arrays.asList("gzip", "deflate", "deflate-raw");
+	private static final ClassName PROMISE = ClassName.get("elemental2.promise", "Promise");
+	// bodies read as text or bytes
+	private static final Set<TypeName> NOT_JSON = new HashSet<>(
+			Arrays.asList(ClassName.get(String.class), ClassName.get(Void.class), ClassName.get("elemental2.core", "ArrayBuffer")));
+
+	final ExecutableElement element;
+	final String name;
+	final String httpMethod;
+	final List<RestParam> params;
+	/**
+	 * a GwtIncompatible annotation, the method is generated to throw when it is present
+	 */
+	final AnnotationMirror incompatible;
+	/**
+	 * initializer of the RequestTemplate field, null for incompatible methods
+	 */
+	final CodeBlock template;
+	final String templateField;
+	/**
+	 * arguments bound to the template's path params, in order
+	 */
+	final List<String> pathArguments;
+
+	private RestMethodModel(ExecutableElement element, String httpMethod, List<RestParam> params, AnnotationMirror incompatible, CodeBlock template,
+			String templateField, List<String> pathArguments) {
+		this.element = element;
+		this.name = element.getSimpleName().toString();
+		this.httpMethod = httpMethod;
+		this.params = params;
+		this.incompatible = incompatible;
+		this.template = template;
+		this.templateField = templateField;
+		this.pathArguments = pathArguments;
+	}
+
+	static RestMethodModel of(TypeElement restService, ExecutableElement method, String[] produces, String[] consumes, Set<String> methodImports,
+			Set<String> fieldNames) {
+		String methodName = method.getSimpleName().toString();
+		String httpMethod = method.getAnnotationMirrors().stream().map(a -> asElement(a.getAnnotationType()).getAnnotation(HttpMethod.class))
+				.filter(Objects::nonNull).map(HttpMethod::value).findFirst().orElse(GET);
+		List<RestParam> params = Collections.unmodifiableList(RestParam.of(method));
+
+		AnnotationMirror incompatible = method.getAnnotationMirrors().stream().filter(a -> a.getAnnotationType().toString().endsWith("GwtIncompatible"))
+				.findAny().orElse(null);
+		if (incompatible != null) {
+			return new RestMethodModel(method, httpMethod, params, incompatible, null, null, Collections.emptyList());
+		}
+
+		// request template, built once per method
+		CodeBlock.Builder template = CodeBlock.builder().add("$T.builder($L)", RequestTemplate.class, methodImport(methodImports, httpMethod));
+		// resolve paths, adjacent static segments are joined here so each call appends fewer parts
+		List<String> pathArguments = new ArrayList<>();
+		StringBuilder segments = new StringBuilder();
+		for (String path : ofNullable(method.getAnnotation(Path.class)).map(Path::value).orElse("").split("/")) {
+			if (path.isEmpty()) {
+				continue;
+			}
+			if (!path.startsWith("{")) {
+				segments.append(segments.length() == 0 ? "" : "/").append(path);
+				continue;
+			}
+			if (segments.length() > 0) {
+				template.add(".path($S)", segments.toString());
+				segments.setLength(0);
+			}
+			template.add(".pathParam()");
+			pathArguments.add(params.stream().filter(p -> p.is(RestParam.Kind.PATH) && path.equals("{" + p.value + "}")).findFirst().map(p -> p.name)
+					// next comment will produce a compilation error so the user get notified
+					.orElse("/* path param " + path + " does not match any argument! */"));
+		}
+		if (segments.length() > 0) {
+			template.add(".path($S)", segments.toString());
+		}
+
+		// produces
+		String[] methodProduces = ofNullable(method.getAnnotation(Produces.class)).map(Produces::value).orElse(produces);
+		if (methodProduces.length > 0) {
+			template.add(".produces($L)", Arrays.stream(methodProduces).map(str -> "\"" + str + "\"").collect(Collectors.joining(", ")));
+		}
+		// consumes
+		String[] methodConsumes = ofNullable(method.getAnnotation(Consumes.class)).map(Consumes::value).orElse(consumes);
+		if (methodConsumes.length > 0) {
+			template.add(".consumes($L)", Arrays.stream(methodConsumes).map(str -> "\"" + str + "\"").collect(Collectors.joining(", ")));
+		}
+
+		// cache
+		Cached cached = ofNullable(method.getAnnotation(Cached.class)).orElse(restService.getAnnotation(Cached.class));
+		if (cached != null) {
+			template.add(".maxAge($L)", cached.maxAge());
+		}
+		StaleWhileRevalidate stale = ofNullable(method.getAnnotation(StaleWhileRevalidate.class))
+				.orElse(restService.getAnnotation(StaleWhileRevalidate.class));
+		if (stale != null) {
+			template.add(".staleWhileRevalidate($L)", stale.maxStale());
+		}
+		// timeout
+		Timeout timeout = ofNullable(method.getAnnotation(Timeout.class)).orElse(restService.getAnnotation(Timeout.class));
+		if (timeout != null) {
+			template.add(".timeout($L)", timeout.value());
+		}
+		// priority
+		Priority priority = ofNullable(method.getAnnotation(Priority.class)).orElse(restService.getAnnotation(Priority.class));
+		if (priority != null) {
+			template.add(".priority($T.$L)", RequestPriority.class, priority.value().name());
+		}
+		// retry
+		Retry retry = ofNullable(method.getAnnotation(Retry.class)).orElse(restService.getAnnotation(Retry.class));
+		if (retry != null) {
+			template.add(".retry(new $T($L, $L, $L, $L))", RetryPolicy.class, retry.maxAttempts(), retry.initialDelay(), retry.maxDelay(),
+					Arrays.stream(retry.methods()).map(str -> "\"" + str + "\"").collect(Collectors.joining(", ")));
+		}
+		// request compression
+		CompressRequest compress = ofNullable(method.getAnnotation(CompressRequest.class)).orElse(restService.getAnnotation(CompressRequest.class));
+		if (compress != null) {
+			if (!COMPRESSIONS.contains(compress.value())) {
+				throw new RuntimeException(
+						"@CompressRequest must be one of " + COMPRESSIONS + ", not <" + compress.value() + "> in method <" + methodName + ">");
+			}
+			template.add(".compress($S, $L)", compress.value(), compress.threshold());
+		}
+		// json parsing on workers
+		OffloadParsing offload = ofNullable(method.getAnnotation(OffloadParsing.class)).orElse(restService.getAnnotation(OffloadParsing.class));
+		if (offload != null) {
+			template.add(".offload($L)", offload.threshold());
+		}
+
+		// metrics are keyed by interface and method rather than url
+		template.add(".endpoint($S)", restService.getSimpleName() + "." + methodName);
+		// for the jvm runtime, callbacks are erased there
+		TypeMirror bodyType = bodyType(method);
+		if (bodyType != null && !NOT_JSON.contains(TypeName.get(bodyType))) {
+			template.add(".bodyType($S)", canonicalName(bodyType));
+		}
+
+		return new RestMethodModel(method, httpMethod, params, null, template.add(".build()").build(), uniqueName(fieldNames, methodName + "Template"),
+				Collections.unmodifiableList(pathArguments));
+	}
+
+	/**
+	 * The request bound to this call's arguments, up to but not including execute
+	 *
+	 * @param callbacks number of trailing callback parameters that are not part of the request
+	 */
+	CodeBlock request(int callbacks) {
+		CodeBlock.Builder builder = CodeBlock.builder().add("request($L)", templateField);
+		pathArguments.forEach(p -> builder.add(".path($L)", p));
+
+		// query, header and form params
+		for (RestParam param : params) {
+			if (param.is(RestParam.Kind.QUERY)) {
+				builder.add(".param($S, $L)", param.value, param.name);
+			}
+			else if (param.is(RestParam.Kind.HEADER)) {
+				builder.add(".header($S, $L)", param.value, param.name);
+			}
+			else if (param.is(RestParam.Kind.FORM)) {
+				builder.add(".form($S, $L)", param.value, param.name);
+			}
+		}
+
+		// data, through its codec when the type has one
+		params.stream().limit(Math.max(0, params.size() - callbacks)).filter(p -> !p.isParam()).findFirst().ifPresent(data -> {
+			CodeBlock codec = JsonCodecEmitter.codec(data.element.asType(), false);
+			if (codec != null) {
+				builder.add(".data($L, $L)", data.name, codec);
+			}
+			else {
+				builder.add(".data($L)", data.name);
+			}
+		});
+		return builder.build();
+	}
+
+	/**
+	 * Sets the codec the response body is decoded with, nothing when the body type has none
+	 *
+	 * @param array whether the body is a json array of the type
+	 */
+	static CodeBlock decoder(TypeMirror bodyType, boolean array) {
+		CodeBlock codec = JsonCodecEmitter.codec(bodyType, array);
+		return codec != null ? CodeBlock.of(".decoder($L)", codec) : CodeBlock.of("");
+	}
+
+	/**
+	 * A GET method can be prefetched when its arguments all end up in the url or headers
+	 */
+	boolean isPrefetchable(int callbacks) {
+		return GET.equals(httpMethod) && incompatible == null && params.stream().limit(Math.max(0, params.size() - callbacks))
+				.allMatch(RestParam::isParam);
+	}
+
+	/**
+	 * prefetch&lt;Method&gt; taking the same arguments without the callbacks, it starts the request and keeps the response for the
+	 * method's next identical call
+	 */
+	MethodSpec prefetch(int callbacks, boolean textResponse, ResponseType responseType) {
+		MethodSpec.Builder prefetch = MethodSpec.methodBuilder(prefetchName()).addModifiers(PUBLIC)
+				.addJavadoc("Fetches {@link #$L} ahead of the call that needs it, see {@link $T#prefetch}\n", name, SimpleRequestBuilder.class);
+		params.stream().limit(params.size() - callbacks).forEach(p -> prefetch.addParameter(ParameterSpec.get(p.element)));
+		return prefetch.addStatement("$L.prefetch($L, $T.$L)", request(callbacks), textResponse, ResponseType.class, responseType).build();
+	}
+
+	String prefetchName() {
+		return "prefetch" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	/**
+	 * The name with the erased types of all but the trailing callback parameters, two methods of a class cannot share it
+	 */
+	String signature(String methodName, int callbacks) {
+		return params.stream().limit(params.size() - callbacks).map(p -> TypeName.get(p.element.asType())).map(
+				type -> type instanceof ParameterizedTypeName ? ((ParameterizedTypeName) type).rawType : type).map(TypeName::toString)
+				.collect(Collectors.joining(",", methodName + "(", ")"));
+	}
+
+	MethodSpec unsupported() {
+		return MethodSpec.overriding(element).addAnnotation(AnnotationSpec.get(incompatible))
+				.addStatement("throw new $T(\"$L\")", UnsupportedOperationException.class, name).build();
+	}
+
+	/**
+	 * The type a json body is read into: the type argument of the data callback, the element of a returned collection or the return
+	 * type, null when there is none
+	 */
+	private static TypeMirror bodyType(ExecutableElement method) {
+		List<? extends VariableElement> params = method.getParameters();
+		int numParams = params.size();
+		if (numParams >= 2 && TypeName.get(params.get(numParams - 1).asType()).equals(ClassName.get(ErrorCallback.class))) {
+			TypeMirror callbackType = params.get(numParams - 2).asType();
+			boolean generic = callbackType.getKind() == TypeKind.DECLARED && ((DeclaredType) callbackType).getTypeArguments().size() == 1;
+			return generic ? ((DeclaredType) callbackType).getTypeArguments().get(0) : null;
+		}
+
+		TypeMirror returnType = method.getReturnType();
+		if (returnType.getKind() != TypeKind.DECLARED) {
+			return returnType.getKind() == TypeKind.ARRAY ? returnType : null;
+		}
+		TypeName type = TypeName.get(returnType);
+		if (!(type instanceof ParameterizedTypeName)) {
+			return returnType;
+		}
+		TypeName rawType = ((ParameterizedTypeName) type).rawType;
+		if (rawType.equals(ClassName.get(Collection.class)) || rawType.equals(ClassName.get(List.class)) || rawType.equals(PROMISE)) {
+			return ((DeclaredType) returnType).getTypeArguments().get(0);
+		}
+		return returnType;
+	}
+
+	/**
+	 * The name Jackson's TypeFactory.constructFromCanonical parses, nested classes by binary name and arrays by descriptor
+	 */
+	static String canonicalName(TypeMirror type) {
+		switch (type.getKind()) {
+			case DECLARED:
+				List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+				String name = binaryName((TypeElement) ((DeclaredType) type).asElement());
+				return arguments.isEmpty() ? name
+						: arguments.stream().map(RestMethodModel::canonicalName).collect(Collectors.joining(",", name + "<", ">"));
+			case ARRAY:
+				return "[" + descriptor(((ArrayType) type).getComponentType());
+			case WILDCARD:
+				TypeMirror bound = ((WildcardType) type).getExtendsBound();
+				return bound != null ? canonicalName(bound) : Object.class.getName();
+			case TYPEVAR:
+				return canonicalName(((TypeVariable) type).getUpperBound());
+			default:
+				return Object.class.getName();
+		}
+	}
+
+	private static String descriptor(TypeMirror type) {
+		switch (type.getKind()) {
+			case BOOLEAN:
+				return "Z";
+			case BYTE:
+				return "B";
+			case SHORT:
+				return "S";
+			case CHAR:
+				return "C";
+			case INT:
+				return "I";
+			case LONG:
+				return "J";
+			case FLOAT:
+				return "F";
+			case DOUBLE:
+				return "D";
+			case ARRAY:
+				return "[" + descriptor(((ArrayType) type).getComponentType());
+			case DECLARED:
+				return "L" + binaryName((TypeElement) ((DeclaredType) type).asElement()) + ";";
+			default:
+				return "Ljava.lang.Object;";
+		}
+	}
+
+	private static String binaryName(TypeElement type) {
+		Element enclosing = type.getEnclosingElement();
+		return enclosing instanceof TypeElement ? binaryName((TypeElement) enclosing) + "$" + type.getSimpleName()
+				: type.getQualifiedName().toString();
+	}
+
+	private static String methodImport(Set<String> methodImports, String method) {
+		if (HTTP_METHODS.contains(method)) {
+			methodImports.add(method);
+			return method;
+		}
+		else {
+			return "\"" + method + "\"";
+		}
+	}
+
+	private static String uniqueName(Set<String> names, String name) {
+		String unique = name;
+		for (int i = 2; !names.add(unique); i++) {
+			unique = name + i;
+		}
+		return unique;
+	}
+}
@@ -0,0 +1,103 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.ws.rs.CookieParam;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.MatrixParam;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A method parameter and its JAX-RS param annotation, read in a single pass over the parameter's annotations.
+ */
+class RestParam {
+
+	enum Kind {
+		PATH,
+		QUERY,
+		HEADER,
+		FORM,
+		COOKIE,
+		MATRIX
+	}
+
+	final VariableElement element;
+	final String name;
+	/**
+	 * null for the body and callback parameters
+	 */
+	final Kind kind;
+	final String value;
+
+	private RestParam(VariableElement element, Kind kind, String value) {
+		this.element = element;
+		this.name = element.getSimpleName().toString();
+		this.kind = kind;
+		this.value = value;
+	}
+
+	boolean isParam() {
+		return kind != null;
+	}
+
+	boolean is(Kind kind) {
+		return this.kind == kind;
+	}
+
+	static List<RestParam> of(ExecutableElement method) {
+		List<RestParam> params = new ArrayList<>(method.getParameters().size());
+		for (VariableElement parameter : method.getParameters()) {
+			params.add(of(parameter));
+		}
+		return params;
+	}
+
+	private static RestParam of(VariableElement parameter) {
+		for (AnnotationMirror annotation : parameter.getAnnotationMirrors()) {
+			Kind kind = kind(((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString());
+			if (kind != null) {
+				return new RestParam(parameter, kind, value(annotation));
+			}
+		}
+		return new RestParam(parameter, null, null);
+	}
+
+	private static Kind kind(String annotation) {
+		if (annotation.equals(PathParam.class.getName())) {
+			return Kind.PATH;
+		}
+		else if (annotation.equals(QueryParam.class.getName())) {
+			return Kind.QUERY;
+		}
+		else if (annotation.equals(HeaderParam.class.getName())) {
+			return Kind.HEADER;
+		}
+		else if (annotation.equals(FormParam.class.getName())) {
+			return Kind.FORM;
+		}
+		else if (annotation.equals(CookieParam.class.getName())) {
+			return Kind.COOKIE;
+		}
+		else if (annotation.equals(MatrixParam.class.getName())) {
+			return Kind.MATRIX;
+		}
+		return null;
+	}
+
+	private static String value(AnnotationMirror annotation) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals("value")) {
+				return String.valueOf(entry.getValue().getValue());
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,102 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import us.ascendtech.gwt.simplerest.client.RequestTemplate;
+import us.ascendtech.gwt.simplerest.client.SimpleRestClient;
+
+import javax.inject.Inject;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Optional.ofNullable;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * Everything the emitters need from a service interface, read from the element model once no matter how many client flavours are
+ * generated for it.
+ */
+class RestServiceModel {
+
+	final TypeElement element;
+	final ClassName name;
+	final String path;
+	final List<RestMethodModel> methods;
+	/**
+	 * HttpMethod constants used by the templates, imported statically
+	 */
+	final Set<String> methodImports;
+
+	private RestServiceModel(TypeElement element, ClassName name, String path, List<RestMethodModel> methods, Set<String> methodImports) {
+		this.element = element;
+		this.name = name;
+		this.path = path;
+		this.methods = methods;
+		this.methodImports = methodImports;
+	}
+
+	static RestServiceModel of(TypeElement restService) {
+		String rsPath = restService.getAnnotation(Path.class).value();
+		String[] empty = {};
+		String[] produces = ofNullable(restService.getAnnotation(Produces.class)).map(Produces::value).orElse(empty);
+		String[] consumes = ofNullable(restService.getAnnotation(Consumes.class)).map(Consumes::value).orElse(empty);
+
+		Set<String> methodImports = new HashSet<>();
+		Set<String> fieldNames = new HashSet<>();
+		List<RestMethodModel> methods = new ArrayList<>();
+		restService.getEnclosedElements().stream().filter(e -> e.getKind() == ElementKind.METHOD && e instanceof ExecutableElement)
+				.map(e -> (ExecutableElement) e).filter(method -> !(method.getModifiers().contains(STATIC) || method.isDefault()))
+				.forEach(method -> methods.add(RestMethodModel.of(restService, method, produces, consumes, methodImports, fieldNames)));
+
+		return new RestServiceModel(restService, ClassName.get(restService), rsPath, Collections.unmodifiableList(methods),
+				Collections.unmodifiableSet(methodImports));
+	}
+
+	ClassName clientName() {
+		return ClassName.get(name.packageName(), name.simpleName() + "SimpleRest");
+	}
+
+	/**
+	 * The client class with its constructor and a request template field per method, emitters add the methods
+	 */
+	TypeSpec.Builder clientType() {
+		TypeSpec.Builder client = TypeSpec.classBuilder(clientName().simpleName()).addOriginatingElement(element).addModifiers(Modifier.PUBLIC)
+				.superclass(SimpleRestClient.class);
+
+		client.addMethod(
+				MethodSpec.constructorBuilder().addAnnotation(Inject.class).addModifiers(PUBLIC).addParameter(TypeName.get(String.class), "baseUrl", FINAL)
+						.addStatement("super($L, $S);", "baseUrl", path).build());
+
+		for (RestMethodModel method : methods) {
+			if (method.template != null) {
+				client.addField(FieldSpec.builder(RequestTemplate.class, method.templateField, PRIVATE, STATIC, FINAL).initializer(method.template).build());
+			}
+		}
+		return client;
+	}
+
+	JavaFile javaFile(TypeSpec client, boolean skipJavaLangImports) {
+		JavaFile.Builder file = JavaFile.builder(name.packageName(), client);
+		for (String methodImport : methodImports)
+			file.addStaticImport(HttpMethod.class, methodImport);
+		return file.skipJavaLangImports(skipJavaLangImports).build();
+	}
+}
@@ -0,0 +1,176 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import com.google.common.base.Throwables;
+import com.squareup.javapoet.JavaFile;
+import us.ascendtech.gwt.simplerest.client.Json;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates clients for every service interface annotated with one of the emitters' annotations. Each interface is read into a
+ * {@link RestServiceModel} once per compilation and shared by all the flavours requested for it. {@link Json} types get their codec,
+ * but only from this processor: the single flavour subclasses report them as errors, so a build naming several never writes a codec twice.
+ */
+public class SimpleRestProcessor extends AbstractProcessor {
+
+	private final List<ClientEmitter> emitters;
+	private final boolean jsonCodecs;
+	private final Map<String, RestServiceModel> models = new HashMap<>();
+
+	public SimpleRestProcessor() {
+		this(true, new AsyncClientEmitter(), new SyncClientEmitter(), new PromiseClientEmitter());
+	}
+
+	SimpleRestProcessor(ClientEmitter... emitters) {
+		this(false, emitters);
+	}
+
+	private SimpleRestProcessor(boolean jsonCodecs, ClientEmitter... emitters) {
+		this.emitters = new ArrayList<>(Arrays.asList(emitters));
+		this.jsonCodecs = jsonCodecs;
+	}
+
+	@Override
+	public synchronized void init(ProcessingEnvironment processingEnv) {
+		super.init(processingEnv);
+		// blocking implementations need simplerest-jvm, so builds for the browser never see them
+		if (processingEnv.getOptions().containsKey("jvmBlocking") && emitters.stream().anyMatch(e -> e instanceof SyncClientEmitter)) {
+			emitters.add(new BlockingClientEmitter());
+		}
+	}
+
+	@Override
+	public Set<String> getSupportedOptions() {
+		return new HashSet<>(Arrays.asList("debug", "skipJavaLangImports", "jvmBlocking"));
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		Set<String> annotations = new LinkedHashSet<>();
+		for (ClientEmitter emitter : emitters) {
+			annotations.add(emitter.annotation().getCanonicalName());
+		}
+		if (jsonCodecs) {
+			annotations.add(Json.class.getCanonicalName());
+		}
+		return annotations;
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver())
+			return false;
+		boolean skipJavaLangImports = processingEnv.getOptions().containsKey("skipJavaLangImports");
+		// the element model is not thread safe, so it is read on the compiler thread and only rendering the sources runs in parallel
+		List<JavaFile> files = new ArrayList<>();
+		if (jsonCodecs) {
+			roundEnv.getElementsAnnotatedWith(Json.class).stream().filter(e -> e instanceof TypeElement).map(e -> (TypeElement) e).forEach(type -> {
+				if (type.getKind() != ElementKind.CLASS) {
+					error("@Json requires a class", type);
+					return;
+				}
+				if (!JsonCodecEmitter.hasNoArgConstructor(type)) {
+					error("@Json types need a public no-arg constructor to decode into", type);
+					return;
+				}
+				try {
+					files.add(JsonCodecEmitter.emit(type, skipJavaLangImports));
+					log("json codec: " + JsonCodecEmitter.codecName(type));
+				}
+				catch (Exception e) {
+					error("uncaught exception processing json type " + type + ": " + e + "\n" + Throwables.getStackTraceAsString(e));
+				}
+			});
+		}
+		else {
+			// the clients decode through codecs this processor does not write
+			roundEnv.getElementsAnnotatedWith(Json.class)
+					.forEach(type -> error("@Json codecs are generated by SimpleRestProcessor, name it instead of " + getClass().getSimpleName(), type));
+		}
+		for (ClientEmitter emitter : emitters) {
+			roundEnv.getElementsAnnotatedWith(emitter.annotation()).stream().filter(e -> e.getKind().isInterface() && e instanceof TypeElement)
+					.map(e -> (TypeElement) e).forEach(restService -> {
+						try {
+							RestServiceModel service = model(restService);
+							files.add(service.javaFile(emitter.emit(service), skipJavaLangImports));
+						}
+						catch (ProcessingException e) {
+							error(e.getMessage(), e.element);
+						}
+						catch (Exception e) {
+							// We don't allow exceptions of any kind to propagate to the compiler
+							error("uncaught exception processing rest service " + restService + ": " + e + "\n" + Throwables.getStackTraceAsString(e));
+						}
+					});
+		}
+		List<String> sources = (files.size() > 1 ? files.parallelStream() : files.stream()).map(JavaFile::toString).collect(Collectors.toList());
+		for (int i = 0; i < files.size(); i++) {
+			JavaFile file = files.get(i);
+			try {
+				write(file, sources.get(i));
+			}
+			catch (Exception e) {
+				error("uncaught exception writing " + file.packageName + "." + file.typeSpec.name + ": " + e + "\n" + Throwables.getStackTraceAsString(e));
+			}
+		}
+		return true;
+	}
+
+	private RestServiceModel model(TypeElement restService) {
+		String key = restService.getQualifiedName().toString();
+		RestServiceModel service = models.get(key);
+		if (service == null) {
+			service = RestServiceModel.of(restService);
+			models.put(key, service);
+			log("rest service interface: " + service.name);
+			log("rest service model: " + service.clientName());
+		}
+		return service;
+	}
+
+	private void write(JavaFile file, String source) throws IOException {
+		String name = file.packageName.isEmpty() ? file.typeSpec.name : file.packageName + "." + file.typeSpec.name;
+		JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(name, file.typeSpec.originatingElements.toArray(new Element[0]));
+		try (Writer writer = sourceFile.openWriter()) {
+			writer.write(source);
+		}
+	}
+
+	private void log(String msg) {
+		if (processingEnv.getOptions().containsKey("debug")) {
+			processingEnv.getMessager().printMessage(Kind.NOTE, msg);
+		}
+	}
+
+	private void error(String msg) {
+		processingEnv.getMessager().printMessage(Kind.ERROR, msg);
+	}
+
+	private void error(String msg, Element element) {
+		processingEnv.getMessager().printMessage(Kind.ERROR, msg, element);
+	}
+}
@@ -0,0 +1,144 @@
+package us.ascendtech.gwt.simplerest.processor;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import us.ascendtech.gwt.simplerest.client.BinaryCallback;
+import us.ascendtech.gwt.simplerest.client.CompletableCallback;
+import us.ascendtech.gwt.simplerest.client.ErrorCallback;
+import us.ascendtech.gwt.simplerest.client.MultipleCallback;
+import us.ascendtech.gwt.simplerest.client.RequestHandle;
+import us.ascendtech.gwt.simplerest.client.SimpleRestGwtSync;
+import us.ascendtech.gwt.simplerest.client.SingleCallback;
+import us.ascendtech.gwt.simplerest.client.SingleStringCallback;
+import us.ascendtech.gwt.simplerest.client.Streaming;
+import us.ascendtech.gwt.simplerest.client.StreamingCallback;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * {@link SimpleRestGwtSync} interfaces declare the return type, the client adds onDone and onError callback parameters and returns the
+ * {@link RequestHandle}.
+ */
+class SyncClientEmitter implements ClientEmitter {
+	private static final ClassName ARRAY_BUFFER = ClassName.get("elemental2.core", "ArrayBuffer");
+
+	@Override
+	public Class<? extends Annotation> annotation() {
+		return SimpleRestGwtSync.class;
+	}
+
+	@Override
+	public TypeSpec emit(RestServiceModel service) {
+		TypeSpec.Builder client = service.clientType();
+
+		for (RestMethodModel method : service.methods) {
+			if (method.incompatible != null) {
+				client.addMethod(method.unsupported());
+				continue;
+			}
+
+			CodeBlock.Builder builder = CodeBlock.builder().add("$[return ");
+			builder.add(method.request(0));
+			builder.add(decoder(method));
+			builder.add(".execute($L,$L);\n$]", "onDone", "onError");
+
+			MethodSpec.Builder methodBuilder = signature(method.element);
+			methodBuilder.addParameter(ParameterSpec.builder(doneCallback(method), "onDone").build());
+			methodBuilder.addParameter(ParameterSpec.builder(ErrorCallback.class, "onError").build());
+			methodBuilder.varargs(method.element.isVarArgs());
+			client.addMethod(methodBuilder.addCode(builder.build()).build());
+		}
+		return client.build();
+	}
+
+	private static MethodSpec.Builder signature(ExecutableElement method) {
+		MethodSpec.Builder methodBuilder = MethodSpec.methodBuilder(method.getSimpleName().toString());
+
+		LinkedHashSet<Modifier> modifiers = new LinkedHashSet<>(method.getModifiers());
+		modifiers.remove(Modifier.ABSTRACT);
+		modifiers.remove(Modifier.DEFAULT);
+		methodBuilder.addModifiers(modifiers);
+
+		for (TypeParameterElement typeParameterElement : method.getTypeParameters()) {
+			TypeVariable var = (TypeVariable) typeParameterElement.asType();
+			methodBuilder.addTypeVariable(TypeVariableName.get(var));
+		}
+
+		methodBuilder.returns(RequestHandle.class);
+		List<ParameterSpec> parameterSpecs = new ArrayList<>();
+		for (VariableElement parameter : method.getParameters()) {
+			parameterSpecs.add(ParameterSpec.get(parameter));
+		}
+		return methodBuilder.addParameters(parameterSpecs);
+	}
+
+	/**
+	 * Collections decode through the element type's array codec, streamed ones element by element
+	 */
+	private static CodeBlock decoder(RestMethodModel method) {
+		TypeMirror returnType = method.element.getReturnType();
+		if (returnType.getKind() != TypeKind.DECLARED) {
+			return CodeBlock.of("");
+		}
+		TypeName rawTypeName = TypeName.get(returnType);
+		if (rawTypeName instanceof ParameterizedTypeName) {
+			rawTypeName = ((ParameterizedTypeName) rawTypeName).rawType;
+		}
+		if (TypeName.get(Collection.class).equals(rawTypeName) || TypeName.get(List.class).equals(rawTypeName)) {
+			boolean streaming = method.element.getAnnotation(Streaming.class) != null;
+			return RestMethodModel.decoder(((DeclaredType) returnType).getTypeArguments().get(0), !streaming);
+		}
+		return RestMethodModel.decoder(returnType, false);
+	}
+
+	private static TypeName doneCallback(RestMethodModel method) {
+		TypeMirror returnType = method.element.getReturnType();
+		if (returnType.getKind().equals(TypeKind.VOID)) {
+			return ClassName.get(CompletableCallback.class);
+		}
+
+		TypeName returnTypeName = TypeName.get(returnType);
+		TypeName rawTypeName = TypeName.get(returnType);
+		if (returnTypeName instanceof ParameterizedTypeName) {
+			rawTypeName = ((ParameterizedTypeName) returnTypeName).rawType;
+		}
+
+		boolean collection = TypeName.get(Collection.class).equals(rawTypeName) || TypeName.get(List.class).equals(rawTypeName);
+		boolean streaming = method.element.getAnnotation(Streaming.class) != null;
+		if (streaming && !collection) {
+			throw new RuntimeException("@Streaming requires a Collection or List return type in method <" + method.name + ">");
+		}
+
+		if (TypeName.get(String.class).equals(returnTypeName)) {
+			return ClassName.get(SingleStringCallback.class);
+		}
+		else if (ARRAY_BUFFER.equals(returnTypeName)) {
+			return ClassName.get(BinaryCallback.class);
+		}
+		else if (collection) {
+			return ParameterizedTypeName.get(ClassName.get(streaming ? StreamingCallback.class : MultipleCallback.class),
+					TypeName.get(((DeclaredType) returnType).getTypeArguments().get(0)));
+		}
+		else {
+			return ParameterizedTypeName.get(ClassName.get(SingleCallback.class), returnTypeName);
+		}
+	}
+}
@@ -0,0 +1,19 @@
+plugins {
+    `java-library`
+}
+
+dependencies {
+    compileOnly("javax.servlet:javax.servlet-api:4.0.1")
+    implementation("javax.ws.rs:jsr311-api:1.1.1")
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.12.1")
+    testImplementation("javax.servlet:javax.servlet-api:4.0.1")
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
+    testImplementation("org.mockito:mockito-core:5.11.0")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+description = "simplerest-server"
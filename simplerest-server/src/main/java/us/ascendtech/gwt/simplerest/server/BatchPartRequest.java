@@ -0,0 +1,135 @@
+package us.ascendtech.gwt.simplerest.server;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+
+class BatchPartRequest extends HttpServletRequestWrapper {
+
+	private final String method;
+	private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final byte[] body;
+
+	BatchPartRequest(HttpServletRequest request, String method, Map<String, String> headers, byte[] body) {
+		super(request);
+		this.method = method;
+		this.headers.putAll(headers);
+		this.body = body;
+	}
+
+	@Override
+	public String getMethod() {
+		return method;
+	}
+
+	@Override
+	public String getHeader(String name) {
+		if (headers.containsKey(name)) {
+			return headers.get(name);
+		}
+		return inherited(name) ? super.getHeader(name) : null;
+	}
+
+	@Override
+	public Enumeration<String> getHeaders(String name) {
+		if (headers.containsKey(name)) {
+			return Collections.enumeration(Collections.singletonList(headers.get(name)));
+		}
+		return inherited(name) ? super.getHeaders(name) : Collections.emptyEnumeration();
+	}
+
+	@Override
+	public Enumeration<String> getHeaderNames() {
+		Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		names.addAll(headers.keySet());
+		for (String name : Collections.list(super.getHeaderNames())) {
+			if (inherited(name)) {
+				names.add(name);
+			}
+		}
+		return Collections.enumeration(names);
+	}
+
+	@Override
+	public int getIntHeader(String name) {
+		String value = getHeader(name);
+		return value != null ? Integer.parseInt(value) : -1;
+	}
+
+	/**
+	 * Headers the part does not set come from the batch request, such as cookies and authorization, except those describing the batch body
+	 */
+	private boolean inherited(String name) {
+		String lower = name.toLowerCase();
+		return !lower.startsWith("content-") && !lower.equals("transfer-encoding");
+	}
+
+	@Override
+	public String getContentType() {
+		return headers.get(CONTENT_TYPE);
+	}
+
+	@Override
+	public int getContentLength() {
+		return body.length;
+	}
+
+	@Override
+	public long getContentLengthLong() {
+		return body.length;
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return StandardCharsets.UTF_8.name();
+	}
+
+	@Override
+	public ServletInputStream getInputStream() {
+		ByteArrayInputStream in = new ByteArrayInputStream(body);
+		return new ServletInputStream() {
+			@Override
+			public boolean isFinished() {
+				return in.available() == 0;
+			}
+
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			@Override
+			public void setReadListener(ReadListener readListener) {
+				throw new UnsupportedOperationException("batch parts are read synchronously");
+			}
+
+			@Override
+			public int read() {
+				return in.read();
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				return in.read(b, off, len);
+			}
+		};
+	}
+
+	@Override
+	public BufferedReader getReader() {
+		return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+	}
+}
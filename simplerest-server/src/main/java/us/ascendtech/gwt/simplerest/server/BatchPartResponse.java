@@ -0,0 +1,211 @@
+package us.ascendtech.gwt.simplerest.server;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static javax.ws.rs.core.HttpHeaders.CONTENT_TYPE;
+import static javax.ws.rs.core.HttpHeaders.LOCATION;
+
+/**
+ * Captures status, headers and body of one forwarded batch part instead of writing them to the batch response.
+ */
+class BatchPartResponse extends HttpServletResponseWrapper {
+
+	private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+	private int status = SC_OK;
+	private String statusText = null;
+	private Charset charset = StandardCharsets.UTF_8;
+	private PrintWriter writer;
+	private ServletOutputStream outputStream;
+
+	BatchPartResponse(HttpServletResponse batchResponse) {
+		super(batchResponse);
+	}
+
+	String getStatusText() {
+		return statusText;
+	}
+
+	Map<String, String> getCapturedHeaders() {
+		return headers;
+	}
+
+	String getBodyAsString() {
+		if (writer != null) {
+			writer.flush();
+		}
+		return new String(body.toByteArray(), charset);
+	}
+
+	@Override
+	public void setStatus(int sc) {
+		this.status = sc;
+	}
+
+	@Override
+	public int getStatus() {
+		return status;
+	}
+
+	@Override
+	public void sendError(int sc) {
+		sendError(sc, null);
+	}
+
+	@Override
+	public void sendError(int sc, String msg) {
+		resetBuffer();
+		this.status = sc;
+		this.statusText = msg;
+	}
+
+	@Override
+	public void sendRedirect(String location) {
+		this.status = SC_FOUND;
+		setHeader(LOCATION, location);
+	}
+
+	@Override
+	public void setHeader(String name, String value) {
+		headers.put(name, value);
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		headers.merge(name, value, (previous, added) -> previous + ", " + added);
+	}
+
+	@Override
+	public void setIntHeader(String name, int value) {
+		setHeader(name, Integer.toString(value));
+	}
+
+	@Override
+	public void addIntHeader(String name, int value) {
+		addHeader(name, Integer.toString(value));
+	}
+
+	@Override
+	public boolean containsHeader(String name) {
+		return headers.containsKey(name);
+	}
+
+	@Override
+	public String getHeader(String name) {
+		return headers.get(name);
+	}
+
+	@Override
+	public Collection<String> getHeaders(String name) {
+		String value = headers.get(name);
+		return value != null ? Collections.singletonList(value) : Collections.emptyList();
+	}
+
+	@Override
+	public Collection<String> getHeaderNames() {
+		return new ArrayList<>(headers.keySet());
+	}
+
+	@Override
+	public void setContentType(String type) {
+		setHeader(CONTENT_TYPE, type);
+	}
+
+	@Override
+	public String getContentType() {
+		return headers.get(CONTENT_TYPE);
+	}
+
+	@Override
+	public void setCharacterEncoding(String charset) {
+		this.charset = Charset.forName(charset);
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return charset.name();
+	}
+
+	@Override
+	public void setContentLength(int len) {
+	}
+
+	@Override
+	public void setContentLengthLong(long len) {
+	}
+
+	@Override
+	public boolean isCommitted() {
+		return false;
+	}
+
+	@Override
+	public void reset() {
+		resetBuffer();
+		headers.clear();
+		status = SC_OK;
+		statusText = null;
+	}
+
+	@Override
+	public void resetBuffer() {
+		// text still buffered in the writer would land in the body after the reset
+		if (writer != null) {
+			writer.flush();
+		}
+		body.reset();
+	}
+
+	@Override
+	public void flushBuffer() {
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() {
+		if (outputStream == null) {
+			outputStream = new ServletOutputStream() {
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setWriteListener(WriteListener writeListener) {
+					throw new UnsupportedOperationException("batch parts are written synchronously");
+				}
+
+				@Override
+				public void write(int b) {
+					body.write(b);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+					body.write(b, off, len);
+				}
+			};
+		}
+		return outputStream;
+	}
+
+	@Override
+	public PrintWriter getWriter() {
+		if (writer == null) {
+			writer = new PrintWriter(new OutputStreamWriter(body, charset));
+		}
+		return writer;
+	}
+}
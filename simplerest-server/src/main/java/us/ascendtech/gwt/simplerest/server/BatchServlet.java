@@ -0,0 +1,140 @@
+package us.ascendtech.gwt.simplerest.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.Response.Status;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+/**
+ * Reference demultiplexer for the client's RequestBatcher. Map it to the batch url in the same web application as the services,
+ * each part is forwarded to its resource in order and the captured responses are returned as one json array.
+ */
+public class BatchServlet extends HttpServlet {
+
+	// set on the batch request while its parts are forwarded, the part requests see it through their wrapper
+	private static final String IN_BATCH = BatchServlet.class.getName() + ".inBatch";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Override
+	protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		if (req.getAttribute(IN_BATCH) != null) {
+			resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "batch parts cannot be batches");
+			return;
+		}
+		JsonNode parts = objectMapper.readTree(req.getInputStream());
+		if (parts == null || !parts.isArray()) {
+			resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "batch body must be a json array");
+			return;
+		}
+
+		req.setAttribute(IN_BATCH, Boolean.TRUE);
+		ArrayNode results = objectMapper.createArrayNode();
+		try {
+			for (JsonNode part : parts) {
+				results.add(dispatch(req, resp, part));
+			}
+		}
+		finally {
+			req.removeAttribute(IN_BATCH);
+		}
+
+		resp.setContentType(APPLICATION_JSON);
+		resp.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		objectMapper.writeValue(resp.getOutputStream(), results);
+	}
+
+	private ObjectNode dispatch(HttpServletRequest req, HttpServletResponse resp, JsonNode part) throws IOException {
+		Map<String, String> headers = new LinkedHashMap<>();
+		Iterator<Map.Entry<String, JsonNode>> fields = part.path("headers").fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			headers.put(field.getKey(), field.getValue().asText());
+		}
+		byte[] body = part.hasNonNull("body") ? part.get("body").asText().getBytes(StandardCharsets.UTF_8) : new byte[0];
+
+		BatchPartRequest partRequest = new BatchPartRequest(req, part.path("method").asText(HttpMethod.GET), headers, body);
+		BatchPartResponse partResponse = new BatchPartResponse(resp);
+		String path;
+		try {
+			path = localPath(req, part.path("url").asText());
+		}
+		catch (IllegalArgumentException e) {
+			path = null;
+		}
+		RequestDispatcher dispatcher = path != null ? req.getRequestDispatcher(path) : null;
+		if (path == null) {
+			partResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "batch part url is malformed");
+		}
+		else if (isBatchPath(req, path)) {
+			partResponse.sendError(HttpServletResponse.SC_BAD_REQUEST, "batch parts cannot be batches");
+		}
+		else if (dispatcher == null) {
+			partResponse.sendError(HttpServletResponse.SC_NOT_FOUND);
+		}
+		else {
+			try {
+				dispatcher.forward(partRequest, partResponse);
+			}
+			catch (ServletException | RuntimeException e) {
+				log("batch part " + part.path("url").asText() + " failed", e);
+				partResponse.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			}
+		}
+
+		ObjectNode result = objectMapper.createObjectNode();
+		result.put("status", partResponse.getStatus());
+		result.put("statusText", partResponse.getStatusText() != null ? partResponse.getStatusText() : reasonPhrase(partResponse.getStatus()));
+		ObjectNode resultHeaders = result.putObject("headers");
+		partResponse.getCapturedHeaders().forEach(resultHeaders::put);
+		result.put("body", partResponse.getBodyAsString());
+		return result;
+	}
+
+	/**
+	 * @throws IllegalArgumentException when the url is malformed or has no path
+	 */
+	private String localPath(HttpServletRequest req, String url) {
+		URI uri = URI.create(url);
+		String path = uri.getRawPath();
+		if (path == null || !path.startsWith("/")) {
+			throw new IllegalArgumentException("no absolute path in " + url);
+		}
+		String contextPath = req.getContextPath();
+		if (!contextPath.isEmpty() && path.startsWith(contextPath)) {
+			path = path.substring(contextPath.length());
+		}
+		return uri.getRawQuery() != null ? path + "?" + uri.getRawQuery() : path;
+	}
+
+	/**
+	 * Whether the path maps to this servlet, forwarding such a part would batch recursively. Paths below the servlet path count
+	 * whether or not the batch request itself has a pathInfo.
+	 */
+	private boolean isBatchPath(HttpServletRequest req, String path) {
+		String target = URI.create(path).normalize().getPath();
+		String servletPath = req.getServletPath();
+		return target.equals(servletPath) || target.startsWith(servletPath + "/");
+	}
+
+	private String reasonPhrase(int status) {
+		Status known = Status.fromStatusCode(status);
+		return known != null ? known.getReasonPhrase() : "";
+	}
+}
@@ -0,0 +1,193 @@
+package us.ascendtech.gwt.simplerest.server;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import static javax.ws.rs.core.HttpHeaders.CONTENT_ENCODING;
+import static javax.ws.rs.core.HttpHeaders.CONTENT_LENGTH;
+
+/**
+ * Reference decoder for request bodies the client compressed because of CompressRequest. Map it in front of the services, gzip,
+ * deflate and deflate-raw bodies reach them decompressed and without the Content-Encoding header, other encodings are answered with 415.
+ * <p>
+ * Bodies are inflated before the services run. One that inflates past the {@value #MAX_INFLATED_SIZE} init-param, 10 MiB by default,
+ * is answered with 413 as soon as the limit is passed, a body that is not valid for its encoding with 400.
+ */
+public class RequestDecompressionFilter implements Filter {
+
+	/**
+	 * Init-param holding the largest decompressed body accepted, in bytes
+	 */
+	public static final String MAX_INFLATED_SIZE = "maxInflatedSize";
+
+	private int maxInflatedSize = 10 * 1024 * 1024;
+
+	@Override
+	public void init(FilterConfig filterConfig) throws ServletException {
+		String max = filterConfig.getInitParameter(MAX_INFLATED_SIZE);
+		if (max == null) {
+			return;
+		}
+		try {
+			maxInflatedSize = Integer.parseInt(max.trim());
+		}
+		catch (NumberFormatException e) {
+			maxInflatedSize = 0;
+		}
+		if (maxInflatedSize < 1) {
+			throw new ServletException(MAX_INFLATED_SIZE + " must be a positive number of bytes, not " + max);
+		}
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+		HttpServletRequest req = (HttpServletRequest) request;
+		String encoding = req.getHeader(CONTENT_ENCODING);
+		if (encoding == null || encoding.equalsIgnoreCase("identity")) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		encoding = encoding.trim().toLowerCase();
+		if (!encoding.equals("gzip") && !encoding.equals("deflate") && !encoding.equals("deflate-raw")) {
+			((HttpServletResponse) response).sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, "unsupported content encoding " + encoding);
+			return;
+		}
+
+		byte[] body;
+		try {
+			body = inflate(req.getInputStream(), encoding);
+		}
+		catch (ZipException | EOFException e) {
+			((HttpServletResponse) response).sendError(HttpServletResponse.SC_BAD_REQUEST, "malformed " + encoding + " body");
+			return;
+		}
+		if (body == null) {
+			((HttpServletResponse) response).sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+					"request body inflates to more than " + maxInflatedSize + " bytes");
+			return;
+		}
+		chain.doFilter(new DecompressedRequest(req, body), response);
+	}
+
+	/**
+	 * The decompressed body, or null once it grows past the limit, the rest is not read
+	 */
+	private byte[] inflate(InputStream compressed, String encoding) throws IOException {
+		// deflate in http is the zlib format, which is what CompressionStream("deflate") writes, deflate-raw has no zlib wrapper
+		try (InputStream in = encoding.equals("gzip") ? new GZIPInputStream(compressed) :
+				encoding.equals("deflate") ? new InflaterInputStream(compressed) : new InflaterInputStream(compressed, new Inflater(true))) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+				if (read > maxInflatedSize - out.size()) {
+					return null;
+				}
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	private static class DecompressedRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		DecompressedRequest(HttpServletRequest request, byte[] body) {
+			super(request);
+			this.body = body;
+		}
+
+		@Override
+		public String getHeader(String name) {
+			return hidden(name) ? null : super.getHeader(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name) {
+			return hidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaderNames() {
+			List<String> names = Collections.list(super.getHeaderNames());
+			names.removeIf(this::hidden);
+			return Collections.enumeration(names);
+		}
+
+		@Override
+		public int getContentLength() {
+			return -1;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return -1;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream in = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+				@Override
+				public boolean isFinished() {
+					return in.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener readListener) {
+					throw new UnsupportedOperationException("compressed bodies are read synchronously");
+				}
+
+				@Override
+				public int read() {
+					return in.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) {
+					return in.read(b, off, len);
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() throws IOException {
+			String charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+			return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+		}
+
+		private boolean hidden(String name) {
+			return name.equalsIgnoreCase(CONTENT_ENCODING) || name.equalsIgnoreCase(CONTENT_LENGTH);
+		}
+	}
+}
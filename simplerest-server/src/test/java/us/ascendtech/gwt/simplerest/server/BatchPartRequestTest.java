@@ -0,0 +1,74 @@
+package us.ascendtech.gwt.simplerest.server;
+
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchPartRequestTest {
+
+	@Test
+	void partHeadersReplaceTheBatchHeaders() {
+		BatchPartRequest part = new BatchPartRequest(batchRequest(), "GET", Map.of("Accept", "application/json", "X-Trace", "abc"), new byte[0]);
+
+		assertEquals("application/json", part.getHeader("accept"));
+		assertEquals(List.of("application/json"), Collections.list(part.getHeaders("ACCEPT")));
+		assertEquals("abc", part.getHeader("X-Trace"));
+		assertEquals(List.of("Accept", "Cookie", "X-Trace"), Collections.list(part.getHeaderNames()));
+	}
+
+	@Test
+	void batchHeadersAreInheritedExceptThoseOfTheBatchBody() {
+		BatchPartRequest part = new BatchPartRequest(batchRequest(), "GET", Map.of(), new byte[0]);
+
+		assertEquals("session=1", part.getHeader("Cookie"));
+		assertEquals(List.of("session=1"), Collections.list(part.getHeaders("cookie")));
+		assertNull(part.getHeader("Content-Type"));
+		assertNull(part.getContentType());
+		assertFalse(part.getHeaders("Content-Length").hasMoreElements());
+		assertEquals(-1, part.getIntHeader("Content-Length"));
+	}
+
+	@Test
+	void bodyIsReadFromThePart() throws IOException {
+		byte[] body = "{\"name\":\"dé\"}".getBytes(StandardCharsets.UTF_8);
+		BatchPartRequest part = new BatchPartRequest(batchRequest(), "POST", Map.of("Content-Type", "application/json", "X-Count", "3"), body);
+
+		assertEquals("POST", part.getMethod());
+		assertEquals("application/json", part.getContentType());
+		assertEquals(3, part.getIntHeader("x-count"));
+		assertEquals(body.length, part.getContentLength());
+		assertEquals(body.length, part.getContentLengthLong());
+		assertEquals("UTF-8", part.getCharacterEncoding());
+
+		ServletInputStream in = part.getInputStream();
+		assertEquals("{\"name\":\"dé\"}", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		assertTrue(in.isFinished());
+		assertEquals("{\"name\":\"dé\"}", part.getReader().readLine());
+	}
+
+	private static HttpServletRequest batchRequest() {
+		HttpServletRequest req = mock(HttpServletRequest.class);
+		when(req.getMethod()).thenReturn("POST");
+		when(req.getHeaderNames()).thenAnswer(call -> Collections.enumeration(List.of("Accept", "Cookie", "Content-Type", "Content-Length")));
+		when(req.getHeader("Accept")).thenReturn("application/json, text/plain");
+		when(req.getHeader("Cookie")).thenReturn("session=1");
+		when(req.getHeaders("cookie")).thenAnswer(call -> Collections.enumeration(List.of("session=1")));
+		when(req.getHeader("Content-Type")).thenReturn("application/json");
+		when(req.getHeader("Content-Length")).thenReturn("512");
+		when(req.getHeaders("Content-Length")).thenAnswer(call -> Collections.enumeration(List.of("512")));
+		return req;
+	}
+}
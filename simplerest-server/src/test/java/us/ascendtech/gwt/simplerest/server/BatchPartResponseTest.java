@@ -0,0 +1,81 @@
+package us.ascendtech.gwt.simplerest.server;
+
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class BatchPartResponseTest {
+
+	private final HttpServletResponse batchResponse = mock(HttpServletResponse.class);
+	private final BatchPartResponse part = new BatchPartResponse(batchResponse);
+
+	@Test
+	void capturesStatusHeadersAndBody() throws IOException {
+		part.setStatus(HttpServletResponse.SC_CREATED);
+		part.setContentType("application/json");
+		part.addHeader("Vary", "Accept");
+		part.addHeader("vary", "Origin");
+		part.setIntHeader("X-Count", 2);
+		part.getWriter().write("{\"name\":\"dé\"}");
+
+		assertEquals(201, part.getStatus());
+		assertNull(part.getStatusText());
+		assertEquals("application/json", part.getContentType());
+		assertEquals("Accept, Origin", part.getHeader("Vary"));
+		assertEquals(List.of("2"), part.getHeaders("x-count"));
+		assertTrue(part.containsHeader("content-type"));
+		assertEquals("{\"name\":\"dé\"}", part.getBodyAsString());
+		assertFalse(part.isCommitted());
+		verifyNoInteractions(batchResponse);
+	}
+
+	@Test
+	void bodyIsDecodedWithTheResponseCharset() throws IOException {
+		part.setCharacterEncoding("ISO-8859-1");
+		part.getOutputStream().write("café".getBytes(StandardCharsets.ISO_8859_1));
+
+		assertEquals("ISO-8859-1", part.getCharacterEncoding());
+		assertEquals("café", part.getBodyAsString());
+	}
+
+	@Test
+	void sendErrorDiscardsWhatWasWritten() throws IOException {
+		part.getWriter().write("partial");
+		part.sendError(HttpServletResponse.SC_NOT_FOUND, "no item");
+
+		assertEquals(404, part.getStatus());
+		assertEquals("no item", part.getStatusText());
+		assertEquals("", part.getBodyAsString());
+	}
+
+	@Test
+	void redirectSetsTheLocation() {
+		part.sendRedirect("/app/api/items/2");
+
+		assertEquals(HttpServletResponse.SC_FOUND, part.getStatus());
+		assertEquals("/app/api/items/2", part.getHeader("Location"));
+	}
+
+	@Test
+	void resetClearsStatusHeadersAndBody() throws IOException {
+		part.sendError(HttpServletResponse.SC_BAD_REQUEST, "bad");
+		part.setHeader("X-Trace", "abc");
+		part.getOutputStream().write(1);
+		part.reset();
+
+		assertEquals(200, part.getStatus());
+		assertNull(part.getStatusText());
+		assertTrue(part.getHeaderNames().isEmpty());
+		assertEquals("", part.getBodyAsString());
+	}
+}
@@ -0,0 +1,235 @@
+package us.ascendtech.gwt.simplerest.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.ReadListener;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Posts batches to the servlet mapped at /app/batch. The resources behind the batch are request dispatchers registered per path,
+ * the batch response is read back from what the servlet writes.
+ */
+class BatchServletTest {
+
+	@FunctionalInterface
+	private interface Resource {
+
+		void handle(HttpServletRequest req, HttpServletResponse resp) throws IOException, ServletException;
+
+	}
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Map<String, Object> attributes = new HashMap<>();
+	private final Map<String, RequestDispatcher> resources = new HashMap<>();
+	private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+	private final AtomicInteger forwards = new AtomicInteger();
+	private BatchServlet servlet;
+
+	@BeforeEach
+	void init() throws ServletException {
+		servlet = new BatchServlet();
+		ServletConfig config = mock(ServletConfig.class);
+		when(config.getServletContext()).thenReturn(mock(ServletContext.class));
+		servlet.init(config);
+	}
+
+	@Test
+	void forwardsEachPartAndCollectsTheResponses() throws Exception {
+		resource("/api/items/1", (req, resp) -> {
+			assertEquals("GET", req.getMethod());
+			assertEquals("session=1", req.getHeader("Cookie"));
+			resp.setContentType("application/json");
+			resp.getWriter().write("{\"id\":1}");
+		});
+		resource("/api/items?notify=true", (req, resp) -> {
+			assertEquals("POST", req.getMethod());
+			assertEquals("application/json", req.getContentType());
+			String name = objectMapper.readTree(req.getReader()).get("name").asText();
+			resp.setStatus(HttpServletResponse.SC_CREATED);
+			resp.addHeader("Location", "/app/api/items/2");
+			resp.getWriter().write("{\"id\":2,\"name\":\"" + name + "\"}");
+		});
+
+		JsonNode results = post("/batch", null, "[{\"method\":\"GET\",\"url\":\"/app/api/items/1\",\"headers\":{\"Accept\":\"application/json\"}},"
+				+ "{\"method\":\"POST\",\"url\":\"/app/api/items?notify=true\",\"headers\":{\"Content-Type\":\"application/json\"},"
+				+ "\"body\":\"{\\\"name\\\":\\\"two\\\"}\"}]");
+
+		assertEquals(2, results.size());
+		assertEquals(200, results.get(0).get("status").asInt());
+		assertEquals("OK", results.get(0).get("statusText").asText());
+		assertEquals("application/json", results.get(0).get("headers").get("Content-Type").asText());
+		assertEquals("{\"id\":1}", results.get(0).get("body").asText());
+		assertEquals(201, results.get(1).get("status").asInt());
+		assertEquals("Created", results.get(1).get("statusText").asText());
+		assertEquals("/app/api/items/2", results.get(1).get("headers").get("Location").asText());
+		assertEquals("{\"id\":2,\"name\":\"two\"}", results.get(1).get("body").asText());
+	}
+
+	@Test
+	void rejectsPartsAddressedToAnExactlyMappedBatchServlet() throws Exception {
+		resource("/batch", (req, resp) -> servlet.doPost(req, resp));
+		resource("/batch/nested", (req, resp) -> servlet.doPost(req, resp));
+		resource("/api/../batch", (req, resp) -> servlet.doPost(req, resp));
+
+		JsonNode results = post("/batch", null, "[{\"url\":\"/app/batch\"},{\"url\":\"/app/batch/nested\"},{\"url\":\"/app/api/../batch\"}]");
+
+		assertEquals(3, results.size());
+		for (JsonNode result : results) {
+			assertEquals(400, result.get("status").asInt());
+			assertEquals("batch parts cannot be batches", result.get("statusText").asText());
+		}
+		assertEquals(0, forwards.get());
+	}
+
+	@Test
+	void rejectsBatchesReachedThroughAnotherMapping() throws Exception {
+		resource("/rpc/batch", (req, resp) -> servlet.doPost(req, resp));
+
+		JsonNode results = post("/batch", "/", "[{\"method\":\"POST\",\"url\":\"/app/rpc/batch\",\"body\":\"[]\"}]");
+
+		assertEquals(1, forwards.get());
+		assertEquals(400, results.get(0).get("status").asInt());
+		assertEquals("batch parts cannot be batches", results.get(0).get("statusText").asText());
+		assertTrue(attributes.isEmpty(), "the batch marker is removed once the parts are answered");
+	}
+
+	@Test
+	void malformedUrlFailsOnlyItsPart() throws Exception {
+		resource("/api/items/1", (req, resp) -> resp.getWriter().write("one"));
+
+		JsonNode results = post("/batch", null, "[{\"url\":\"/app/api/a b\"},{\"url\":\"mailto:someone@example.com\"},{\"url\":\"/app/api/items/1\"}]");
+
+		assertEquals(400, results.get(0).get("status").asInt());
+		assertEquals("batch part url is malformed", results.get(0).get("statusText").asText());
+		assertEquals(400, results.get(1).get("status").asInt());
+		assertEquals(200, results.get(2).get("status").asInt());
+		assertEquals("one", results.get(2).get("body").asText());
+	}
+
+	@Test
+	void unknownPathsAndFailingResourcesAreAnsweredPerPart() throws Exception {
+		resource("/api/broken", (req, resp) -> {
+			throw new ServletException("broken");
+		});
+
+		JsonNode results = post("/batch", null, "[{\"url\":\"/app/api/missing\"},{\"url\":\"/app/api/broken\"}]");
+
+		assertEquals(404, results.get(0).get("status").asInt());
+		assertEquals("Not Found", results.get(0).get("statusText").asText());
+		assertEquals(500, results.get(1).get("status").asInt());
+	}
+
+	@Test
+	void bodyThatIsNotAnArrayIsRejected() throws Exception {
+		HttpServletResponse resp = batchResponse();
+		servlet.doPost(batchRequest("/batch", null, "{}"), resp);
+
+		verify(resp).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+	}
+
+	private void resource(String path, Resource resource) throws IOException, ServletException {
+		RequestDispatcher dispatcher = mock(RequestDispatcher.class);
+		doAnswer(call -> {
+			forwards.incrementAndGet();
+			resource.handle(call.getArgument(0), call.getArgument(1));
+			return null;
+		}).when(dispatcher).forward(any(), any());
+		resources.put(path, dispatcher);
+	}
+
+	private JsonNode post(String servletPath, String pathInfo, String batch) throws IOException, ServletException {
+		servlet.doPost(batchRequest(servletPath, pathInfo, batch), batchResponse());
+		return objectMapper.readTree(written.toByteArray());
+	}
+
+	private HttpServletRequest batchRequest(String servletPath, String pathInfo, String batch) throws IOException {
+		HttpServletRequest req = mock(HttpServletRequest.class);
+		when(req.getMethod()).thenReturn("POST");
+		when(req.getContextPath()).thenReturn("/app");
+		when(req.getServletPath()).thenReturn(servletPath);
+		when(req.getPathInfo()).thenReturn(pathInfo);
+		when(req.getInputStream()).thenReturn(inputStream(batch.getBytes(StandardCharsets.UTF_8)));
+		when(req.getHeaderNames()).thenAnswer(call -> Collections.enumeration(List.of("Cookie", "Content-Type")));
+		when(req.getHeader("Cookie")).thenReturn("session=1");
+		when(req.getHeader("Content-Type")).thenReturn("application/json");
+		when(req.getRequestDispatcher(anyString())).thenAnswer(call -> resources.get(call.<String>getArgument(0)));
+		when(req.getAttribute(anyString())).thenAnswer(call -> attributes.get(call.<String>getArgument(0)));
+		doAnswer(call -> attributes.put(call.getArgument(0), call.getArgument(1))).when(req).setAttribute(anyString(), any());
+		doAnswer(call -> attributes.remove(call.<String>getArgument(0))).when(req).removeAttribute(anyString());
+		return req;
+	}
+
+	private HttpServletResponse batchResponse() throws IOException {
+		HttpServletResponse resp = mock(HttpServletResponse.class);
+		when(resp.getOutputStream()).thenReturn(new ServletOutputStream() {
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+			}
+
+			@Override
+			public void write(int b) {
+				written.write(b);
+			}
+		});
+		return resp;
+	}
+
+	private static ServletInputStream inputStream(byte[] bytes) {
+		ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+		return new ServletInputStream() {
+			@Override
+			public boolean isFinished() {
+				return in.available() == 0;
+			}
+
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			@Override
+			public void setReadListener(ReadListener readListener) {
+			}
+
+			@Override
+			public int read() {
+				return in.read();
+			}
+		};
+	}
+}
@@ -0,0 +1,193 @@
+package us.ascendtech.gwt.simplerest.server;
+
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RequestDecompressionFilterTest {
+
+	private final HttpServletResponse response = mock(HttpServletResponse.class);
+	private final FilterChain chain = mock(FilterChain.class);
+	private final AtomicReference<HttpServletRequest> forwarded = new AtomicReference<>();
+
+	@Test
+	void servicesReadTheDecompressedBody() throws Exception {
+		String body = "{\"name\":\"dé\"}".repeat(100);
+		RequestDecompressionFilter filter = filter(null);
+
+		for (String encoding : List.of("gzip", "deflate", "deflate-raw")) {
+			filter.doFilter(request(encoding, compress(encoding, body)), response, chain());
+			HttpServletRequest req = forwarded.get();
+			assertEquals(body, new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+			assertEquals(body, req.getReader().readLine());
+			assertNull(req.getHeader("Content-Encoding"));
+			assertNull(req.getHeader("Content-Length"));
+			assertEquals(List.of("Content-Type"), Collections.list(req.getHeaderNames()));
+			assertEquals(-1, req.getContentLength());
+		}
+	}
+
+	@Test
+	void bodyAtTheLimitIsAccepted() throws Exception {
+		String body = "x".repeat(4096);
+		filter("4096").doFilter(request("gzip", compress("gzip", body)), response, chain());
+
+		assertEquals(body, new String(forwarded.get().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+		verifyNoInteractions(response);
+	}
+
+	@Test
+	void bodyPastTheLimitIsAnswered413() throws Exception {
+		// random bytes do not compress, so the compressed body is as long as the decompressed one
+		byte[] random = new byte[1024 * 1024];
+		new Random(1).nextBytes(random);
+		byte[] compressed = compress("gzip", random);
+		HttpServletRequest req = request("gzip", compressed);
+		ServletInputStream in = req.getInputStream();
+
+		filter("4096").doFilter(req, response, chain);
+
+		verify(response).sendError(eq(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE), anyString());
+		verifyNoInteractions(chain);
+		assertTrue(in.available() > compressed.length - 65536, "reading stops at the limit");
+	}
+
+	@Test
+	void malformedBodyIsAnswered400() throws Exception {
+		byte[] compressed = compress("gzip", "x".repeat(4096));
+
+		filter(null).doFilter(request("gzip", "not gzip".getBytes(StandardCharsets.UTF_8)), response, chain);
+		filter(null).doFilter(request("gzip", Arrays.copyOf(compressed, compressed.length / 2)), response, chain);
+
+		verify(response, times(2)).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+		verifyNoInteractions(chain);
+	}
+
+	@Test
+	void unsupportedEncodingIsAnswered415() throws Exception {
+		filter(null).doFilter(request("br", new byte[] { 1, 2, 3 }), response, chain);
+
+		verify(response).sendError(eq(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE), anyString());
+		verifyNoInteractions(chain);
+	}
+
+	@Test
+	void uncompressedBodiesPassThrough() throws Exception {
+		HttpServletRequest req = mock(HttpServletRequest.class);
+		filter(null).doFilter(req, response, chain());
+
+		assertEquals(req, forwarded.get());
+	}
+
+	@Test
+	void limitMustBeAPositiveNumberOfBytes() {
+		assertThrows(ServletException.class, () -> filter("0"));
+		assertThrows(ServletException.class, () -> filter("10MB"));
+	}
+
+	private static RequestDecompressionFilter filter(String maxInflatedSize) throws ServletException {
+		FilterConfig config = mock(FilterConfig.class);
+		when(config.getInitParameter(RequestDecompressionFilter.MAX_INFLATED_SIZE)).thenReturn(maxInflatedSize);
+		RequestDecompressionFilter filter = new RequestDecompressionFilter();
+		filter.init(config);
+		return filter;
+	}
+
+	private FilterChain chain() throws IOException, ServletException {
+		doAnswer(call -> {
+			forwarded.set(call.getArgument(0));
+			return null;
+		}).when(chain).doFilter(any(), any());
+		return chain;
+	}
+
+	private static HttpServletRequest request(String encoding, byte[] compressed) throws IOException {
+		HttpServletRequest req = mock(HttpServletRequest.class);
+		when(req.getHeader("Content-Encoding")).thenReturn(encoding);
+		when(req.getHeader("Content-Length")).thenReturn(Integer.toString(compressed.length));
+		when(req.getHeaderNames()).thenAnswer(call -> Collections.enumeration(List.of("Content-Encoding", "Content-Length", "Content-Type")));
+		when(req.getInputStream()).thenReturn(inputStream(compressed));
+		return req;
+	}
+
+	private static byte[] compress(String encoding, String body) throws IOException {
+		return compress(encoding, body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static byte[] compress(String encoding, byte[] body) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Deflater raw = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try (OutputStream out = encoding.equals("gzip") ? new GZIPOutputStream(bytes) :
+				encoding.equals("deflate") ? new DeflaterOutputStream(bytes) : new DeflaterOutputStream(bytes, raw)) {
+			out.write(body);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static ServletInputStream inputStream(byte[] bytes) {
+		ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+		return new ServletInputStream() {
+			@Override
+			public boolean isFinished() {
+				return in.available() == 0;
+			}
+
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			@Override
+			public void setReadListener(ReadListener readListener) {
+			}
+
+			@Override
+			public int read() {
+				return in.read();
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				return in.read(b, off, len);
+			}
+
+			@Override
+			public int available() {
+				return in.available();
+			}
+		};
+	}
+}